@@ -0,0 +1,30 @@
+package jocDeDaus.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+
+/**
+ * Variante reactiva del API de jugadores (WebFlux + R2DBC)
+ *
+ * Expone los mismos recursos /players que la aplicacion MVC, sobre el mismo esquema (db/schema.sql),
+ * sin un hilo bloqueado por peticion: el servidor (Netty) y el acceso a la base de datos (R2DBC) son
+ * no bloqueantes. Permite comparar rendimiento y latencias de cola de ambas pilas con alta concurrencia
+ *
+ * Las peticiones se autentican con los tokens de acceso de la aplicacion MVC (ver SecurityConfig), y solo
+ * escribe en su propia base de datos H2 en memoria (ver SingleWriterConfiguration)
+ *
+ * Anotaciones:
+ * @SpringBootApplication
+ * Sin el usuario con password generada de Spring Boot: la unica autenticacion es el token JWT
+ *
+ */
+
+@SpringBootApplication(exclude = ReactiveUserDetailsServiceAutoConfiguration.class)
+public class ReactiveApp {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveApp.class, args);
+	}
+
+}
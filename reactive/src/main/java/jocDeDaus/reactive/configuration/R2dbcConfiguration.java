@@ -0,0 +1,69 @@
+package jocDeDaus.reactive.configuration;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.hateoas.config.EnableHypermediaSupport;
+import org.springframework.hateoas.support.WebStack;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+
+import java.util.TimeZone;
+
+/**
+ * Clase de la capa de Configuration de Spring
+ *
+ * Inicializa la base de datos con el mismo esquema y datos que la aplicacion MVC, y activa la
+ * representacion HAL de los recursos en WebFlux
+ *
+ * Anotaciones:
+ *
+ * @Configuration
+ * Indica que una clase declara uno o más métodos @Bean y puede ser procesada por el contenedor Spring
+ * para generar definiciones de bean y solicitudes de servicio para esos beans en tiempo de ejecución
+ *
+ * @EnableHypermediaSupport
+ * Activa los tipos de medio hipermedia indicados (HAL) para la pila web indicada (WebFlux)
+ *
+ */
+
+@Configuration
+@EnableHypermediaSupport(type = EnableHypermediaSupport.HypermediaType.HAL, stacks = WebStack.WEBFLUX)
+public class R2dbcConfiguration {
+
+    /**
+     * Ejecuta db/schema.sql y db/data.sql al arrancar, igual que spring.datasource.initialization-mode=always
+     * en la aplicacion MVC. En modo de solo lectura (ver SingleWriterConfiguration) la base de datos es la de
+     * otra aplicacion y no se inicializa
+     *
+     * @param connectionFactory fabrica de conexiones R2DBC
+     * @param schema script de creacion de tablas
+     * @param data script de datos iniciales
+     * @param readOnly jocdedaus.reactive.read-only
+     * @return instancia de tipo ConnectionFactoryInitializer
+     */
+    @Bean
+    public ConnectionFactoryInitializer initializer(ConnectionFactory connectionFactory,
+                                                    @Value("${jocdedaus.r2dbc.schema:classpath:db/schema.sql}") Resource schema,
+                                                    @Value("${jocdedaus.r2dbc.data:classpath:db/data.sql}") Resource data,
+                                                    @Value("${jocdedaus.reactive.read-only:false}") boolean readOnly) {
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(schema, data));
+        initializer.setEnabled(!readOnly);
+        return initializer;
+    }
+
+    /**
+     * Fechas en la zona horaria del servidor, igual que el ObjectMapper de la aplicacion MVC
+     *
+     * @return instancia de tipo Jackson2ObjectMapperBuilderCustomizer
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer timeZoneCustomizer() {
+        return builder -> builder.timeZone(TimeZone.getDefault());
+    }
+}
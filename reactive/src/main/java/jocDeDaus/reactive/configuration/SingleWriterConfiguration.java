@@ -0,0 +1,77 @@
+package jocDeDaus.reactive.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.WebFilter;
+
+import javax.annotation.PostConstruct;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Clase de la capa de Configuration de Spring
+ *
+ * Un unico escritor por base de datos. La aplicacion MVC guarda en memoria parte de su estado (contadores y
+ * clasificacion del ranking, indice de nombres, cache de segundo nivel de Hibernate y los contadores de
+ * GAME_COUNTER), que no ve las escrituras hechas por otra aplicacion. Por eso la variante reactiva solo escribe
+ * en su propia base de datos H2 en memoria (spring.r2dbc.url=r2dbc:h2:mem:...), a la que nadie mas accede.
+ *
+ * Con cualquier otra base de datos, por ejemplo la MySQL de la aplicacion MVC, debe arrancar en modo de solo
+ * lectura (jocdedaus.reactive.read-only=true): no ejecuta db/schema.sql ni db/data.sql y responde 405 a las
+ * peticiones que no sean de lectura. En otro caso la aplicacion no arranca
+ *
+ * Anotaciones:
+ *
+ * @Configuration
+ * Indica que una clase declara uno o más métodos @Bean y puede ser procesada por el contenedor Spring
+ * para generar definiciones de bean y solicitudes de servicio para esos beans en tiempo de ejecución
+ *
+ * @ConditionalOnProperty
+ * El filtro de solo lectura solo se crea con jocdedaus.reactive.read-only=true
+ *
+ */
+
+@Configuration
+public class SingleWriterConfiguration {
+
+    private static final Pattern EMBEDDED_H2_URL = Pattern.compile("^r2dbc:(pool:)?h2:mem:.*");
+
+    private static final Set<HttpMethod> READ_METHODS = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    @Value("${spring.r2dbc.url}")
+    private String url;
+
+    @Value("${jocdedaus.reactive.read-only:false}")
+    private boolean readOnly;
+
+    @PostConstruct
+    public void checkSingleWriter() {
+        if (!readOnly && !EMBEDDED_H2_URL.matcher(url).matches()){
+            throw new IllegalStateException("The reactive application only writes to its own in-memory H2 database "
+                    + "(r2dbc:h2:mem:...); set jocdedaus.reactive.read-only=true to use " + url);
+        }
+    }
+
+    /**
+     * Rechaza con 405 las peticiones que no sean de lectura
+     *
+     * @return instancia de tipo WebFilter
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jocdedaus.reactive.read-only", havingValue = "true")
+    public WebFilter readOnlyFilter() {
+        return (exchange, chain) -> {
+            if (READ_METHODS.contains(exchange.getRequest().getMethod())){
+                return chain.filter(exchange);
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.METHOD_NOT_ALLOWED);
+            exchange.getResponse().getHeaders().setAllow(READ_METHODS);
+            return exchange.getResponse().setComplete();
+        };
+    }
+}
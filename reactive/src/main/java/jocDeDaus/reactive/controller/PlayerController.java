@@ -0,0 +1,423 @@
+package jocDeDaus.reactive.controller;
+
+import jocDeDaus.reactive.controller.exception.PlayerNotFoundException;
+import jocDeDaus.reactive.dto.CrapsRollSummaryDto;
+import jocDeDaus.reactive.entity.CrapsRoll;
+import jocDeDaus.reactive.entity.Player;
+import jocDeDaus.reactive.service.ICrapsRollService;
+import jocDeDaus.reactive.service.IPlayerService;
+import jocDeDaus.reactive.service.IRankingService;
+import jocDeDaus.reactive.util.assembler.CrapsRollModelAssembler;
+import jocDeDaus.reactive.util.assembler.PlayerLinks;
+import jocDeDaus.reactive.util.assembler.PlayerModelAssembler;
+import jocDeDaus.reactive.util.assembler.RankingModelAssembler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.problem.Problem;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Clase de la capa Controller
+ *
+ * Mismos recursos /players que PlayerController de la aplicacion MVC, con las mismas rutas, codigos de
+ * estado y representaciones HAL, sobre WebFlux: cada metodo devuelve un Mono que se completa cuando la
+ * base de datos responde, sin ocupar un hilo mientras tanto.
+ *
+ * No incluye la autenticacion JWT ni las variantes en streaming (stream=true) de la aplicacion MVC
+ *
+ * Anotaciones:
+ *
+ * @RestController
+ * Anotacion que a su vez esta anotada con @Controller y @ResponseBody.
+ * Los tipos que llevan esta anotacion se tratan como controladores donde los metodos @RequestMapping
+ * asumen la semantica @ResponseBody por defecto
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ * @GetMapping
+ * Anotacion compuesta que actua como un atajo para @RequestMapping(method = RequestMethod.GET).
+ * El punto de acceso a la peticion sera http://localhost:8082/{path}, en este caso
+ * (el puerto 8082 queda especificado en el archivo application.properties del modulo reactive)
+ *
+ * @PostMapping
+ * Anotacion compuesta que actua como un atajo para @RequestMapping(method = RequestMethod.POST).
+ *
+ * @PutMapping
+ * Anotacion compuesta que actua como un atajo para @RequestMapping(method = RequestMethod.PUT).
+ *
+ * @DeleteMapping
+ * Anotacion compuesta que actua como un atajo para @RequestMapping(method = RequestMethod.DELETE).
+ */
+@RestController
+public class PlayerController {
+
+    private static final int DEFAULT_PAGE_LIMIT = 20;
+    private static final int MAX_PAGE_LIMIT = 100;
+    private static final int MAX_BULK_CRAPS_ROLLS = 10000;
+    private static final int DEFAULT_RANKING_LIMIT = 10;
+    private static final int MAX_RANKING_LIMIT = 100;
+
+    private final IPlayerService iPlayerService;
+    private final ICrapsRollService iCrapsRollService;
+    private final IRankingService iRankingService;
+    private final PlayerModelAssembler playerModelAssembler;
+    private final CrapsRollModelAssembler crapsRollModelAssembler;
+    private final RankingModelAssembler rankingModelAssembler;
+    private final PlayerLinks playerLinks;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param iPlayerService
+     * @param iCrapsRollService
+     * @param iRankingService
+     * @param playerModelAssembler
+     * @param crapsRollModelAssembler
+     * @param rankingModelAssembler
+     * @param playerLinks
+     */
+    @Autowired
+    public PlayerController(IPlayerService iPlayerService,
+                            ICrapsRollService iCrapsRollService,
+                            IRankingService iRankingService,
+                            PlayerModelAssembler playerModelAssembler,
+                            CrapsRollModelAssembler crapsRollModelAssembler,
+                            RankingModelAssembler rankingModelAssembler,
+                            PlayerLinks playerLinks) {
+
+        this.iPlayerService = iPlayerService;
+        this.iCrapsRollService = iCrapsRollService;
+        this.iRankingService = iRankingService;
+        this.playerModelAssembler = playerModelAssembler;
+        this.crapsRollModelAssembler = crapsRollModelAssembler;
+        this.rankingModelAssembler = rankingModelAssembler;
+        this.playerLinks = playerLinks;
+    }
+
+    /**
+     * Mapeo de una peticion HTTP POST, a la URL http://localhost:8082/players
+     *
+     * Crea un jugador
+     *
+     * @param newPlayer
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @PostMapping("/players")
+    public Mono<ResponseEntity<?>> newPlayer(@Valid @RequestBody Player newPlayer, ServerWebExchange exchange) {
+        return iPlayerService.findNickNameConflict(newPlayer.getName())
+                .<ResponseEntity<?>>map(conflict -> nickNameInUse())
+                .switchIfEmpty(Mono.defer(() -> iPlayerService.savePlayer(newPlayer)
+                        .flatMap(player -> playerModelAssembler.toModel(player, exchange))
+                        .map(PlayerController::created)
+                        // indice unico de la base de datos: otro jugador ha registrado el mismo nombre a la vez
+                        .onErrorResume(DataIntegrityViolationException.class, e -> Mono.just(nickNameInUse()))));
+    }
+
+    /**
+     * Mapeo de una peticion HTTP PUT, a la URL http://localhost:8082/players/{id}
+     *
+     * Modifica el nombre de un jugador; si no existe, lo crea
+     *
+     * @param newPlayer
+     * @param idPlayer
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @PutMapping("/players/{id}")
+    public Mono<ResponseEntity<?>> updatePlayer(@Valid @RequestBody Player newPlayer, @PathVariable(name="id") Long idPlayer,
+                                                ServerWebExchange exchange) {
+        return iPlayerService.findNickNameConflict(newPlayer.getName())
+                .<ResponseEntity<?>>map(conflict -> nickNameInUse())
+                .switchIfEmpty(Mono.defer(() -> iPlayerService.renamePlayer(idPlayer, newPlayer.getName())
+                        .switchIfEmpty(Mono.defer(() -> iPlayerService.savePlayer(newPlayer)))
+                        .flatMap(player -> playerModelAssembler.toModel(player, exchange))
+                        .map(PlayerController::created)
+                        // indice unico de la base de datos: otro jugador ha registrado el mismo nombre a la vez
+                        .onErrorResume(DataIntegrityViolationException.class, e -> Mono.just(nickNameInUse()))));
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8082/players/{id}
+     *
+     * Get one player
+     *
+     * @param idPlayer
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players/{id}")
+    public Mono<ResponseEntity<?>> one(@PathVariable(name="id") Long idPlayer, ServerWebExchange exchange) {
+        return findPlayer(idPlayer)
+                .flatMap(player -> playerModelAssembler.toModel(player, exchange))
+                .map(PlayerController::created);
+    }
+
+    /**
+     * Mapeo de una peticion HTTP DELETE, a la URL http://localhost:8082/players/{id}
+     *
+     * Delete one player
+     *
+     * @param idPlayer
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity
+     */
+    @DeleteMapping("/players/{id}")
+    public Mono<ResponseEntity<?>> deletePlayer(@PathVariable(name="id") Long idPlayer) {
+        return findPlayer(idPlayer)
+                .flatMap(player -> iPlayerService.deletePlayer(idPlayer))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8082/players?limit={limit}&after={after}
+     *
+     * Listado paginado de jugadores junto con su porcentaje medio de exito, por clave (keyset), igual que
+     * en la aplicacion MVC
+     *
+     * @param limit numero maximo de jugadores de la pagina, entre 1 y MAX_PAGE_LIMIT
+     * @param after identificador del ultimo jugador de la pagina anterior
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players")
+    public Mono<ResponseEntity<?>> allPlayers(@RequestParam(name="limit", required=false) Integer limit,
+                                              @RequestParam(name="after", required=false) Long after,
+                                              ServerWebExchange exchange) {
+        int pageLimit = null == limit ? DEFAULT_PAGE_LIMIT : Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
+
+        return playerModelAssembler.toCollectionModel(iPlayerService.listPlayersPage(after, pageLimit),
+                        pageLimit, after, exchange)
+                .map(PlayerController::created);
+    }
+
+    /**
+     * Mapeo de una peticion HTTP POST, a la URL http://localhost:8082/players/{id}/games
+     *
+     * Jugador realiza tirada de dados
+     *
+     * @param idPlayer
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @PostMapping("/players/{id}/games")
+    public Mono<ResponseEntity<?>> newCrapsRollPlayer(@PathVariable(name="id") Long idPlayer, ServerWebExchange exchange) {
+        return findPlayer(idPlayer)
+                .flatMap(player -> iCrapsRollService.saveNewCrapsRolls(idPlayer, 1))
+                .flatMap(crapsRolls -> crapsRollModelAssembler.toModel(crapsRolls.get(0), exchange))
+                .map(PlayerController::created);
+    }
+
+    /**
+     * Mapeo de una peticion HTTP POST, a la URL http://localhost:8082/players/{id}/games?count={count}
+     *
+     * Jugador realiza count tiradas de dados en una sola peticion y una unica transaccion.
+     *
+     * Devuelve un resumen con el numero de tiradas, las tiradas ganadas y el nuevo porcentaje de exito
+     * del jugador
+     *
+     * @param idPlayer
+     * @param count numero de tiradas, entre 1 y MAX_BULK_CRAPS_ROLLS
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @PostMapping(value = "/players/{id}/games", params = "count")
+    public Mono<ResponseEntity<?>> newCrapsRollsPlayer(@PathVariable(name="id") Long idPlayer,
+                                                       @RequestParam(name="count") Integer count,
+                                                       ServerWebExchange exchange) {
+        if (!validBulkCount(count)){
+            return Mono.just(invalidBulkCount());
+        }
+
+        return findPlayer(idPlayer)
+                .flatMap(player -> iCrapsRollService.saveNewCrapsRolls(idPlayer, count))
+                .flatMap(crapsRolls -> iRankingService.findPlayerRanking(idPlayer)
+                        .map(ranking -> toSummary(idPlayer, crapsRolls, ranking)))
+                .map(summary -> created(crapsRollModelAssembler.toSummaryModel(summary, count, exchange)));
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8082/players/{id}/games
+     *
+     * Listado de tiradas de un jugador
+     *
+     * @param idPlayer
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players/{id}/games")
+    public Mono<ResponseEntity<?>> allCrapsRollsByPlayer(@PathVariable(name="id") Long idPlayer, ServerWebExchange exchange) {
+        return findPlayer(idPlayer)
+                .flatMap(player -> iCrapsRollService.listCrapsRollsByPlayer(idPlayer).collectList())
+                .map(crapsRolls -> crapsRolls.isEmpty()
+                        ? ResponseEntity.noContent().build()
+                        : created(crapsRollModelAssembler.toCollectionModel(idPlayer, crapsRolls, exchange)));
+    }
+
+    /**
+     * Mapeo de una peticion HTTP DELETE, a la URL http://localhost:8082/players/{id}/games
+     *
+     * Elimina tiradas de un jugador
+     *
+     * @param idPlayer
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity
+     */
+    @DeleteMapping("/players/{id}/games")
+    public Mono<ResponseEntity<?>> deleteCrapsRollsByPlayer(@PathVariable(name="id") Long idPlayer) {
+        return findPlayer(idPlayer)
+                .flatMap(player -> iCrapsRollService.deleteCrapsRollsByPlayer(idPlayer))
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8082/players/ranking
+     *
+     * Ranking medio, porcentaje medio de exito de todos los jugadores
+     *
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players/ranking")
+    public Mono<ResponseEntity<?>> averageSuccessRankingAllPlayers(ServerWebExchange exchange) {
+        return rankingModelAssembler.toModel(iRankingService.averageRankingAllPlayers(), iRankingService.allGames(), exchange)
+                .map(PlayerController::created);
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8082/players/ranking/loser
+     *
+     * Jugador con peor porcentaje de exito
+     *
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players/ranking/loser")
+    public Mono<ResponseEntity<?>> playerLoser(ServerWebExchange exchange) {
+        return rankedPlayer(iRankingService.worstPlayer(), exchange);
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8082/players/ranking/winner
+     *
+     * Jugador con mejor porcentaje de exito
+     *
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players/ranking/winner")
+    public Mono<ResponseEntity<?>> playerWinner(ServerWebExchange exchange) {
+        return rankedPlayer(iRankingService.bestPlayer(), exchange);
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8082/players/ranking/top?limit={limit}
+     *
+     * Listado de los jugadores con mejor porcentaje de exito, ordenado de mejor a peor
+     *
+     * @param limit numero maximo de jugadores, entre 1 y MAX_RANKING_LIMIT
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players/ranking/top")
+    public Mono<ResponseEntity<?>> playersTop(@RequestParam(name="limit", required=false) Integer limit,
+                                              ServerWebExchange exchange) {
+        return rankedPlayers(iRankingService.bestPlayers(rankingLimit(limit)),
+                playerLinks.top(exchange, limit, IanaLinkRelations.SELF), exchange);
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8082/players/ranking/bottom?limit={limit}
+     *
+     * Listado de los jugadores con peor porcentaje de exito, ordenado de peor a mejor
+     *
+     * @param limit numero maximo de jugadores, entre 1 y MAX_RANKING_LIMIT
+     * @param exchange
+     * @return Mono que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players/ranking/bottom")
+    public Mono<ResponseEntity<?>> playersBottom(@RequestParam(name="limit", required=false) Integer limit,
+                                                 ServerWebExchange exchange) {
+        return rankedPlayers(iRankingService.worstPlayers(rankingLimit(limit)),
+                playerLinks.bottom(exchange, limit, IanaLinkRelations.SELF), exchange);
+    }
+
+    private Mono<Player> findPlayer(Long idPlayer) {
+        return iPlayerService.findPlayerById(idPlayer)
+                .switchIfEmpty(Mono.error(() -> new PlayerNotFoundException(idPlayer)));
+    }
+
+    private Mono<ResponseEntity<?>> rankedPlayer(Mono<Player> rankedPlayer, ServerWebExchange exchange) {
+        return rankedPlayer
+                .flatMap(player -> playerModelAssembler.toModel(player, exchange))
+                .<ResponseEntity<?>>map(PlayerController::created)
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
+    private Mono<ResponseEntity<?>> rankedPlayers(Flux<Player> rankedPlayers, Link selfLink, ServerWebExchange exchange) {
+        return rankedPlayers.collectList()
+                .map(players -> {
+                    if (players.isEmpty()){
+                        return ResponseEntity.noContent().build();
+                    }
+                    CollectionModel<?> collectionModel = playerModelAssembler.toCollectionModel(players, exchange)
+                            .add(selfLink);
+                    return created(collectionModel);
+                });
+    }
+
+    private static CrapsRollSummaryDto toSummary(Long idPlayer, List<CrapsRoll> crapsRolls, Double ranking) {
+        CrapsRollSummaryDto summary = new CrapsRollSummaryDto();
+        summary.setIdPlayer(idPlayer);
+        summary.setTotal((long) crapsRolls.size());
+        summary.setWins(crapsRolls.stream().filter(c -> c.getRollResult() == 7).count());
+        summary.setRanking(ranking);
+        return summary;
+    }
+
+    // como en la aplicacion MVC, las respuestas con representacion son 201 Created con la URI del enlace self
+    private static ResponseEntity<?> created(RepresentationModel<?> model) {
+        return ResponseEntity
+                .created(model.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .body(model);
+    }
+
+    private static ResponseEntity<?> nickNameInUse() {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Problem.create()
+                        .withTitle("Please select another Nick Name.")
+                        .withDetail("There is another player with that Nick Name."));
+    }
+
+    private static boolean validBulkCount(Integer count) {
+        return null != count && count >= 1 && count <= MAX_BULK_CRAPS_ROLLS;
+    }
+
+    private static ResponseEntity<?> invalidBulkCount() {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Problem.create()
+                        .withTitle("Invalid number of craps rolls.")
+                        .withDetail("The number of craps rolls must be between 1 and " + MAX_BULK_CRAPS_ROLLS + "."));
+    }
+
+    private static int rankingLimit(Integer limit) {
+        if (null == limit){
+            return DEFAULT_RANKING_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_RANKING_LIMIT));
+    }
+}
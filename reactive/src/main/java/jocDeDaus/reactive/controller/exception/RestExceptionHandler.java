@@ -0,0 +1,44 @@
+package jocDeDaus.reactive.controller.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Clase de la capa Controller, dentro del paquete Exception
+ *
+ * Responde a los errores de validacion de un argumento anotado con @Valid con el mismo cuerpo que
+ * RestExceptionHandler de la aplicacion MVC. En WebFlux el error es una WebExchangeBindException
+ *
+ */
+@ControllerAdvice
+public class RestExceptionHandler {
+
+    // error handle for @Valid
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleWebExchangeBind(WebExchangeBindException ex) {
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", new Date());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+
+        //Get all errors
+        List<String> errors = ex.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(x -> x.getDefaultMessage())
+                .collect(Collectors.toList());
+
+        body.put("errors", errors);
+
+        return ResponseEntity.badRequest().body(body);
+    }
+}
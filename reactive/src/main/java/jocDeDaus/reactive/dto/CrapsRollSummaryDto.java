@@ -0,0 +1,68 @@
+package jocDeDaus.reactive.dto;
+
+
+/**
+ * Clase de la capa de dominio, implementa el patron Data Transfer Object (DTO Pattern) mediante la
+ * creacion de un objeto plano (POJO) con una serie de atributos que puedan ser enviados o recuperados
+ * del servidor en una sola invocacion (de tal forma que un DTO puede contener informacion de multiples
+ * fuentes o tablas y concentrarlas en una unica clase simple, esto es, crear estructuras de datos
+ * independientes del modelo de datos, para transmitir informacion entre un cliente y un servidor)
+ *
+ * Resumen de una tirada multiple: numero de tiradas realizadas, tiradas ganadas y nuevo porcentaje
+ * de exito del jugador
+ *
+ * Misma representacion JSON que el DTO equivalente de la aplicacion MVC (jocDeDaus.dto)
+ */
+
+public class CrapsRollSummaryDto extends ResponseDto{
+
+    private Long idPlayer;
+    private Long total;
+    private Long wins;
+    private Double ranking;
+
+    public CrapsRollSummaryDto() {
+    }
+
+    public Long getIdPlayer() {
+        return idPlayer;
+    }
+
+    public void setIdPlayer(Long idPlayer) {
+        this.idPlayer = idPlayer;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public Long getWins() {
+        return wins;
+    }
+
+    public void setWins(Long wins) {
+        this.wins = wins;
+    }
+
+    public Double getRanking() {
+        return ranking;
+    }
+
+    public void setRanking(Double ranking) {
+        this.ranking = ranking;
+    }
+
+    @Override
+    public String toString() {
+        return "CrapsRollSummaryDto {" +
+                "idPlayer=" + idPlayer +
+                ", total=" + total +
+                ", wins=" + wins +
+                ", ranking=" + ranking +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+package jocDeDaus.reactive.dto;
+
+
+/**
+ * Clase de la capa de dominio, implementa el patron Data Transfer Object (DTO Pattern) mediante la
+ * creacion de un objeto plano (POJO) con una serie de atributos que puedan ser enviados o recuperados
+ * del servidor en una sola invocación (de tal forma que un DTO puede contener información de multiples
+ * fuentes o tablas y concentrarlas en una unica clase simple, esto es, crear estructuras de datos
+ * independientes del modelo de datos, para transmitir información entre un cliente y un servidor)
+ *
+ * Misma representacion JSON que el DTO equivalente de la aplicacion MVC (jocDeDaus.dto)
+ */
+
+public class GameDto extends ResponseDto{
+
+    private Long idGame;
+    private Long idPlayer;
+    private Long IdCrapsRoll;
+    private Boolean gameResult;
+
+    public GameDto() {
+    }
+
+    public Long getIdGame() {
+        return idGame;
+    }
+
+    public void setIdGame(Long idGame) {
+        this.idGame = idGame;
+    }
+
+    public Long getIdPlayer() {
+        return idPlayer;
+    }
+
+    public void setIdPlayer(Long idPlayer) {
+        this.idPlayer = idPlayer;
+    }
+
+    public Long getIdCrapsRoll() {
+        return IdCrapsRoll;
+    }
+
+    public void setIdCrapsRoll(Long idCrapsRoll) {
+        IdCrapsRoll = idCrapsRoll;
+    }
+
+    public Boolean getGameResult() {
+        return gameResult;
+    }
+
+    public void setGameResult(Boolean gameResult) {
+        this.gameResult = gameResult;
+    }
+
+    @Override
+    public String toString() {
+        return "GameDto{" +
+                "idGame=" + idGame +
+                ", idPlayer=" + idPlayer +
+                ", IdCrapsRoll=" + IdCrapsRoll +
+                ", gameResult=" + gameResult +
+                '}';
+    }
+}
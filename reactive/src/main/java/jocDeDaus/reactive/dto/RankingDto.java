@@ -0,0 +1,47 @@
+package jocDeDaus.reactive.dto;
+
+
+import java.util.List;
+
+/**
+ * Clase de la capa de dominio, implementa el patron Data Transfer Object (DTO Pattern) mediante la
+ * creacion de un objeto plano (POJO) con una serie de atributos que puedan ser enviados o recuperados
+ * del servidor en una sola invocacion (de tal forma que un DTO puede contener informacion de multiples
+ * fuentes o tablas y concentrarlas en una unica clase simple, esto es, crear estructuras de datos
+ * independientes del modelo de datos, para transmitir informacion entre un cliente y un servidor)
+ *
+ * Misma representacion JSON que el DTO equivalente de la aplicacion MVC (jocDeDaus.dto)
+ */
+
+public class RankingDto extends ResponseDto{
+
+    private Double averageRankingAllPlayers;
+    private List<GameDto> games;
+
+    public RankingDto() {
+    }
+
+    public Double getAverageRankingAllPlayers() {
+        return averageRankingAllPlayers;
+    }
+
+    public void setAverageRankingAllPlayers(Double averageRankingAllPlayers) {
+        this.averageRankingAllPlayers = averageRankingAllPlayers;
+    }
+
+    public List<GameDto> getGames() {
+        return games;
+    }
+
+    public void setGames(List<GameDto> games) {
+        this.games = games;
+    }
+
+    @Override
+    public String toString() {
+        return "RankingDto {" +
+                "averageRankingAllPlayers=" + averageRankingAllPlayers +
+                ", games=" + games +
+                '}';
+    }
+}
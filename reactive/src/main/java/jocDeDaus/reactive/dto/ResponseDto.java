@@ -0,0 +1,8 @@
+package jocDeDaus.reactive.dto;
+
+/**
+ * Clase abstracta de la capa de dominio, utilizada para implementar
+ * el patron Data Transfer Object (DTO Pattern)
+ */
+public abstract class ResponseDto {
+}
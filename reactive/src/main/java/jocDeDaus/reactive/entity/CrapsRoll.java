@@ -0,0 +1,60 @@
+package jocDeDaus.reactive.entity;
+
+/**
+ * Clase de la capa de dominio.
+ *
+ * Fila de la tabla CRAPSROLL
+ *
+ */
+
+public class CrapsRoll {
+
+    private Long idCrapsRoll;
+    private Long idPlayer;
+    private Short crapOne;
+    private Short crapTwo;
+    private Short rollResult;
+
+    public CrapsRoll() {
+    }
+
+    public Long getIdCrapsRoll() {
+        return idCrapsRoll;
+    }
+
+    public void setIdCrapsRoll(Long idCrapsRoll) {
+        this.idCrapsRoll = idCrapsRoll;
+    }
+
+    public Long getIdPlayer() {
+        return idPlayer;
+    }
+
+    public void setIdPlayer(Long idPlayer) {
+        this.idPlayer = idPlayer;
+    }
+
+    public Short getCrapOne() {
+        return crapOne;
+    }
+
+    public void setCrapOne(Short crapOne) {
+        this.crapOne = crapOne;
+    }
+
+    public Short getCrapTwo() {
+        return crapTwo;
+    }
+
+    public void setCrapTwo(Short crapTwo) {
+        this.crapTwo = crapTwo;
+    }
+
+    public Short getRollResult() {
+        return rollResult;
+    }
+
+    public void setRollResult(Short rollResult) {
+        this.rollResult = rollResult;
+    }
+}
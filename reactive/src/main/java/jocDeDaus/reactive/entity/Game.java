@@ -0,0 +1,51 @@
+package jocDeDaus.reactive.entity;
+
+/**
+ * Clase de la capa de dominio.
+ *
+ * Fila de la tabla GAME, partida asociada a una tirada. Se gana con un 7
+ *
+ */
+
+public class Game {
+
+    private Long idGame;
+    private Long idPlayer;
+    private Long idCrapsRoll;
+    private Boolean gameResult;
+
+    public Game() {
+    }
+
+    public Long getIdGame() {
+        return idGame;
+    }
+
+    public void setIdGame(Long idGame) {
+        this.idGame = idGame;
+    }
+
+    public Long getIdPlayer() {
+        return idPlayer;
+    }
+
+    public void setIdPlayer(Long idPlayer) {
+        this.idPlayer = idPlayer;
+    }
+
+    public Long getIdCrapsRoll() {
+        return idCrapsRoll;
+    }
+
+    public void setIdCrapsRoll(Long idCrapsRoll) {
+        this.idCrapsRoll = idCrapsRoll;
+    }
+
+    public Boolean getGameResult() {
+        return gameResult;
+    }
+
+    public void setGameResult(Boolean gameResult) {
+        this.gameResult = gameResult;
+    }
+}
@@ -0,0 +1,56 @@
+package jocDeDaus.reactive.entity;
+
+import javax.validation.constraints.NotNull;
+import java.util.Date;
+
+/**
+ * Clase de la capa de dominio.
+ *
+ * Fila de la tabla PLAYER. El porcentaje de exito (ranking) no es una columna: se calcula en cada
+ * consulta a partir de las tiradas o partidas del jugador
+ *
+ */
+
+public class Player {
+
+    private Long idPlayer;
+    private Date entryDate;
+    @NotNull(message = "name is required")
+    private String name;
+    private Double ranking;
+
+    public Player() {
+    }
+
+    public Long getIdPlayer() {
+        return idPlayer;
+    }
+
+    public void setIdPlayer(Long idPlayer) {
+        this.idPlayer = idPlayer;
+    }
+
+    public Date getEntryDate() {
+        return entryDate;
+    }
+
+    public void setEntryDate(Date entryDate) {
+        this.entryDate = entryDate;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getRanking() {
+        return ranking;
+    }
+
+    public void setRanking(Double ranking) {
+        this.ranking = ranking;
+    }
+}
@@ -0,0 +1,70 @@
+package jocDeDaus.reactive.repository;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.binding.BindMarkers;
+import org.springframework.r2dbc.core.binding.BindMarkersFactoryResolver;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Clase de la capa Repository
+ *
+ * Inserta varias filas con una unica sentencia preparada y un lote de valores (Statement.add), con los
+ * marcadores de parametros propios de cada driver ($1 en H2, ? en MySQL).
+ *
+ * DatabaseClient.bind copia todos los valores ya enlazados en cada llamada, por lo que no es adecuado
+ * para miles de parametros en una misma sentencia
+ *
+ */
+
+final class BatchInsert {
+
+    private BatchInsert() {
+    }
+
+    /**
+     * Inserta las filas en la conexion de la transaccion en curso, si la hay
+     *
+     * @param databaseClient cliente R2DBC
+     * @param table tabla
+     * @param columns columnas, en el mismo orden que los valores de cada fila
+     * @param rows filas a insertar
+     * @param values valores de las columnas de una fila
+     * @return numero de filas insertadas
+     */
+    static <T> Mono<Integer> insert(DatabaseClient databaseClient, String table, String[] columns, List<T> rows,
+                                    Function<T, Object[]> values) {
+        if (rows.isEmpty()){
+            return Mono.just(0);
+        }
+
+        BindMarkers bindMarkers = BindMarkersFactoryResolver.resolve(databaseClient.getConnectionFactory()).create();
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (")
+                .append(String.join(", ", columns)).append(") VALUES (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append(bindMarkers.next().getPlaceholder());
+        }
+        sql.append(')');
+
+        return databaseClient.inConnection(connection -> {
+            Statement statement = connection.createStatement(sql.toString());
+            for (int row = 0; row < rows.size(); row++) {
+                if (row > 0){
+                    statement.add();
+                }
+                Object[] rowValues = values.apply(rows.get(row));
+                for (int i = 0; i < rowValues.length; i++) {
+                    statement.bind(i, rowValues[i]);
+                }
+            }
+            return Flux.from(statement.execute())
+                    .flatMap(Result::getRowsUpdated)
+                    .reduce(0, Integer::sum);
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package jocDeDaus.reactive.repository;
+
+import jocDeDaus.reactive.entity.CrapsRoll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Clase de la capa Repository
+ *
+ * Acceso no bloqueante a las tablas CRAPSROLL y CRAPSROLL_SEQ con DatabaseClient (R2DBC).
+ *
+ * Los identificadores de las tiradas se reservan por bloques en CRAPSROLL_SEQ, la misma tabla que utiliza
+ * el generador pooled-lo de Hibernate en la aplicacion MVC, de modo que ambas pueden escribir a la vez
+ * sobre la misma base de datos
+ *
+ * Anotaciones:
+ *
+ * @Repository
+ * Indica que la clase es un "Repositorio", un mecanismo para encapsular el almacenamiento, la recuperacion
+ * y la busqueda que emula una coleccion de objetos
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ */
+
+@Repository
+public class CrapsRollRepository {
+
+    private static final String[] COLUMNS = {"ID_CRAPSROLL", "ID_PLAYER", "CRAP_ONE", "CRAP_TWO", "ROLL_RESULT"};
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    public Flux<CrapsRoll> findByPlayer(Long idPlayer) {
+        return databaseClient.sql("SELECT ID_CRAPSROLL, ID_PLAYER, CRAP_ONE, CRAP_TWO, ROLL_RESULT FROM CRAPSROLL"
+                        + " WHERE ID_PLAYER = :idPlayer ORDER BY ID_CRAPSROLL")
+                .bind("idPlayer", idPlayer)
+                .map((row, metadata) -> {
+                    CrapsRoll crapsRoll = new CrapsRoll();
+                    crapsRoll.setIdCrapsRoll(RowValues.longValue(row, "ID_CRAPSROLL"));
+                    crapsRoll.setIdPlayer(RowValues.longValue(row, "ID_PLAYER"));
+                    crapsRoll.setCrapOne(RowValues.shortValue(row, "CRAP_ONE"));
+                    crapsRoll.setCrapTwo(RowValues.shortValue(row, "CRAP_TWO"));
+                    crapsRoll.setRollResult(RowValues.shortValue(row, "ROLL_RESULT"));
+                    return crapsRoll;
+                })
+                .all();
+    }
+
+    /**
+     * Reserva count identificadores consecutivos. Debe ejecutarse dentro de una transaccion: el UPDATE
+     * bloquea la fila de CRAPSROLL_SEQ hasta el final de la misma
+     *
+     * @param count numero de identificadores
+     * @return primer identificador reservado
+     */
+    public Mono<Long> allocateIds(int count) {
+        return databaseClient.sql("UPDATE CRAPSROLL_SEQ SET NEXT_VAL = NEXT_VAL + :count")
+                .bind("count", count)
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql("SELECT NEXT_VAL FROM CRAPSROLL_SEQ")
+                        .map((row, metadata) -> RowValues.longValue(row, "NEXT_VAL") - count)
+                        .one());
+    }
+
+    /**
+     * Inserta las tiradas en un unico lote
+     *
+     * @param crapsRolls tiradas, con identificador asignado
+     * @return numero de filas insertadas
+     */
+    public Mono<Integer> insertAll(List<CrapsRoll> crapsRolls) {
+        return BatchInsert.insert(databaseClient, "CRAPSROLL", COLUMNS, crapsRolls,
+                crapsRoll -> new Object[]{crapsRoll.getIdCrapsRoll(), crapsRoll.getIdPlayer(),
+                        crapsRoll.getCrapOne(), crapsRoll.getCrapTwo(), crapsRoll.getRollResult()});
+    }
+
+    // las partidas de las tiradas quedan sin tirada asociada (ON DELETE SET NULL)
+    public Mono<Integer> deleteByPlayer(Long idPlayer) {
+        return databaseClient.sql("DELETE FROM CRAPSROLL WHERE ID_PLAYER = :idPlayer")
+                .bind("idPlayer", idPlayer)
+                .fetch()
+                .rowsUpdated();
+    }
+}
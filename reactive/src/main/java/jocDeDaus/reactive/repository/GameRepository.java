@@ -0,0 +1,98 @@
+package jocDeDaus.reactive.repository;
+
+import jocDeDaus.reactive.entity.Game;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Clase de la capa Repository
+ *
+ * Acceso no bloqueante a las tablas GAME y GAME_COUNTER con DatabaseClient (R2DBC)
+ *
+ * Anotaciones:
+ *
+ * @Repository
+ * Indica que la clase es un "Repositorio", un mecanismo para encapsular el almacenamiento, la recuperacion
+ * y la busqueda que emula una coleccion de objetos
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ */
+
+@Repository
+public class GameRepository {
+
+    private static final String[] COLUMNS = {"ID_GAME", "ID_PLAYER", "ID_CRAPSROLL", "GAME_RESULT"};
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    // todas las partidas, ordenadas por jugador
+    public Flux<Game> findAll() {
+        return databaseClient.sql("SELECT ID_GAME, ID_PLAYER, ID_CRAPSROLL, GAME_RESULT FROM GAME ORDER BY ID_PLAYER, ID_GAME")
+                .map((row, metadata) -> {
+                    Game game = new Game();
+                    game.setIdGame(RowValues.longValue(row, "ID_GAME"));
+                    game.setIdPlayer(RowValues.longValue(row, "ID_PLAYER"));
+                    game.setIdCrapsRoll(RowValues.longValue(row, "ID_CRAPSROLL"));
+                    game.setGameResult(RowValues.booleanValue(row, "GAME_RESULT"));
+                    return game;
+                })
+                .all();
+    }
+
+    public Mono<Integer> insertCounter(Long idPlayer) {
+        return databaseClient.sql("INSERT INTO GAME_COUNTER (ID_PLAYER, LAST_ID_GAME) VALUES (:idPlayer, 0)")
+                .bind("idPlayer", idPlayer)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Reserva count identificadores de partida consecutivos de un jugador. Debe ejecutarse dentro de una
+     * transaccion: el UPDATE bloquea la fila de GAME_COUNTER del jugador hasta el final de la misma
+     *
+     * @param idPlayer identificador del jugador
+     * @param count numero de identificadores
+     * @return primer identificador reservado
+     */
+    public Mono<Long> allocateIds(Long idPlayer, int count) {
+        return databaseClient.sql("UPDATE GAME_COUNTER SET LAST_ID_GAME = LAST_ID_GAME + :count WHERE ID_PLAYER = :idPlayer")
+                .bind("count", count)
+                .bind("idPlayer", idPlayer)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated == 0
+                        // jugador anterior a la tabla GAME_COUNTER: el contador parte de su mayor ID_GAME
+                        ? databaseClient.sql("INSERT INTO GAME_COUNTER (ID_PLAYER, LAST_ID_GAME)"
+                                        + " SELECT :idPlayer, COALESCE(MAX(ID_GAME), 0) + :count FROM GAME WHERE ID_PLAYER = :idPlayer")
+                                .bind("idPlayer", idPlayer)
+                                .bind("count", count)
+                                .fetch()
+                                .rowsUpdated()
+                        : Mono.just(updated))
+                .then(databaseClient.sql("SELECT LAST_ID_GAME FROM GAME_COUNTER WHERE ID_PLAYER = :idPlayer")
+                        .bind("idPlayer", idPlayer)
+                        .map((row, metadata) -> RowValues.longValue(row, "LAST_ID_GAME") - count + 1)
+                        .one());
+    }
+
+    /**
+     * Inserta las partidas en un unico lote
+     *
+     * @param games partidas, con identificador asignado
+     * @return numero de filas insertadas
+     */
+    public Mono<Integer> insertAll(List<Game> games) {
+        return BatchInsert.insert(databaseClient, "GAME", COLUMNS, games,
+                game -> new Object[]{game.getIdGame(), game.getIdPlayer(),
+                        game.getIdCrapsRoll(), game.getGameResult()});
+    }
+}
@@ -0,0 +1,191 @@
+package jocDeDaus.reactive.repository;
+
+import io.r2dbc.spi.Row;
+import jocDeDaus.reactive.entity.Player;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clase de la capa Repository
+ *
+ * Acceso no bloqueante a la tabla PLAYER con DatabaseClient (R2DBC). El porcentaje de exito de cada
+ * jugador se calcula en la misma consulta a partir de sus contadores de tiradas, columnas TOTAL_ROLLS y
+ * TOTAL_WINS, que se actualizan en la misma transaccion que inserta o borra las tiradas, igual que en la
+ * aplicacion MVC
+ *
+ * Anotaciones:
+ *
+ * @Repository
+ * Indica que la clase es un "Repositorio", un mecanismo para encapsular el almacenamiento, la recuperacion
+ * y la busqueda que emula una coleccion de objetos
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ */
+
+@Repository
+public class PlayerRepository {
+
+    private static final String RANKING = RowValues.rankingExpression("p.TOTAL_ROLLS", "p.TOTAL_WINS");
+
+    private static final String RANKED_PLAYERS = "SELECT p.ID_PLAYER, p.ENTRY_DATE, p.NAME, " + RANKING
+            + " AS RANKING FROM PLAYER p";
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    public Mono<Player> findById(Long idPlayer) {
+        return databaseClient.sql("SELECT ID_PLAYER, ENTRY_DATE, NAME FROM PLAYER WHERE ID_PLAYER = :idPlayer")
+                .bind("idPlayer", idPlayer)
+                .map((row, metadata) -> toPlayer(row, null))
+                .one();
+    }
+
+    /**
+     * Busca un jugador, distinto de ANONYMOUS, cuyo nombre contenga el indicado, sin distinguir mayusculas.
+     * Misma semantica que NickNameIndex de la aplicacion MVC, resuelta con la columna NAME_KEY
+     *
+     * @param key nombre buscado, en mayusculas y sin espacios en los extremos
+     * @return identificador del jugador con un nombre que contiene el buscado, si existe
+     */
+    public Mono<Long> findNickNameConflict(String key) {
+        String pattern = "%" + key.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+
+        return databaseClient.sql("SELECT ID_PLAYER FROM PLAYER WHERE NAME_KEY LIKE :pattern ESCAPE '!' LIMIT 1")
+                .bind("pattern", pattern)
+                .map((row, metadata) -> RowValues.longValue(row, "ID_PLAYER"))
+                .one();
+    }
+
+    public Mono<Long> insert(LocalDateTime entryDate, String name) {
+        return databaseClient.sql("INSERT INTO PLAYER (ENTRY_DATE, NAME) VALUES (:entryDate, :name)")
+                .filter(statement -> statement.returnGeneratedValues("ID_PLAYER"))
+                .bind("entryDate", entryDate)
+                .bind("name", name)
+                .map((row, metadata) -> RowValues.longValue(row, "ID_PLAYER"))
+                .one();
+    }
+
+    public Mono<Integer> updateName(Long idPlayer, String name) {
+        return databaseClient.sql("UPDATE PLAYER SET NAME = :name WHERE ID_PLAYER = :idPlayer")
+                .bind("name", name)
+                .bind("idPlayer", idPlayer)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // las tiradas, partidas y el contador de partidas se eliminan en cascada (ON DELETE CASCADE)
+    public Mono<Integer> deleteById(Long idPlayer) {
+        return databaseClient.sql("DELETE FROM PLAYER WHERE ID_PLAYER = :idPlayer")
+                .bind("idPlayer", idPlayer)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Suma tiradas a los contadores de un jugador. Debe ser la primera sentencia de la transaccion que
+     * inserta las tiradas: el UPDATE bloquea la fila del jugador hasta el final de la misma
+     *
+     * @param idPlayer identificador del jugador
+     * @param total numero de tiradas
+     * @param wins numero de tiradas ganadas
+     * @return numero de filas actualizadas
+     */
+    public Mono<Integer> addCrapsRolls(Long idPlayer, long total, long wins) {
+        return databaseClient.sql("UPDATE PLAYER SET TOTAL_ROLLS = TOTAL_ROLLS + :total, TOTAL_WINS = TOTAL_WINS + :wins"
+                        + " WHERE ID_PLAYER = :idPlayer")
+                .bind("total", total)
+                .bind("wins", wins)
+                .bind("idPlayer", idPlayer)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // en la transaccion que borra todas las tiradas del jugador
+    public Mono<Integer> resetCrapsRolls(Long idPlayer) {
+        return databaseClient.sql("UPDATE PLAYER SET TOTAL_ROLLS = 0, TOTAL_WINS = 0 WHERE ID_PLAYER = :idPlayer")
+                .bind("idPlayer", idPlayer)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Pagina de jugadores con identificador mayor que after, ordenados por identificador, con su
+     * porcentaje de exito
+     *
+     * @param after identificador del ultimo jugador de la pagina anterior, 0 para la primera pagina
+     * @param limit numero maximo de jugadores
+     * @return jugadores de la pagina
+     */
+    public Flux<Player> findPage(Long after, int limit) {
+        return databaseClient.sql(RANKED_PLAYERS + " WHERE p.ID_PLAYER > :after ORDER BY p.ID_PLAYER LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map((row, metadata) -> toPlayer(row, RowValues.doubleValue(row, "RANKING")))
+                .all();
+    }
+
+    public Mono<Double> findRanking(Long idPlayer) {
+        return databaseClient.sql("SELECT " + RANKING + " AS RANKING FROM PLAYER p WHERE p.ID_PLAYER = :idPlayer")
+                .bind("idPlayer", idPlayer)
+                .map((row, metadata) -> RowValues.doubleValue(row, "RANKING"))
+                .one();
+    }
+
+    /**
+     * Porcentaje medio de exito de todos los jugadores con alguna tirada, redondeado a dos decimales.
+     * Mismo calculo que IUtilities.computeAverageRanking de la aplicacion MVC
+     *
+     * @return porcentaje medio, 0 si no hay tiradas
+     */
+    public Mono<Double> findAverageRanking() {
+        return databaseClient.sql("SELECT COALESCE(ROUND(SUM(TOTAL_WINS) * 100.0 / SUM(TOTAL_ROLLS) / COUNT(*), 2), 0)"
+                        + " AS RANKING FROM PLAYER WHERE TOTAL_ROLLS > 0")
+                .map((row, metadata) -> RowValues.doubleValue(row, "RANKING"))
+                .one();
+    }
+
+    /**
+     * Jugadores ordenados de mejor a peor porcentaje de exito; en caso de empate, primero el de mayor
+     * identificador (mismo orden que el ranking en memoria de la aplicacion MVC)
+     */
+    public Flux<Player> findBest(int limit) {
+        return findRanked(" ORDER BY RANKING DESC, p.ID_PLAYER DESC LIMIT :limit", limit);
+    }
+
+    /**
+     * Jugadores ordenados de peor a mejor porcentaje de exito; en caso de empate, primero el de menor
+     * identificador
+     */
+    public Flux<Player> findWorst(int limit) {
+        return findRanked(" ORDER BY RANKING ASC, p.ID_PLAYER ASC LIMIT :limit", limit);
+    }
+
+    // peor jugador: en caso de empate, el de mayor identificador
+    public Mono<Player> findLoser() {
+        return findRanked(" ORDER BY RANKING ASC, p.ID_PLAYER DESC LIMIT :limit", 1).next();
+    }
+
+    private Flux<Player> findRanked(String orderBy, int limit) {
+        return databaseClient.sql(RANKED_PLAYERS + orderBy)
+                .bind("limit", limit)
+                .map((row, metadata) -> toPlayer(row, RowValues.doubleValue(row, "RANKING")))
+                .all();
+    }
+
+    private static Player toPlayer(Row row, Double ranking) {
+        Player player = new Player();
+        player.setIdPlayer(RowValues.longValue(row, "ID_PLAYER"));
+        player.setEntryDate(RowValues.dateValue(row, "ENTRY_DATE"));
+        player.setName(row.get("NAME", String.class));
+        player.setRanking(ranking);
+        return player;
+    }
+}
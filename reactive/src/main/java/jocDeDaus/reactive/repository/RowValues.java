@@ -0,0 +1,62 @@
+package jocDeDaus.reactive.repository;
+
+import io.r2dbc.spi.Row;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Clase de la capa Repository
+ *
+ * Lectura de columnas de una fila R2DBC con independencia del driver: los agregados (COUNT, SUM, ROUND)
+ * se devuelven como Long, Integer o BigDecimal segun la base de datos
+ *
+ */
+
+final class RowValues {
+
+    private RowValues() {
+    }
+
+    static Long longValue(Row row, String column) {
+        Number value = (Number) row.get(column);
+        return null == value ? null : value.longValue();
+    }
+
+    static Short shortValue(Row row, String column) {
+        Number value = (Number) row.get(column);
+        return null == value ? null : value.shortValue();
+    }
+
+    static Double doubleValue(Row row, String column) {
+        Number value = (Number) row.get(column);
+        return null == value ? null : value.doubleValue();
+    }
+
+    static Boolean booleanValue(Row row, String column) {
+        Object value = row.get(column);
+        if (value instanceof Number){
+            // MySQL: BOOLEAN es TINYINT(1)
+            return ((Number) value).intValue() != 0;
+        }
+        return (Boolean) value;
+    }
+
+    static Date dateValue(Row row, String column) {
+        LocalDateTime value = row.get(column, LocalDateTime.class);
+        return null == value ? null : Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Porcentaje de exito, redondeado a dos decimales, 0 si no hay tiradas.
+     * Mismo calculo que IUtilities.computeSuccessRanking de la aplicacion MVC
+     *
+     * @param total expresion con el numero de tiradas
+     * @param wins expresion con el numero de tiradas ganadas
+     * @return expresion SQL
+     */
+    static String rankingExpression(String total, String wins) {
+        return "CASE WHEN " + total + " = 0 THEN 0 ELSE ROUND(" + wins + " * 100.0 / " + total + ", 2) END";
+    }
+}
@@ -0,0 +1,39 @@
+package jocDeDaus.reactive.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Clase de la capa Security
+ *
+ * Todas las peticiones pasan por este filtro, que valida el token de acceso del encabezado Authorization
+ * con JwtUtil y, si es valido, lo deja en el contexto de seguridad de la peticion. Sin token valido la
+ * peticion sigue sin autenticar y SecurityConfig la rechaza (401)
+ *
+ */
+
+public class JwtFilter implements WebFilter {
+
+    private final JwtUtil jwtUtil;
+
+    public JwtFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Authentication authentication =
+                jwtUtil.getAuthentication(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+
+        if (authentication == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+}
@@ -0,0 +1,81 @@
+package jocDeDaus.reactive.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Base64;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Clase de la capa Security
+ *
+ * Valida los tokens de acceso JWT emitidos por /login de la aplicacion MVC: misma clave de firma
+ * (jocdedaus.security.jwt.secret, leida del entorno, en base64 y de al menos 64 bytes para HS512) y mismos
+ * claims (sub, jti y typ=access). La variante reactiva no emite tokens.
+ *
+ * La lista de tokens revocados (tabla REVOKED_TOKEN) es de la base de datos de la aplicacion MVC: un token
+ * revocado con /logout sigue siendo valido aqui hasta que expira, a los 15 minutos por defecto
+ *
+ */
+
+@Component
+public class JwtUtil {
+
+    private static final String TOKEN_BEARER_PREFIX = "Bearer ";
+    private static final String TOKEN_TYPE_CLAIM = "typ";
+    private static final String ACCESS_TOKEN = "access";
+    private static final int MIN_SECRET_KEY_BYTES = 64;
+
+    @Value("${jocdedaus.security.jwt.secret}")
+    private String secretKey;
+
+    private byte[] signingKey;
+
+    // Método para decodificar la clave de firma y comprobar su longitud al arrancar
+    @PostConstruct
+    public void loadSigningKey() {
+        try {
+            signingKey = Base64.getDecoder().decode(secretKey.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("jocdedaus.security.jwt.secret must be a base64-encoded key", e);
+        }
+        if (signingKey.length < MIN_SECRET_KEY_BYTES) {
+            throw new IllegalStateException("jocdedaus.security.jwt.secret must be at least "
+                    + MIN_SECRET_KEY_BYTES + " bytes long for HS512");
+        }
+    }
+
+    // Método para validar el token de acceso del encabezado Authorization; null si falta, es invalido o ha expirado
+    Authentication getAuthentication(String authorization) {
+        if (authorization == null) {
+            return null;
+        }
+        String jwt = authorization.replace(TOKEN_BEARER_PREFIX, "");
+
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                    .setSigningKey(signingKey)
+                    .parseClaimsJws(jwt)
+                    .getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        // un token de refresco no sirve como token de acceso
+        if (claims.getSubject() == null || !ACCESS_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM))) {
+            return null;
+        }
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(claims.getSubject(), null, emptyList());
+        authentication.setDetails(claims.getId());
+        return authentication;
+    }
+}
@@ -0,0 +1,46 @@
+package jocDeDaus.reactive.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Clase de la capa Security
+ *
+ * Todas las peticiones requieren un token de acceso de la aplicacion MVC (JwtFilter); sin el, 401.
+ * Sin sesiones, formulario de login ni autenticacion basica
+ *
+ * Anotaciones:
+ * @EnableWebFluxSecurity
+ * Activa Spring Security en WebFlux con la cadena de filtros SecurityWebFilterChain declarada en la clase
+ *
+ */
+
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtil jwtUtil) {
+        return http
+                .csrf().disable()
+                .httpBasic().disable()
+                .formLogin().disable()
+                .logout().disable()
+                // cada peticion lleva su token: el contexto de seguridad no se guarda entre peticiones
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling()
+                    .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED))
+                .and()
+                .authorizeExchange()
+                    .anyExchange().authenticated() //cualquier peticion requiere autenticacion
+                .and()
+                // Las peticiones pasaran por este filtro para validar el token
+                .addFilterAt(new JwtFilter(jwtUtil), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
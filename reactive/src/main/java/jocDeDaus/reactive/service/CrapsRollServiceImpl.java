@@ -0,0 +1,117 @@
+package jocDeDaus.reactive.service;
+
+import jocDeDaus.reactive.entity.CrapsRoll;
+import jocDeDaus.reactive.entity.Game;
+import jocDeDaus.reactive.repository.CrapsRollRepository;
+import jocDeDaus.reactive.repository.GameRepository;
+import jocDeDaus.reactive.repository.PlayerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Clase de la capa Service, implementa la interface ICrapsRollService
+ *
+ * Cada tirada genera una partida, ganada si la suma de los dados es 7. Los identificadores de tiradas y
+ * partidas se reservan en bloque y las filas se insertan en un lote por tabla, todo en una unica transaccion
+ * que empieza sumando las tiradas a los contadores TOTAL_ROLLS y TOTAL_WINS del jugador
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ * @Transactional
+ * Las sentencias del metodo se ejecutan en una unica transaccion R2DBC (R2dbcTransactionManager),
+ * confirmada al completarse el Mono devuelto. El borrado de las tiradas pone a cero los contadores del
+ * jugador en la misma transaccion
+ *
+ */
+
+@Service
+public class CrapsRollServiceImpl implements ICrapsRollService {
+
+    private static final int FACES = 6;
+
+    @Autowired
+    CrapsRollRepository crapsRollRepository;
+
+    @Autowired
+    GameRepository gameRepository;
+
+    @Autowired
+    PlayerRepository playerRepository;
+
+    @Override
+    @Transactional
+    public Mono<List<CrapsRoll>> saveNewCrapsRolls(Long idPlayer, int count) {
+        List<CrapsRoll> crapsRolls = rollDice(idPlayer, count);
+
+        long wins = crapsRolls.stream().filter(c -> c.getRollResult() == 7).count();
+
+        // las sentencias de una transaccion comparten conexion: se ejecutan una detras de otra.
+        // La primera bloquea la fila del jugador, como en la aplicacion MVC
+        return playerRepository.addCrapsRolls(idPlayer, count, wins)
+                .then(crapsRollRepository.allocateIds(count))
+                .zipWhen(firstIdCrapsRoll -> gameRepository.allocateIds(idPlayer, count))
+                .flatMap(firstIds -> {
+                    List<Game> games = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        CrapsRoll crapsRoll = crapsRolls.get(i);
+                        crapsRoll.setIdCrapsRoll(firstIds.getT1() + i);
+
+                        Game game = new Game();
+                        game.setIdGame(firstIds.getT2() + i);
+                        game.setIdPlayer(idPlayer);
+                        game.setIdCrapsRoll(crapsRoll.getIdCrapsRoll());
+                        game.setGameResult(crapsRoll.getRollResult() == 7);
+                        games.add(game);
+                    }
+
+                    return crapsRollRepository.insertAll(crapsRolls)
+                            .then(gameRepository.insertAll(games))
+                            .thenReturn(crapsRolls);
+                });
+    }
+
+    @Override
+    public Flux<CrapsRoll> listCrapsRollsByPlayer(Long idPlayer) {
+        return crapsRollRepository.findByPlayer(idPlayer);
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> deleteCrapsRollsByPlayer(Long idPlayer) {
+        return playerRepository.resetCrapsRolls(idPlayer)
+                .then(crapsRollRepository.deleteByPlayer(idPlayer))
+                .then();
+    }
+
+    private static List<CrapsRoll> rollDice(Long idPlayer, int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        List<CrapsRoll> crapsRolls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CrapsRoll crapsRoll = new CrapsRoll();
+            crapsRoll.setIdPlayer(idPlayer);
+            crapsRoll.setCrapOne((short) (random.nextInt(FACES) + 1));
+            crapsRoll.setCrapTwo((short) (random.nextInt(FACES) + 1));
+            crapsRoll.setRollResult((short) (crapsRoll.getCrapOne() + crapsRoll.getCrapTwo()));
+            crapsRolls.add(crapsRoll);
+        }
+        return crapsRolls;
+    }
+}
@@ -0,0 +1,21 @@
+package jocDeDaus.reactive.service;
+
+import jocDeDaus.reactive.entity.CrapsRoll;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface ICrapsRollService {
+
+    Mono<List<CrapsRoll>> saveNewCrapsRolls(Long idPlayer, int count); // roll the dice count times and save the rolls with their games
+
+    Flux<CrapsRoll> listCrapsRollsByPlayer(Long idPlayer); // get all craps rolls of a player
+
+    Mono<Void> deleteCrapsRollsByPlayer(Long idPlayer); // delete all craps rolls of a player
+}
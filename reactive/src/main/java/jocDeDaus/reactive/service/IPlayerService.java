@@ -0,0 +1,25 @@
+package jocDeDaus.reactive.service;
+
+import jocDeDaus.reactive.entity.Player;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface IPlayerService {
+
+    Mono<Long> findNickNameConflict(String name); // find the Id of a player whose name contains the given one
+
+    Mono<Player> savePlayer(Player player); // save a new player, with ranking 0
+
+    Mono<Player> renamePlayer(Long idPlayer, String name); // rename an existing player, with its ranking
+
+    Mono<Player> findPlayerById(Long idPlayer); // get one player
+
+    Mono<Void> deletePlayer(Long idPlayer); // delete one player with its craps rolls and games
+
+    Flux<Player> listPlayersPage(Long after, int limit); // page of players with id greater than after
+}
@@ -0,0 +1,28 @@
+package jocDeDaus.reactive.service;
+
+import jocDeDaus.reactive.entity.Game;
+import jocDeDaus.reactive.entity.Player;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface IRankingService {
+
+    Mono<Double> findPlayerRanking(Long idPlayer); // success ranking of a player, from its games
+
+    Mono<Double> averageRankingAllPlayers(); // average success ranking of all players
+
+    Flux<Game> allGames(); // all games, ordered by player
+
+    Mono<Player> bestPlayer(); // player with the best success ranking
+
+    Mono<Player> worstPlayer(); // player with the worst success ranking
+
+    Flux<Player> bestPlayers(int limit); // top N players, best first
+
+    Flux<Player> worstPlayers(int limit); // bottom N players, worst first
+}
@@ -0,0 +1,111 @@
+package jocDeDaus.reactive.service;
+
+import jocDeDaus.reactive.entity.Player;
+import jocDeDaus.reactive.repository.GameRepository;
+import jocDeDaus.reactive.repository.PlayerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Clase de la capa Service, implementa la interface IPlayerService
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ * @Transactional
+ * Las sentencias del metodo se ejecutan en una unica transaccion R2DBC (R2dbcTransactionManager),
+ * confirmada al completarse el Mono devuelto
+ *
+ */
+
+@Service
+public class PlayerServiceImpl implements IPlayerService {
+
+    private static final String ANONYMOUS = "ANONYMOUS";
+
+    @Autowired
+    PlayerRepository playerRepository;
+
+    @Autowired
+    GameRepository gameRepository;
+
+    @Override
+    public Mono<Long> findNickNameConflict(String name) {
+        if (null == name || name.isBlank()){
+            return Mono.empty();
+        }
+        return playerRepository.findNickNameConflict(name.trim().toUpperCase());
+    }
+
+    @Override
+    @Transactional
+    public Mono<Player> savePlayer(Player player) {
+        LocalDateTime entryDate = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        String name = normalizeName(player.getName());
+
+        return playerRepository.insert(entryDate, name)
+                .flatMap(idPlayer -> gameRepository.insertCounter(idPlayer)
+                        .thenReturn(idPlayer))
+                .map(idPlayer -> {
+                    Player newPlayer = new Player();
+                    newPlayer.setIdPlayer(idPlayer);
+                    newPlayer.setEntryDate(Date.from(entryDate.atZone(ZoneId.systemDefault()).toInstant()));
+                    newPlayer.setName(name);
+                    // un jugador nuevo aun no tiene tiradas
+                    newPlayer.setRanking(0.0);
+                    return newPlayer;
+                });
+    }
+
+    @Override
+    @Transactional
+    public Mono<Player> renamePlayer(Long idPlayer, String name) {
+        // como en la aplicacion MVC, el nombre se guarda sin espacios en los extremos
+        return playerRepository.updateName(idPlayer, name.trim())
+                .filter(updated -> updated > 0)
+                .flatMap(updated -> playerRepository.findById(idPlayer))
+                .flatMap(player -> playerRepository.findRanking(idPlayer)
+                        .map(ranking -> {
+                            player.setRanking(ranking);
+                            return player;
+                        }));
+    }
+
+    @Override
+    public Mono<Player> findPlayerById(Long idPlayer) {
+        return playerRepository.findById(idPlayer);
+    }
+
+    @Override
+    public Mono<Void> deletePlayer(Long idPlayer) {
+        return playerRepository.deleteById(idPlayer).then();
+    }
+
+    @Override
+    public Flux<Player> listPlayersPage(Long after, int limit) {
+        return playerRepository.findPage(null == after ? 0L : after, limit);
+    }
+
+    // mismo tratamiento que Player.preInsert en la aplicacion MVC, al dar de alta un jugador
+    private static String normalizeName(String name) {
+        String trimmed = name.trim();
+        return trimmed.isBlank() ? ANONYMOUS : trimmed;
+    }
+}
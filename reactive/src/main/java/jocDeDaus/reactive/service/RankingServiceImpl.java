@@ -0,0 +1,76 @@
+package jocDeDaus.reactive.service;
+
+import jocDeDaus.reactive.entity.Game;
+import jocDeDaus.reactive.entity.Player;
+import jocDeDaus.reactive.repository.GameRepository;
+import jocDeDaus.reactive.repository.PlayerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Clase de la capa Service, implementa la interface IRankingService
+ *
+ * A diferencia de la aplicacion MVC, que mantiene el ranking en memoria, cada consulta se resuelve con una
+ * consulta sobre los contadores de tiradas de la tabla PLAYER, de modo que varias instancias pueden compartir
+ * la base de datos
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ */
+
+@Service
+public class RankingServiceImpl implements IRankingService {
+
+    @Autowired
+    PlayerRepository playerRepository;
+
+    @Autowired
+    GameRepository gameRepository;
+
+    @Override
+    public Mono<Double> findPlayerRanking(Long idPlayer) {
+        return playerRepository.findRanking(idPlayer);
+    }
+
+    @Override
+    public Mono<Double> averageRankingAllPlayers() {
+        return playerRepository.findAverageRanking();
+    }
+
+    @Override
+    public Flux<Game> allGames() {
+        return gameRepository.findAll();
+    }
+
+    @Override
+    public Mono<Player> bestPlayer() {
+        return playerRepository.findBest(1).next();
+    }
+
+    @Override
+    public Mono<Player> worstPlayer() {
+        return playerRepository.findLoser();
+    }
+
+    @Override
+    public Flux<Player> bestPlayers(int limit) {
+        return playerRepository.findBest(limit);
+    }
+
+    @Override
+    public Flux<Player> worstPlayers(int limit) {
+        return playerRepository.findWorst(limit);
+    }
+}
@@ -0,0 +1,100 @@
+package jocDeDaus.reactive.util.assembler;
+
+import jocDeDaus.reactive.dto.CrapsRollDto;
+import jocDeDaus.reactive.dto.CrapsRollSummaryDto;
+import jocDeDaus.reactive.entity.CrapsRoll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.reactive.ReactiveRepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Convierte tiradas, y el resumen de una tirada multiple, en representaciones HAL con sus enlaces,
+ * igual que CrapsRollModelAssembler de la aplicacion MVC
+ *
+ * Anotaciones:
+ * @Component
+ * Indica que una clase es un "componente".
+ * Estas clases se consideran candidatas para la deteccion automatica cuando se utiliza una configuracion
+ * basada en anotaciones y un escaneo de classpath.
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ */
+
+@Component
+public class CrapsRollModelAssembler implements ReactiveRepresentationModelAssembler<CrapsRoll, EntityModel<CrapsRollDto>> {
+
+    @Autowired
+    private PlayerLinks playerLinks;
+
+    @Override
+    public Mono<EntityModel<CrapsRollDto>> toModel(CrapsRoll crapsRoll, ServerWebExchange exchange) {
+        return Mono.just(toEntityModel(crapsRoll, exchange));
+    }
+
+    /**
+     * Convierte las tiradas de un jugador en un CollectionModel con enlace self
+     *
+     * @param idPlayer identificador del jugador
+     * @param crapsRolls tiradas del jugador
+     * @param exchange peticion en curso
+     * @return CollectionModel con las tiradas
+     */
+    public CollectionModel<EntityModel<CrapsRollDto>> toCollectionModel(Long idPlayer, List<CrapsRoll> crapsRolls,
+                                                                      ServerWebExchange exchange) {
+        List<EntityModel<CrapsRollDto>> crapsRollsDto = crapsRolls.stream()
+                .map(crapsRoll -> toEntityModel(crapsRoll, exchange))
+                .collect(Collectors.toList());
+
+        return CollectionModel.of(crapsRollsDto,
+                playerLinks.allCrapsRolls(exchange, idPlayer, IanaLinkRelations.SELF));
+    }
+
+    /**
+     * Convierte el resumen de una tirada multiple en un EntityModel con enlaces agregados
+     *
+     * @param summary resumen de la tirada multiple
+     * @param count numero de tiradas solicitadas
+     * @param exchange peticion en curso
+     * @return EntityModel con el resumen y sus enlaces
+     */
+    public EntityModel<CrapsRollSummaryDto> toSummaryModel(CrapsRollSummaryDto summary, Integer count,
+                                                           ServerWebExchange exchange) {
+        return EntityModel.of(summary,
+                playerLinks.newCrapsRolls(exchange, summary.getIdPlayer(), count, IanaLinkRelations.SELF),
+                playerLinks.allCrapsRolls(exchange, summary.getIdPlayer(), LinkRelation.of("all")),
+                playerLinks.deleteCrapsRolls(exchange, summary.getIdPlayer(), LinkRelation.of("delete")));
+    }
+
+    public CrapsRollDto convertToDto(CrapsRoll crapsRoll) {
+        CrapsRollDto crapsRollDto = new CrapsRollDto();
+        crapsRollDto.setIdCrapsRoll(crapsRoll.getIdCrapsRoll());
+        crapsRollDto.setIdPlayer(crapsRoll.getIdPlayer());
+        crapsRollDto.setCrapOne(crapsRoll.getCrapOne());
+        crapsRollDto.setCrapTwo(crapsRoll.getCrapTwo());
+        crapsRollDto.setRollResult(crapsRoll.getRollResult());
+        return crapsRollDto;
+    }
+
+    private EntityModel<CrapsRollDto> toEntityModel(CrapsRoll crapsRoll, ServerWebExchange exchange) {
+        CrapsRollDto crapsRollDto = convertToDto(crapsRoll);
+
+        return EntityModel.of(crapsRollDto,
+                playerLinks.newCrapsRoll(exchange, crapsRoll.getIdPlayer(), IanaLinkRelations.SELF),
+                playerLinks.allCrapsRolls(exchange, crapsRoll.getIdPlayer(), LinkRelation.of("all")),
+                playerLinks.deleteCrapsRolls(exchange, crapsRoll.getIdPlayer(), LinkRelation.of("delete")));
+    }
+}
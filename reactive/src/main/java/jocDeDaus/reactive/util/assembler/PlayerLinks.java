@@ -0,0 +1,118 @@
+package jocDeDaus.reactive.util.assembler;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Enlaces de los recursos /players, con las mismas URI que PlayerControllerLinks de la aplicacion MVC,
+ * resueltos a partir de la URI base de la peticion en curso (ServerWebExchange) en lugar de un
+ * RequestContextHolder ligado al hilo, que no existe en WebFlux.
+ *
+ * Los parametros de consulta sin valor se agregan como plantilla (RFC 6570): {?limit,after}
+ *
+ * Anotaciones:
+ * @Component
+ * Indica que una clase es un "componente".
+ * Estas clases se consideran candidatas para la deteccion automatica cuando se utiliza una configuracion
+ * basada en anotaciones y un escaneo de classpath.
+ *
+ */
+
+@Component
+public class PlayerLinks {
+
+    private static final String BASE_URI_ATTRIBUTE = PlayerLinks.class.getName() + ".BASE_URI";
+
+    public Link one(ServerWebExchange exchange, Long idPlayer, LinkRelation rel) {
+        return Link.of(baseUri(exchange) + "/players/" + idPlayer, rel);
+    }
+
+    public Link newPlayer(ServerWebExchange exchange, LinkRelation rel) {
+        return Link.of(baseUri(exchange) + "/players", rel);
+    }
+
+    public Link updatePlayer(ServerWebExchange exchange, Long idPlayer, LinkRelation rel) {
+        return one(exchange, idPlayer, rel);
+    }
+
+    public Link deletePlayer(ServerWebExchange exchange, Long idPlayer, LinkRelation rel) {
+        return one(exchange, idPlayer, rel);
+    }
+
+    public Link allPlayers(ServerWebExchange exchange, Integer limit, Long after, LinkRelation rel) {
+        return Link.of(withQuery(baseUri(exchange) + "/players", "limit", limit, "after", after), rel);
+    }
+
+    public Link newCrapsRoll(ServerWebExchange exchange, Long idPlayer, LinkRelation rel) {
+        return Link.of(baseUri(exchange) + "/players/" + idPlayer + "/games", rel);
+    }
+
+    public Link newCrapsRolls(ServerWebExchange exchange, Long idPlayer, Integer count, LinkRelation rel) {
+        return Link.of(withQuery(baseUri(exchange) + "/players/" + idPlayer + "/games", "count", count), rel);
+    }
+
+    public Link allCrapsRolls(ServerWebExchange exchange, Long idPlayer, LinkRelation rel) {
+        return newCrapsRoll(exchange, idPlayer, rel);
+    }
+
+    public Link deleteCrapsRolls(ServerWebExchange exchange, Long idPlayer, LinkRelation rel) {
+        return newCrapsRoll(exchange, idPlayer, rel);
+    }
+
+    public Link ranking(ServerWebExchange exchange, LinkRelation rel) {
+        return Link.of(baseUri(exchange) + "/players/ranking", rel);
+    }
+
+    public Link loser(ServerWebExchange exchange, LinkRelation rel) {
+        return Link.of(baseUri(exchange) + "/players/ranking/loser", rel);
+    }
+
+    public Link winner(ServerWebExchange exchange, LinkRelation rel) {
+        return Link.of(baseUri(exchange) + "/players/ranking/winner", rel);
+    }
+
+    public Link top(ServerWebExchange exchange, Integer limit, LinkRelation rel) {
+        return Link.of(withQuery(baseUri(exchange) + "/players/ranking/top", "limit", limit), rel);
+    }
+
+    public Link bottom(ServerWebExchange exchange, Integer limit, LinkRelation rel) {
+        return Link.of(withQuery(baseUri(exchange) + "/players/ranking/bottom", "limit", limit), rel);
+    }
+
+    // pares nombre, valor; los valores son numericos y no necesitan codificarse
+    private static String withQuery(String path, Object... parameters) {
+        StringBuilder href = new StringBuilder(path);
+        boolean hasQuery = false;
+        StringBuilder missing = null;
+        for (int i = 0; i < parameters.length; i += 2) {
+            Object value = parameters[i + 1];
+            if (null != value){
+                href.append(hasQuery ? '&' : '?').append(parameters[i]).append('=').append(value);
+                hasQuery = true;
+            } else {
+                missing = null == missing ? new StringBuilder() : missing.append(',');
+                missing.append(parameters[i]);
+            }
+        }
+        if (null != missing){
+            href.append(hasQuery ? "{&" : "{?").append(missing).append('}');
+        }
+        return href.toString();
+    }
+
+    // la URI base se calcula una vez por peticion y se guarda como atributo del intercambio
+    private static String baseUri(ServerWebExchange exchange) {
+        return exchange.getAttributes().computeIfAbsent(BASE_URI_ATTRIBUTE, key ->
+                UriComponentsBuilder.fromHttpRequest(exchange.getRequest())
+                        .replacePath(exchange.getRequest().getPath().contextPath().value())
+                        .replaceQuery(null)
+                        .build()
+                        .toUriString())
+                .toString();
+    }
+}
@@ -0,0 +1,108 @@
+package jocDeDaus.reactive.util.assembler;
+
+import jocDeDaus.reactive.dto.PlayerDto;
+import jocDeDaus.reactive.entity.Player;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.reactive.ReactiveRepresentationModelAssembler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Convierte jugadores en representaciones HAL (EntityModel) con sus enlaces, igual que PlayerModelAssembler
+ * de la aplicacion MVC, sin bloquear: los jugadores y sus representaciones se reciben y entregan como
+ * Mono y Flux
+ *
+ * Anotaciones:
+ * @Component
+ * Indica que una clase es un "componente".
+ * Estas clases se consideran candidatas para la deteccion automatica cuando se utiliza una configuracion
+ * basada en anotaciones y un escaneo de classpath.
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ */
+
+@Component
+public class PlayerModelAssembler implements ReactiveRepresentationModelAssembler<Player, EntityModel<PlayerDto>> {
+
+    @Autowired
+    private PlayerLinks playerLinks;
+
+    @Override
+    public Mono<EntityModel<PlayerDto>> toModel(Player player, ServerWebExchange exchange) {
+        return Mono.just(toEntityModel(player, exchange));
+    }
+
+    /**
+     * Convierte una pagina de jugadores en un CollectionModel con enlace self y, si la pagina
+     * esta completa, enlace next a la pagina siguiente (keyset, a partir del ultimo jugador)
+     *
+     * @param players jugadores de la pagina, ordenados por identificador
+     * @param limit numero maximo de jugadores por pagina
+     * @param after identificador a partir del cual se ha obtenido la pagina
+     * @param exchange peticion en curso
+     * @return CollectionModel con los jugadores y los enlaces de paginacion
+     */
+    public Mono<CollectionModel<EntityModel<PlayerDto>>> toCollectionModel(Flux<Player> players, Integer limit,
+                                                                         Long after, ServerWebExchange exchange) {
+        return players.collectList()
+                .map(page -> {
+                    CollectionModel<EntityModel<PlayerDto>> collectionModel = toCollectionModel(page, exchange)
+                            .add(playerLinks.allPlayers(exchange, limit, after, IanaLinkRelations.SELF));
+
+                    if (!page.isEmpty() && page.size() >= limit){
+                        Long lastIdPlayer = page.get(page.size() - 1).getIdPlayer();
+                        collectionModel.add(playerLinks.allPlayers(exchange, limit, lastIdPlayer, IanaLinkRelations.NEXT));
+                    }
+                    return collectionModel;
+                });
+    }
+
+    /**
+     * Convierte una lista de jugadores en un CollectionModel sin enlaces propios
+     *
+     * @param players jugadores
+     * @param exchange peticion en curso
+     * @return CollectionModel con los jugadores
+     */
+    public CollectionModel<EntityModel<PlayerDto>> toCollectionModel(List<Player> players, ServerWebExchange exchange) {
+        List<EntityModel<PlayerDto>> playersDto = players.stream()
+                .map(player -> toEntityModel(player, exchange))
+                .collect(Collectors.toList());
+
+        return CollectionModel.of(playersDto);
+    }
+
+    public PlayerDto convertToDto(Player player){
+        PlayerDto playerDto = new PlayerDto();
+        playerDto.setIdPlayer(player.getIdPlayer());
+        playerDto.setEntryDate(player.getEntryDate());
+        playerDto.setName(player.getName());
+        playerDto.setRanking(player.getRanking());
+        return playerDto;
+    }
+
+    private EntityModel<PlayerDto> toEntityModel(Player player, ServerWebExchange exchange) {
+        PlayerDto playerDto = convertToDto(player);
+
+        return EntityModel.of(playerDto,
+                playerLinks.one(exchange, player.getIdPlayer(), IanaLinkRelations.SELF),
+                playerLinks.newPlayer(exchange, LinkRelation.of("new")),
+                playerLinks.updatePlayer(exchange, player.getIdPlayer(), LinkRelation.of("update")),
+                playerLinks.deletePlayer(exchange, player.getIdPlayer(), LinkRelation.of("delete")),
+                playerLinks.allPlayers(exchange, null, null, LinkRelation.of("all")));
+    }
+}
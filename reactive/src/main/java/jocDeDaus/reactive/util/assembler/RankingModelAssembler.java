@@ -0,0 +1,72 @@
+package jocDeDaus.reactive.util.assembler;
+
+import jocDeDaus.reactive.dto.GameDto;
+import jocDeDaus.reactive.dto.RankingDto;
+import jocDeDaus.reactive.entity.Game;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Convierte el ranking medio y las partidas de todos los jugadores en una representacion HAL con sus
+ * enlaces, igual que RankingModelAssembler de la aplicacion MVC
+ *
+ * Anotaciones:
+ * @Component
+ * Indica que una clase es un "componente".
+ * Estas clases se consideran candidatas para la deteccion automatica cuando se utiliza una configuracion
+ * basada en anotaciones y un escaneo de classpath.
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ */
+
+@Component
+public class RankingModelAssembler {
+
+    @Autowired
+    private PlayerLinks playerLinks;
+
+    /**
+     * Combina el ranking medio y las partidas en un EntityModel con enlaces agregados
+     *
+     * @param averageRankingAllPlayers ranking medio de todos los jugadores
+     * @param games partidas de todos los jugadores
+     * @param exchange peticion en curso
+     * @return EntityModel con el ranking y sus enlaces
+     */
+    public Mono<EntityModel<RankingDto>> toModel(Mono<Double> averageRankingAllPlayers, Flux<Game> games,
+                                                 ServerWebExchange exchange) {
+        return averageRankingAllPlayers
+                .zipWith(games.map(this::convertToDto).collectList(), (average, gamesDto) -> {
+                    RankingDto rankingDto = new RankingDto();
+                    rankingDto.setAverageRankingAllPlayers(average);
+                    rankingDto.setGames(gamesDto);
+
+                    return EntityModel.of(rankingDto,
+                            playerLinks.ranking(exchange, IanaLinkRelations.SELF),
+                            playerLinks.loser(exchange, LinkRelation.of("loser")),
+                            playerLinks.winner(exchange, LinkRelation.of("winner")),
+                            playerLinks.top(exchange, null, LinkRelation.of("top")),
+                            playerLinks.bottom(exchange, null, LinkRelation.of("bottom")));
+                });
+    }
+
+    public GameDto convertToDto(Game game) {
+        GameDto gameDto = new GameDto();
+        gameDto.setIdGame(game.getIdGame());
+        gameDto.setIdPlayer(game.getIdPlayer());
+        gameDto.setIdCrapsRoll(game.getIdCrapsRoll());
+        gameDto.setGameResult(game.getGameResult());
+        return gameDto;
+    }
+}
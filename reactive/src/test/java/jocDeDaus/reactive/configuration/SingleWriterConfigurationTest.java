@@ -0,0 +1,57 @@
+package jocDeDaus.reactive.configuration;
+
+import jocDeDaus.reactive.security.AccessTokens;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+/**
+ * Clase de pruebas de integracion de la capa de Configuration
+ *
+ * En modo de solo lectura las peticiones que no son de lectura se rechazan con 405, antes de llegar al
+ * controlador, y la base de datos no se inicializa
+ *
+ * Anotaciones:
+ * @SpringBootTest
+ * Arranca la aplicacion reactiva completa en un puerto aleatorio, con el perfil "test" y
+ * jocdedaus.reactive.read-only=true
+ *
+ */
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "jocdedaus.reactive.read-only=true")
+@ActiveProfiles("test")
+class SingleWriterConfigurationTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Value("${jocdedaus.security.jwt.secret}")
+    String secretKey;
+
+    @Test
+    void rejectsWritesInReadOnlyMode() {
+        String authorization = AccessTokens.bearer(secretKey);
+
+        webTestClient.post().uri("/players")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "readOnly"))
+                .exchange()
+                .expectStatus().isEqualTo(405)
+                .expectHeader().valueEquals(HttpHeaders.ALLOW, "GET,HEAD,OPTIONS");
+
+        webTestClient.method(HttpMethod.DELETE).uri("/players/1/games")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isEqualTo(405);
+    }
+}
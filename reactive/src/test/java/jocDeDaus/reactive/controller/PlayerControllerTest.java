@@ -0,0 +1,218 @@
+package jocDeDaus.reactive.controller;
+
+import jocDeDaus.reactive.security.AccessTokens;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clase de pruebas de integracion de la capa Controller
+ *
+ * Ejercita el API reactivo de extremo a extremo con WebTestClient, sobre la base de datos H2 embebida del
+ * driver R2DBC (r2dbc:h2) con los mismos db/schema.sql y db/data.sql que la aplicacion MVC: alta de jugadores,
+ * tiradas por lotes, ranking y las respuestas de error 404 y 400.
+ *
+ * Cada prueba crea sus propios jugadores, de modo que no dependen del orden de ejecucion. Todas las
+ * peticiones llevan un token de acceso firmado con la clave del perfil "test"
+ *
+ * Anotaciones:
+ * @SpringBootTest
+ * Arranca la aplicacion reactiva completa en un puerto aleatorio; WebTestClient se configura contra ese puerto
+ *
+ */
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class PlayerControllerTest {
+
+    private static final long UNKNOWN_PLAYER = 999_999L;
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Value("${jocdedaus.security.jwt.secret}")
+    String secretKey;
+
+    private int names;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = webTestClient.mutate()
+                .defaultHeader(HttpHeaders.AUTHORIZATION, AccessTokens.bearer(secretKey))
+                .build();
+    }
+
+    @Test
+    void createsPlayerAndRejectsARepeatedNickName() {
+        String name = nextName();
+
+        webTestClient.post().uri("/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", name))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().exists("Location")
+                .expectBody()
+                .jsonPath("$.idPlayer").isNumber()
+                .jsonPath("$.name").isEqualTo(name)
+                .jsonPath("$.ranking").isEqualTo(0.0)
+                .jsonPath("$._links.self.href").exists();
+
+        webTestClient.post().uri("/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", name.toUpperCase()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Please select another Nick Name.");
+    }
+
+    @Test
+    void rollsInBulkAndUpdatesTheRanking() {
+        long idPlayer = newPlayer();
+
+        Map<?, ?> summary = webTestClient.post().uri("/players/{id}/games?count=20", idPlayer)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody();
+
+        assertThat(summary).isNotNull();
+        assertThat(((Number) summary.get("idPlayer")).longValue()).isEqualTo(idPlayer);
+        assertThat(((Number) summary.get("total")).longValue()).isEqualTo(20);
+        long wins = ((Number) summary.get("wins")).longValue();
+        assertThat(wins).isBetween(0L, 20L);
+        assertThat(((Number) summary.get("ranking")).doubleValue())
+                .isEqualTo(Math.round(wins * 100.0 / 20 * 100.0) / 100.0);
+
+        webTestClient.get().uri("/players/{id}/games", idPlayer)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$._embedded.crapsRollDtoList.length()").isEqualTo(20);
+
+        // el listado paginado calcula el ranking de cada jugador a partir de sus contadores
+        webTestClient.get().uri("/players?limit=1&after={after}", idPlayer - 1)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$._embedded.playerDtoList[0].idPlayer").isEqualTo((int) idPlayer)
+                .jsonPath("$._embedded.playerDtoList[0].ranking").isEqualTo(summary.get("ranking"));
+    }
+
+    @Test
+    void servesTheRanking() {
+        long idPlayer = newPlayer();
+        webTestClient.post().uri("/players/{id}/games?count=10", idPlayer)
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get().uri("/players/ranking")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.averageRankingAllPlayers").isNumber()
+                .jsonPath("$.games").isNotEmpty();
+
+        webTestClient.get().uri("/players/ranking/winner")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.idPlayer").isNumber()
+                .jsonPath("$.ranking").isNumber();
+
+        webTestClient.get().uri("/players/ranking/loser")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.idPlayer").isNumber();
+
+        webTestClient.get().uri("/players/ranking/top?limit=2")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$._embedded.playerDtoList.length()").isEqualTo(2)
+                .jsonPath("$._links.self.href").exists();
+
+        webTestClient.get().uri("/players/ranking/bottom?limit=2")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$._embedded.playerDtoList.length()").isEqualTo(2);
+    }
+
+    @Test
+    void answersNotFoundForAnUnknownPlayer() {
+        webTestClient.get().uri("/players/{id}", UNKNOWN_PLAYER)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.post().uri("/players/{id}/games", UNKNOWN_PLAYER)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.post().uri("/players/{id}/games?count=5", UNKNOWN_PLAYER)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.get().uri("/players/{id}/games", UNKNOWN_PLAYER)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.delete().uri("/players/{id}", UNKNOWN_PLAYER)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void answersBadRequestForInvalidInput() {
+        long idPlayer = newPlayer();
+
+        webTestClient.post().uri("/players/{id}/games?count=0", idPlayer)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Invalid number of craps rolls.");
+
+        webTestClient.post().uri("/players/{id}/games?count=10001", idPlayer)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Invalid number of craps rolls.");
+
+        webTestClient.post().uri("/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors").isNotEmpty();
+    }
+
+    private long newPlayer() {
+        Map<?, ?> player = webTestClient.post().uri("/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", nextName()))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody();
+
+        assertThat(player).isNotNull();
+        return ((Number) player.get("idPlayer")).longValue();
+    }
+
+    private String nextName() {
+        return "reactive" + (++names) + "-" + System.nanoTime();
+    }
+}
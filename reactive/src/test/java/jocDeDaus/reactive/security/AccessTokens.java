@@ -0,0 +1,39 @@
+package jocDeDaus.reactive.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Tokens con el mismo formato que los que emite /login en la aplicacion MVC, para las pruebas
+ *
+ */
+
+public final class AccessTokens {
+
+    private AccessTokens() {
+    }
+
+    /**
+     * @param secretKey clave de firma en base64
+     * @param tokenType claim typ: access o refresh
+     * @param expiration fecha de expiracion
+     * @return valor del encabezado Authorization, con el prefijo Bearer
+     */
+    public static String bearer(String secretKey, String tokenType, Date expiration) {
+        return "Bearer " + Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("root")
+                .claim("typ", tokenType)
+                .setExpiration(expiration)
+                .signWith(SignatureAlgorithm.HS512, Base64.getDecoder().decode(secretKey))
+                .compact();
+    }
+
+    public static String bearer(String secretKey) {
+        return bearer(secretKey, "access", new Date(System.currentTimeMillis() + 3_600_000));
+    }
+}
@@ -0,0 +1,77 @@
+package jocDeDaus.reactive.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Clase de pruebas de integracion de la capa Security
+ *
+ * Sin un token de acceso valido de la aplicacion MVC, cualquier peticion, de lectura o de escritura, se
+ * rechaza con 401: sin token, con un token expirado, mal formado, firmado con otra clave o de refresco
+ *
+ * Anotaciones:
+ * @SpringBootTest
+ * Arranca la aplicacion reactiva completa en un puerto aleatorio, con el perfil "test"
+ *
+ */
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class SecurityConfigTest {
+
+    private static final String FORGED_SECRET_KEY =
+            "c2lnbmVkIHdpdGggYW5vdGhlciBrZXksIG5vdCB0aGUgb25lIG9mIHRoZSBhcHBsaWNhdGlvbiB1bmRlciB0ZXN0IQ==";
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Value("${jocdedaus.security.jwt.secret}")
+    String secretKey;
+
+    @Test
+    void rejectsRequestsWithoutAToken() {
+        webTestClient.get().uri("/players")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.post().uri("/players")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "anonymous"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void rejectsInvalidTokens() {
+        long now = System.currentTimeMillis();
+
+        assertUnauthorized(AccessTokens.bearer(secretKey, "access", new Date(now - 60_000)));
+        assertUnauthorized(AccessTokens.bearer(secretKey, "refresh", new Date(now + 60_000)));
+        assertUnauthorized(AccessTokens.bearer(FORGED_SECRET_KEY, "access", new Date(now + 60_000)));
+        assertUnauthorized("Bearer not.a.token");
+    }
+
+    @Test
+    void acceptsAnAccessTokenOfTheMvcApplication() {
+        webTestClient.get().uri("/players")
+                .header(HttpHeaders.AUTHORIZATION, AccessTokens.bearer(secretKey))
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    private void assertUnauthorized(String authorization) {
+        webTestClient.post().uri("/players/1/games")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
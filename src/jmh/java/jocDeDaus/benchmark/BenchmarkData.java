@@ -0,0 +1,117 @@
+package jocDeDaus.benchmark;
+
+import jocDeDaus.entity.CrapsRoll;
+import jocDeDaus.entity.Game;
+import jocDeDaus.entity.Player;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Clase de utilidades de los benchmarks
+ *
+ * Genera jugadores, tiradas y partidas en memoria, sin base de datos, con una semilla fija
+ * para que todas las ejecuciones midan exactamente los mismos datos
+ *
+ */
+
+final class BenchmarkData {
+
+    private static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Genera jugadores con nombres distintos, cada uno con una partida y su tirada
+     *
+     * @param size numero de jugadores
+     * @return jugadores ordenados por identificador
+     */
+    static List<Player> players(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Player> players = new ArrayList<>(size);
+
+        for (long idPlayer = 1; idPlayer <= size; idPlayer++) {
+            Player player = new Player();
+            player.setIdPlayer(idPlayer);
+            player.setEntryDate(new Date(1_600_000_000_000L + idPlayer * 1000));
+            player.setName("PLAYER-" + idPlayer);
+            player.setRanking(0.0);
+
+            CrapsRoll crapsRoll = crapsRoll(random, idPlayer, idPlayer);
+            Game game = game(crapsRoll, 1L);
+            player.setCrapsRolls(Collections.singletonList(crapsRoll));
+            player.setGames(Collections.singletonList(game));
+            players.add(player);
+        }
+        return players;
+    }
+
+    /**
+     * Genera las tiradas de un unico jugador
+     */
+    static List<CrapsRoll> crapsRolls(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<CrapsRoll> crapsRolls = new ArrayList<>(size);
+
+        for (long idCrapsRoll = 1; idCrapsRoll <= size; idCrapsRoll++) {
+            crapsRolls.add(crapsRoll(random, 1L, idCrapsRoll));
+        }
+        return crapsRolls;
+    }
+
+    /**
+     * Genera partidas repartidas entre size / 10 jugadores
+     */
+    static List<Game> games(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        long players = Math.max(1, size / 10);
+        List<Game> games = new ArrayList<>(size);
+
+        for (long idCrapsRoll = 1; idCrapsRoll <= size; idCrapsRoll++) {
+            long idPlayer = (idCrapsRoll - 1) % players + 1;
+            games.add(game(crapsRoll(random, idPlayer, idCrapsRoll), (idCrapsRoll - 1) / players + 1));
+        }
+        return games;
+    }
+
+    /**
+     * Asigna un campo inyectado con @Autowired, sin levantar el contexto de Spring
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static CrapsRoll crapsRoll(SplittableRandom random, Long idPlayer, Long idCrapsRoll) {
+        CrapsRoll crapsRoll = new CrapsRoll();
+        short crapOne = (short) (random.nextInt(6) + 1);
+        short crapTwo = (short) (random.nextInt(6) + 1);
+
+        crapsRoll.setIdCrapsRoll(idCrapsRoll);
+        crapsRoll.setIdPlayer(idPlayer);
+        crapsRoll.setCrapOne(crapOne);
+        crapsRoll.setCrapTwo(crapTwo);
+        crapsRoll.setRollResult((short) (crapOne + crapTwo));
+        return crapsRoll;
+    }
+
+    private static Game game(CrapsRoll crapsRoll, Long idGame) {
+        Game game = new Game();
+
+        game.setIdGame(idGame);
+        game.setIdPlayer(crapsRoll.getIdPlayer());
+        game.setIdCrapsRoll(crapsRoll.getIdCrapsRoll());
+        game.setGameResult(crapsRoll.getRollResult() == 7);
+        game.setCrapsRoll(crapsRoll);
+        crapsRoll.setGame(game);
+        return game;
+    }
+}
@@ -0,0 +1,96 @@
+package jocDeDaus.benchmark;
+
+import jocDeDaus.entity.CrapsRoll;
+import jocDeDaus.entity.Game;
+import jocDeDaus.entity.Player;
+import jocDeDaus.util.ControllerUtilities;
+import jocDeDaus.util.NickNameIndex;
+import jocDeDaus.util.ThreadLocalDiceEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de ControllerUtilities
+ *
+ * Mide el rendimiento (operaciones por segundo) de los calculos de ranking, la busqueda del
+ * mejor y peor jugador, la generacion de dados y la comprobacion de nombre unico, para
+ * tamanos de datos entre 10 y 10^6 filas. La comprobacion de nombre unico se compara con
+ * el indice NickNameIndex que usa el servicio de jugadores.
+ *
+ * Ejecucion: ./gradlew jmh (el perfilador GC agrega la tasa de asignacion de memoria)
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ControllerUtilitiesBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    private ControllerUtilities controllerUtilities;
+    private NickNameIndex nickNameIndex;
+    private List<Player> players;
+    private List<CrapsRoll> crapsRolls;
+    private List<Game> games;
+    private Player newPlayer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controllerUtilities = new ControllerUtilities();
+        BenchmarkData.inject(controllerUtilities, "iDiceEngine", new ThreadLocalDiceEngine());
+
+        players = BenchmarkData.players(size);
+        crapsRolls = BenchmarkData.crapsRolls(size);
+        games = BenchmarkData.games(size);
+
+        nickNameIndex = new NickNameIndex();
+        players.forEach(p -> nickNameIndex.put(p.getIdPlayer(), p.getName()));
+
+        // nombre libre: recorre todos los jugadores sin encontrar coincidencia
+        newPlayer = new Player();
+        newPlayer.setName("NEW-PLAYER");
+    }
+
+    @Benchmark
+    public Double computePlayerSuccessRanking() {
+        return controllerUtilities.computePlayerSuccessRanking(crapsRolls);
+    }
+
+    @Benchmark
+    public Double computeAverageRankingAllPlayers() {
+        return controllerUtilities.computeAverageRankingAllPlayers(games);
+    }
+
+    @Benchmark
+    public Optional<Player> getBestPlayer() {
+        return controllerUtilities.getBestPlayer(players);
+    }
+
+    @Benchmark
+    public Optional<Player> getWorstPlayer() {
+        return controllerUtilities.getWorstPlayer(players);
+    }
+
+    @Benchmark
+    public Optional<Player> checkUniqueNickName() {
+        return controllerUtilities.checkUniqueNickName(newPlayer, players);
+    }
+
+    @Benchmark
+    public Optional<Long> nickNameIndexFindConflict() {
+        return nickNameIndex.findConflict(newPlayer.getName());
+    }
+
+    @Benchmark
+    public List<Short> getRandomNumbers() {
+        return controllerUtilities.getRandomNumbers();
+    }
+}
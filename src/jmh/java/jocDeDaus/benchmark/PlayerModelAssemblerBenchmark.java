@@ -0,0 +1,102 @@
+package jocDeDaus.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jocDeDaus.configuration.WebMVCConfiguration;
+import jocDeDaus.controller.PlayerController;
+import jocDeDaus.dto.PlayerDto;
+import jocDeDaus.entity.Player;
+import jocDeDaus.util.assembler.PlayerControllerLinks;
+import jocDeDaus.util.assembler.PlayerModelAssembler;
+import jocDeDaus.util.mapper.IDtoMapperImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.hateoas.Links;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Benchmark de PlayerModelAssembler y de la serializacion Jackson de los DTO
+ *
+ * Usa el mapeador generado por MapStruct (IDtoMapperImpl) y el ObjectMapper configurado en
+ * WebMVCConfiguration. Los enlaces se
+ * construyen fuera de una peticion HTTP, por lo que se resuelven sobre la URI raiz.
+ *
+ * methodOnLinks construye los mismos cinco enlaces por jugador con linkTo(methodOn(...)), como
+ * antes de PlayerControllerLinks, para comparar el coste por elemento con las plantillas precompiladas.
+ *
+ * Ejecucion: ./gradlew jmh (el perfilador GC agrega la tasa de asignacion de memoria)
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PlayerModelAssemblerBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int size;
+
+    private PlayerModelAssembler playerModelAssembler;
+    private ObjectMapper objectMapper;
+    private List<Player> players;
+    private PlayerDto playerDto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        WebMVCConfiguration configuration = new WebMVCConfiguration();
+        objectMapper = configuration.objectMapper();
+
+        playerModelAssembler = new PlayerModelAssembler();
+        BenchmarkData.inject(playerModelAssembler, "iDtoMapper", new IDtoMapperImpl());
+        BenchmarkData.inject(playerModelAssembler, "playerControllerLinks", new PlayerControllerLinks());
+
+        players = BenchmarkData.players(size);
+        playerDto = playerModelAssembler.convertToDto(players.get(0));
+    }
+
+    @Benchmark
+    public void toModel(Blackhole blackhole) {
+        for (Player player : players) {
+            blackhole.consume(playerModelAssembler.toModel(player));
+        }
+    }
+
+    @Benchmark
+    public void methodOnLinks(Blackhole blackhole) {
+        for (Player player : players) {
+            blackhole.consume(Links.of(
+                    linkTo(methodOn(PlayerController.class).one(player.getIdPlayer())).withSelfRel(),
+                    linkTo(methodOn(PlayerController.class).newPlayer(player)).withRel("new"),
+                    linkTo(methodOn(PlayerController.class).updatePlayer(player, player.getIdPlayer())).withRel("update"),
+                    linkTo(methodOn(PlayerController.class).deletePlayer(player.getIdPlayer())).withRel("delete"),
+                    linkTo(methodOn(PlayerController.class).allPlayers(null, null)).withRel("all")));
+        }
+    }
+
+    @Benchmark
+    public void convertToDto(Blackhole blackhole) {
+        for (Player player : players) {
+            blackhole.consume(playerModelAssembler.convertToDto(player));
+        }
+    }
+
+    @Benchmark
+    public void serializePlayerDto(Blackhole blackhole) throws JsonProcessingException {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(objectMapper.writeValueAsBytes(playerDto));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeCollectionModel() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(playerModelAssembler.toCollectionModel(players, size, null));
+    }
+}
@@ -0,0 +1,133 @@
+package jocDeDaus.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Clase de la capa de Configuration de Spring
+ *
+ * Separacion de lecturas y escrituras: activa solo si se define jocdedaus.datasource.replica.url.
+ *
+ * Crea dos pools Hikari, "primary" (spring.datasource.*) y "replica" (jocdedaus.datasource.replica.*),
+ * con sus metricas hikaricp.* etiquetadas por pool, y expone como DataSource de la aplicacion un
+ * ReadWriteRoutingDataSource detras de un LazyConnectionDataSourceProxy: los metodos de la capa de
+ * servicio @Transactional(readOnly = true) leen de la replica y el resto de operaciones van a la principal
+ *
+ * Anotaciones:
+ *
+ * @Configuration
+ * Indica que una clase declara uno o mas metodos @Bean y puede ser procesada por el contenedor Spring
+ * para generar definiciones de beans y solicitudes de servicio para esos beans en tiempo de ejecucion
+ *
+ * @ConditionalOnProperty
+ * La configuracion solo se procesa si la propiedad indicada esta definida
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "jocdedaus.datasource.replica.url")
+public class ReadReplicaConfiguration {
+
+    /**
+     * DataSource de la aplicacion: enruta a la replica las transacciones de solo lectura
+     *
+     * Los pools se crean aqui y no como beans propios: el inicializador de scripts de Spring Boot se aplica
+     * a cada bean DataSource y necesita a su vez el DataSource de la aplicacion, lo que forma un ciclo
+     *
+     * @param properties, propiedades spring.datasource.*
+     * @param environment, entorno del que se leen las propiedades spring.datasource.hikari.* y jocdedaus.datasource.replica.*
+     * @param meterRegistry, registro de metricas
+     * @return instancia de tipo LazyConnectionDataSourceProxy
+     */
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primaryDataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaryDataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primaryDataSource));
+
+        // mismo driver, usuario y contrasena que la base de datos principal, salvo que se indiquen otros
+        HikariDataSource replicaDataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(environment.getRequiredProperty("jocdedaus.datasource.replica.url"))
+                .username(environment.getProperty("jocdedaus.datasource.replica.username", properties.determineUsername()))
+                .password(environment.getProperty("jocdedaus.datasource.replica.password", properties.determinePassword()))
+                .build();
+        replicaDataSource.setPoolName(ReadWriteRoutingDataSource.REPLICA);
+        binder.bind("jocdedaus.datasource.replica.hikari", Bindable.ofInstance(replicaDataSource));
+
+        // metricas hikaricp.* etiquetadas por pool: Spring Boot no ve los pools detras del DataSource de enrutamiento
+        MicrometerMetricsTrackerFactory metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+        primaryDataSource.setMetricsTrackerFactory(metricsTrackerFactory);
+        replicaDataSource.setMetricsTrackerFactory(metricsTrackerFactory);
+
+        if (environment.getProperty("jocdedaus.datasource.replica.initialize", Boolean.class, false)){
+            initializeReplica(replicaDataSource, properties);
+        }
+
+        Counter fallbacks = Counter.builder("jocdedaus.datasource.replica.fallback")
+                .description("Read-only connections served by the primary because the replica was unavailable")
+                .register(meterRegistry);
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(primaryDataSource,
+                replicaDataSource, environment.getProperty("jocdedaus.datasource.replica.retry-interval", Long.class, 5000L),
+                fallbacks);
+        routingDataSource.afterPropertiesSet();
+
+        Gauge.builder("jocdedaus.datasource.replica.available", routingDataSource, r -> r.isReplicaAvailable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Gestor de transacciones JPA que no guarda en la cache de segundo nivel lo leido en la replica
+     *
+     * @param entityManagerFactory, fabrica de EntityManager
+     * @return instancia de tipo JpaTransactionManager
+     */
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new ReplicaAwareJpaTransactionManager(entityManagerFactory);
+    }
+
+    /**
+     * Solo para pruebas locales, con una base de datos H2 en memoria haciendo de replica
+     * (jocdedaus.datasource.replica.initialize=true): ejecuta en la replica los mismos scripts que en la base
+     * de datos principal (spring.datasource.schema y data). Con una replica real, el esquema y los datos
+     * llegan por replicacion
+     */
+    private void initializeReplica(DataSource replicaDataSource, DataSourceProperties properties) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+        ResourceLoader resourceLoader = new DefaultResourceLoader();
+        Stream.of(properties.getSchema(), properties.getData())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .forEach(script -> populator.addScript(resourceLoader.getResource(script)));
+        populator.execute(replicaDataSource);
+    }
+}
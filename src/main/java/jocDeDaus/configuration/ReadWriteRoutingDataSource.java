@@ -0,0 +1,104 @@
+package jocDeDaus.configuration;
+
+import com.zaxxer.hikari.pool.HikariPool;
+import io.micrometer.core.instrument.Counter;
+import jocDeDaus.service.IPlayerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Clase de la capa de Configuration de Spring
+ *
+ * DataSource que reparte las conexiones entre la base de datos principal y una replica de solo lectura:
+ * las transacciones @Transactional(readOnly = true) abiertas por la capa de servicio leen de la replica, el
+ * resto de operaciones van a la principal.
+ *
+ * Las lecturas que los controladores hacen directamente a traves de los repositorios (por ejemplo
+ * findById tras crear un jugador) tambien son transacciones de solo lectura, las de Spring Data, pero deben
+ * ver las escrituras recien confirmadas: por eso se tiene en cuenta el nombre de la transaccion, que es el
+ * del metodo que la abre.
+ *
+ * Debe utilizarse detras de un LazyConnectionDataSourceProxy, de modo que la conexion se obtenga en la
+ * primera sentencia, cuando la transaccion ya ha marcado si es de solo lectura.
+ *
+ * Si la replica no entrega una conexion, la lectura se hace en la principal y la replica queda descartada
+ * durante retryIntervalMillis, sin volver a esperar su tiempo de conexion en cada peticion. Cada lectura
+ * desviada incrementa la metrica jocdedaus.datasource.replica.fallback
+ *
+ */
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private static final String SERVICE_PACKAGE = IPlayerService.class.getPackageName() + ".";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryIntervalMillis;
+    private final Counter fallbacks;
+
+    private volatile long replicaDownUntil;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long retryIntervalMillis,
+                                      Counter fallbacks) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryIntervalMillis = retryIntervalMillis;
+        this.fallbacks = fallbacks;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return isReadOnlyServiceTransaction() && isReplicaAvailable() ? REPLICA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (REPLICA.equals(determineCurrentLookupKey())){
+            try {
+                return replica.getConnection();
+            } catch (SQLException | HikariPool.PoolInitializationException e) {
+                replicaDown(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    private static boolean isReadOnlyServiceTransaction() {
+        return isReadOnlyServiceTransaction(TransactionSynchronizationManager.isCurrentTransactionReadOnly(),
+                TransactionSynchronizationManager.getCurrentTransactionName());
+    }
+
+    static boolean isReadOnlyServiceTransaction(boolean readOnly, String transactionName) {
+        return readOnly && null != transactionName && transactionName.startsWith(SERVICE_PACKAGE);
+    }
+
+    /**
+     * @return false mientras la replica esta descartada tras un fallo de conexion
+     */
+    public boolean isReplicaAvailable() {
+        return System.currentTimeMillis() >= replicaDownUntil;
+    }
+
+    private void replicaDown(Exception e) {
+        fallbacks.increment();
+        if (isReplicaAvailable()){
+            logger.warn("Read replica unavailable, reading from the primary for the next {} ms: {}",
+                    retryIntervalMillis, e.getMessage());
+        }
+        replicaDownUntil = System.currentTimeMillis() + retryIntervalMillis;
+    }
+}
@@ -0,0 +1,40 @@
+package jocDeDaus.configuration;
+
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Clase de la capa de Configuration de Spring
+ *
+ * JpaTransactionManager para lecturas desde la replica (ReadWriteRoutingDataSource): en las transacciones
+ * que se enrutan a la replica, las entidades y resultados leidos no se guardan en la cache de segundo nivel
+ * ni en la cache de consultas. Una fila atrasada de la replica, guardada despues de invalidarse la cache
+ * por una escritura, seguiria sirviendose hasta la siguiente escritura de su tabla. La cache se sigue
+ * consultando
+ *
+ */
+
+public class ReplicaAwareJpaTransactionManager extends JpaTransactionManager {
+
+    public ReplicaAwareJpaTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+
+        if (ReadWriteRoutingDataSource.isReadOnlyServiceTransaction(definition.isReadOnly(), definition.getName())){
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+            if (null != holder){
+                holder.getEntityManager().setProperty("javax.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+            }
+        }
+    }
+}
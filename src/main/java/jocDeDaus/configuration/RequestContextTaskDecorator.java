@@ -0,0 +1,61 @@
+package jocDeDaus.configuration;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clase de la capa de Configuration de Spring
+ *
+ * Decorador de las tareas del ejecutor de los controladores (controllerExecutor).
+ *
+ * Propaga al hilo del ejecutor la peticion HTTP en curso (RequestContextHolder), necesaria para construir
+ * los enlaces HATEOAS, y el contexto de seguridad (SecurityContextHolder) del hilo de Tomcat que envia la
+ * tarea. Al terminar la tarea, el hilo del ejecutor queda limpio.
+ *
+ * Mide ademas el tiempo que cada tarea espera en la cola del ejecutor (jocdedaus.async.queue.wait)
+ *
+ */
+
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    private final Timer queueWait;
+
+    public RequestContextTaskDecorator(Timer queueWait) {
+        this.queueWait = queueWait;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        long submitted = System.nanoTime();
+
+        return () -> {
+            queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+
+            // el hilo de Tomcat marca sus RequestAttributes como completados al liberar la peticion:
+            // el hilo del ejecutor trabaja con unos propios sobre la misma peticion, que sigue abierta
+            ServletRequestAttributes workerAttributes = requestAttributes instanceof ServletRequestAttributes
+                    ? new ServletRequestAttributes(((ServletRequestAttributes) requestAttributes).getRequest())
+                    : null;
+            RequestContextHolder.setRequestAttributes(workerAttributes);
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                runnable.run();
+            } finally {
+                if (null != workerAttributes){
+                    workerAttributes.requestCompleted();
+                }
+                RequestContextHolder.resetRequestAttributes();
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+}
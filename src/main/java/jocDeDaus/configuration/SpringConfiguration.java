@@ -1,5 +1,15 @@
 package jocDeDaus.configuration;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jocDeDaus.util.IDiceEngine;
+import jocDeDaus.util.SeededDiceEngine;
+import jocDeDaus.util.ThreadLocalDiceEngine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
@@ -7,8 +17,11 @@ import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.ThreadPoolExecutor;
+
 /**
  * Clase de la capa de Configuration de Spring
  *
@@ -103,4 +116,112 @@ public class SpringConfiguration {
         return new RestTemplate(clientHttpRequestFactory);
     }
 
+    /**
+     * Ejecutor de los endpoints asincronos de tiradas y ranking, y de las respuestas en streaming.
+     *
+     * Separado del pool de hilos de Tomcat: un hilo de Tomcat solo recibe la peticion y la entrega al ejecutor,
+     * de modo que las consultas lentas no retienen hilos de Tomcat. El ejecutor esta acotado (numero de hilos
+     * y capacidad de la cola): cuando esta lleno, la tarea se rechaza con TaskRejectedException y la peticion
+     * recibe un 503 en lugar de esperar indefinidamente.
+     *
+     * Publica las metricas executor.* de Micrometer (hilos activos, tamano del pool, tareas en cola y
+     * completadas) con la etiqueta name=controllerExecutor, jocdedaus.async.rejected y jocdedaus.async.queue.wait
+     *
+     * @param coreSize, hilos que se mantienen aunque esten inactivos
+     * @param maxSize, hilos como maximo, creados solo cuando la cola esta llena
+     * @param queueCapacity, tareas en espera como maximo
+     * @param keepAliveSeconds, tiempo de inactividad tras el cual se liberan los hilos por encima de coreSize
+     * @param meterRegistry, registro de metricas
+     * @return instancia de tipo ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor controllerExecutor(@Value("${jocdedaus.async.core-size:8}") int coreSize,
+                                                     @Value("${jocdedaus.async.max-size:32}") int maxSize,
+                                                     @Value("${jocdedaus.async.queue-capacity:200}") int queueCapacity,
+                                                     @Value("${jocdedaus.async.keep-alive-seconds:60}") int keepAliveSeconds,
+                                                     MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("jocdedaus.async.rejected")
+                .description("Tasks rejected by the controller executor")
+                .register(meterRegistry);
+        Timer queueWait = Timer.builder("jocdedaus.async.queue.wait")
+                .description("Time spent by tasks in the controller executor queue")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("controller-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(keepAliveSeconds);
+        executor.setTaskDecorator(new RequestContextTaskDecorator(queueWait));
+        executor.setRejectedExecutionHandler((runnable, threadPoolExecutor) -> {
+            rejected.increment();
+            new ThreadPoolExecutor.AbortPolicy().rejectedExecution(runnable, threadPoolExecutor);
+        });
+        return executor;
+    }
+
+    /**
+     * Metricas executor.* del ejecutor de los controladores, registradas una vez inicializado su pool de hilos
+     *
+     * @param controllerExecutor, ejecutor de los controladores
+     * @return instancia de tipo MeterBinder
+     */
+    @Bean
+    public MeterBinder controllerExecutorMetrics(ThreadPoolTaskExecutor controllerExecutor) {
+        return registry -> new ExecutorServiceMetrics(controllerExecutor.getThreadPoolExecutor(),
+                "controllerExecutor", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * Ejecutor de los borrados en segundo plano del historial de tiradas de un jugador (IPurgeService).
+     *
+     * Separado del ejecutor de los controladores: un borrado puede durar minutos y no debe ocupar los hilos
+     * que atienden peticiones. Con pocos hilos, los borrados simultaneos no compiten entre si por la base
+     * de datos; cuando la cola esta llena, la tarea se rechaza y la peticion recibe un 503.
+     *
+     * Publica las metricas executor.* de Micrometer con la etiqueta name=purgeExecutor
+     *
+     * @param threads, hilos del ejecutor
+     * @param queueCapacity, borrados en espera como maximo
+     * @return instancia de tipo ThreadPoolTaskExecutor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor purgeExecutor(@Value("${jocdedaus.purge.threads:2}") int threads,
+                                                @Value("${jocdedaus.purge.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("purge-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        return executor;
+    }
+
+    /**
+     * Metricas executor.* del ejecutor de los borrados en segundo plano
+     *
+     * @param purgeExecutor, ejecutor de los borrados
+     * @return instancia de tipo MeterBinder
+     */
+    @Bean
+    public MeterBinder purgeExecutorMetrics(ThreadPoolTaskExecutor purgeExecutor) {
+        return registry -> new ExecutorServiceMetrics(purgeExecutor.getThreadPoolExecutor(),
+                "purgeExecutor", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * Generador de tiradas de dados utilizado por la capa de Utilidades.
+     *
+     * Si se define la propiedad jocdedaus.dice.seed se utiliza un generador con semilla fija, que
+     * reproduce siempre la misma secuencia de tiradas (auditorias y pruebas); en caso contrario se
+     * utiliza un generador por hilo, sin contencion entre peticiones
+     *
+     * @param seed, semilla del generador, opcional
+     * @return instancia de tipo IDiceEngine
+     */
+    @Bean
+    public IDiceEngine getDiceEngine(@Value("${jocdedaus.dice.seed:#{null}}") Long seed) {
+        return null == seed ? new ThreadLocalDiceEngine() : new SeededDiceEngine(seed);
+    }
+
 }
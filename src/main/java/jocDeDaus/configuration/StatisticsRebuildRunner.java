@@ -0,0 +1,57 @@
+package jocDeDaus.configuration;
+
+import jocDeDaus.service.IPlayerStatisticsService;
+import jocDeDaus.service.IRankingService;
+import jocDeDaus.service.IRankingSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Clase de la capa de Configuration de Spring
+ *
+ * Recalcula los contadores TOTAL_ROLLS y TOTAL_WINS de todos los jugadores a partir de la tabla CRAPSROLL
+ * cuando la aplicacion se arranca con la opcion --rebuild-statistics, por ejemplo tras cargar tiradas
+ * directamente en la base de datos. Despues recarga el ranking en memoria y su foto, y la aplicacion sigue
+ * atendiendo peticiones con normalidad
+ *
+ * Anotaciones:
+ * @Component
+ * ApplicationRunner que Spring Boot ejecuta una vez arrancado el contexto, con los argumentos de la linea
+ * de comandos
+ *
+ */
+
+@Component
+public class StatisticsRebuildRunner implements ApplicationRunner {
+
+    private static final String REBUILD_STATISTICS = "rebuild-statistics";
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsRebuildRunner.class);
+
+    @Autowired
+    IPlayerStatisticsService iPlayerStatisticsService;
+
+    @Autowired
+    IRankingService iRankingService;
+
+    @Autowired
+    IRankingSnapshotService iRankingSnapshotService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(REBUILD_STATISTICS)){
+            return;
+        }
+
+        long start = System.nanoTime();
+        long players = iPlayerStatisticsService.rebuildStatistics();
+        iRankingService.reloadRanking();
+        iRankingSnapshotService.refresh();
+
+        logger.info("Rebuilt roll statistics of {} players in {} ms", players, (System.nanoTime() - start) / 1_000_000);
+    }
+}
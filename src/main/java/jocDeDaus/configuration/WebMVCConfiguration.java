@@ -1,11 +1,13 @@
 package jocDeDaus.configuration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -44,6 +46,12 @@ import java.util.TimeZone;
 @EnableWebMvc
 public class WebMVCConfiguration implements WebMvcConfigurer {
 
+    @Autowired
+    ThreadPoolTaskExecutor controllerExecutor;
+
+    @Value("${jocdedaus.async.request-timeout:30000}")
+    long asyncRequestTimeout;
+
     /**
      * Crea un controlador de recursos proporcionando los patrones de ruta de URL para lo cual se
      * debe invocar al controlador para que sirva recursos estáticos (por ejemplo, "/**").
@@ -66,6 +74,19 @@ public class WebMVCConfiguration implements WebMvcConfigurer {
 
     }
 
+    /**
+     * Configura el procesamiento asincrono de peticiones: las respuestas en streaming (StreamingResponseBody)
+     * se escriben con el ejecutor de los controladores, en lugar de crear un hilo nuevo por respuesta.
+     * Una peticion asincrona que no termina en asyncRequestTimeout milisegundos recibe un 503
+     *
+     * @param configurer, instancia de tipo AsyncSupportConfigurer
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(controllerExecutor);
+        configurer.setDefaultTimeout(asyncRequestTimeout);
+    }
+
     /**
      * Proporciona funcionalidad para leer y escribir JSON, ya sea hacia y desde POJOs basicos,
      * o hacia y desde un modelo de arbol JSON de proposito general (JsonNode), asi como funcionalidad
@@ -87,17 +108,4 @@ public class WebMVCConfiguration implements WebMvcConfigurer {
         return mapper;
     }
 
-    /**
-     * Realiza el mapeo de objetos, mantiene la configuracion y almacena TypeMaps, que
-     * encapsulan la configuración de mapeo para un par de tipos origen y destino
-     *
-     * @return instancia de tipo ModelMapper, para el mapero de objetos de tipo fuente y destino
-     */
-    @Bean
-    public ModelMapper getModelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
-        return modelMapper;
-    }
-
 }
@@ -1,35 +1,52 @@
 package jocDeDaus.controller;
 
 import jocDeDaus.dto.CrapsRollDto;
+import jocDeDaus.dto.CrapsRollSummaryDto;
 import jocDeDaus.dto.PlayerDto;
+import jocDeDaus.dto.PurgeDto;
 import jocDeDaus.dto.RankingDto;
 import jocDeDaus.entity.CrapsRoll;
+import jocDeDaus.entity.PlayerStats;
 import jocDeDaus.entity.Ranking;
+import jocDeDaus.service.ICrapsRollGroupCommitService;
 import jocDeDaus.service.ICrapsRollService;
 import jocDeDaus.service.IGameService;
 import jocDeDaus.service.IPlayerService;
+import jocDeDaus.service.IPurgeService;
+import jocDeDaus.service.IRankingService;
+import jocDeDaus.service.IRankingSnapshotService;
+import jocDeDaus.service.IRollJournalService;
 import jocDeDaus.util.assembler.CrapsRollModelAssembler;
 import jocDeDaus.util.IUtilities;
 import jocDeDaus.util.assembler.RankingModelAssembler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Links;
+import org.springframework.hateoas.MediaTypes;
 import org.springframework.hateoas.mediatype.problem.Problem;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jocDeDaus.controller.exception.InvalidBulkCountException;
 import jocDeDaus.controller.exception.PlayerNotFoundException;
 import jocDeDaus.entity.Player;
 import jocDeDaus.entity.Game;
+import jocDeDaus.util.assembler.PlayerControllerLinks;
 import jocDeDaus.util.assembler.PlayerModelAssembler;
 
 import javax.validation.Valid;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 
 /**
@@ -67,13 +84,28 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RestController
 public class PlayerController{
 
+    private static final int DEFAULT_PAGE_LIMIT = 20;
+    private static final int MAX_PAGE_LIMIT = 100;
+    private static final int MAX_BULK_CRAPS_ROLLS = 10000;
+    private static final int DEFAULT_RANKING_LIMIT = 10;
+    private static final int MAX_RANKING_LIMIT = 100;
+    private static final int DEFAULT_GAMES_LIMIT = 100;
+    private static final int MAX_GAMES_LIMIT = 1000;
+
     private final IUtilities iUtilities;
     private final IPlayerService iPlayerService;
     private final ICrapsRollService iCrapsRollService;
     private final IGameService iGameService;
+    private final IRankingService iRankingService;
+    private final IRankingSnapshotService iRankingSnapshotService;
+    private final IPurgeService iPurgeService;
+    private final Optional<IRollJournalService> iRollJournalService;
+    private final Optional<ICrapsRollGroupCommitService> iCrapsRollGroupCommitService;
     private final PlayerModelAssembler playerModelAssembler;
     private final CrapsRollModelAssembler crapsRollModelAssembler;
     private final RankingModelAssembler rankingModelAssembler;
+    private final PlayerControllerLinks playerControllerLinks;
+    private final Executor controllerExecutor;
 
     /**
      * Constructor de la clase
@@ -82,25 +114,46 @@ public class PlayerController{
      * @param iPlayerService
      * @param iCrapsRollService
      * @param iGameService
+     * @param iRankingService
+     * @param iRankingSnapshotService
+     * @param iPurgeService
+     * @param iRollJournalService diario de tiradas, presente con jocdedaus.journal.enabled=true
+     * @param iCrapsRollGroupCommitService escritura agrupada de tiradas, presente con jocdedaus.group-commit.enabled=true
      * @param playerModelAssembler
      * @param crapsRollModelAssembler
      * @param rankingModelAssembler
+     * @param playerControllerLinks
+     * @param controllerExecutor
      */
     @Autowired
     public PlayerController(IUtilities iUtilities, IPlayerService iPlayerService,
                             ICrapsRollService iCrapsRollService,
                             IGameService iGameService,
+                            IRankingService iRankingService,
+                            IRankingSnapshotService iRankingSnapshotService,
+                            IPurgeService iPurgeService,
+                            Optional<IRollJournalService> iRollJournalService,
+                            Optional<ICrapsRollGroupCommitService> iCrapsRollGroupCommitService,
                             PlayerModelAssembler playerModelAssembler,
                             CrapsRollModelAssembler crapsRollModelAssembler,
-                            RankingModelAssembler rankingModelAssembler) {
+                            RankingModelAssembler rankingModelAssembler,
+                            PlayerControllerLinks playerControllerLinks,
+                            ThreadPoolTaskExecutor controllerExecutor) {
 
         this.iUtilities = iUtilities;
         this.iPlayerService = iPlayerService;
         this.iCrapsRollService = iCrapsRollService;
         this.iGameService = iGameService;
+        this.iRankingService = iRankingService;
+        this.iRankingSnapshotService = iRankingSnapshotService;
+        this.iPurgeService = iPurgeService;
+        this.iRollJournalService = iRollJournalService;
+        this.iCrapsRollGroupCommitService = iCrapsRollGroupCommitService;
         this.playerModelAssembler = playerModelAssembler;
         this.crapsRollModelAssembler = crapsRollModelAssembler;
         this.rankingModelAssembler = rankingModelAssembler;
+        this.playerControllerLinks = playerControllerLinks;
+        this.controllerExecutor = controllerExecutor;
     }
 
     /**
@@ -113,25 +166,26 @@ public class PlayerController{
      */
     @PostMapping("/players")
     public ResponseEntity<?> newPlayer(@Valid @RequestBody Player newPlayer) {
-        List<Player> players = iPlayerService.listPlayers();
-        Optional<Player> uniqueNickName = iUtilities.checkUniqueNickName(newPlayer, players);
+        Optional<Long> uniqueNickName = iPlayerService.findNickNameConflict(newPlayer.getName());
 
         if (!uniqueNickName.isPresent()){
-            Player player = iPlayerService.savePlayer(newPlayer);
+            Player player;
+            try {
+                player = iPlayerService.savePlayer(newPlayer);
+            } catch (DataIntegrityViolationException e) {
+                // indice unico de la base de datos: otro jugador ha registrado el mismo nombre a la vez
+                return nickNameInUse();
+            }
 
-            Double successRanking = iUtilities.computePlayerSuccessRanking(player.getCrapsRolls());
-            player.setRanking(successRanking);
+            // un jugador nuevo aun no tiene tiradas
+            player.setRanking(iUtilities.computeSuccessRanking(0, 0));
 
             EntityModel<PlayerDto> entityModel = playerModelAssembler.toModel(player);
             return ResponseEntity
                     .created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
                     .body(entityModel);
         }
-        return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(Problem.create()
-                .withTitle("Please select another Nick Name.")
-                .withDetail("There is another player with that Nick Name."));
+        return nickNameInUse();
     }
 
     /**
@@ -145,38 +199,30 @@ public class PlayerController{
      */
     @PutMapping("/players/{id}")
     public ResponseEntity<?> updatePlayer(@Valid @RequestBody Player newPlayer, @PathVariable(name="id") Long idPlayer) {
-        List<Player> players = iPlayerService.listPlayers();
+        Optional<Long> uniqueNickName = iPlayerService.findNickNameConflict(newPlayer.getName());
 
-        Optional<Player> uniqueNickName = iUtilities.checkUniqueNickName(newPlayer, players);
         if (!uniqueNickName.isPresent()){
-            Player updatedPlayer = iPlayerService.findPlayerById(idPlayer)
-                    .map(player -> {
-                        player.setName(newPlayer.getName().trim());
-
-                        Double successRanking = iUtilities.computePlayerSuccessRanking(player.getCrapsRolls());
-                        player.setRanking(successRanking);
-
-                        return iPlayerService.savePlayer(player);
-                    })
+            Player updatedPlayer;
+            try {
+                updatedPlayer = iPlayerService.renamePlayer(idPlayer, newPlayer.getName().trim())
                     .orElseGet(() -> {
                         newPlayer.setIdPlayer(idPlayer);
-
-                        Double successRanking = iUtilities.computePlayerSuccessRanking(newPlayer.getCrapsRolls());
-                        newPlayer.setRanking(successRanking);
-
                         return iPlayerService.savePlayer(newPlayer);
                     });
+            } catch (DataIntegrityViolationException e) {
+                // indice unico de la base de datos: otro jugador ha registrado el mismo nombre a la vez
+                return nickNameInUse();
+            }
+
+            // el ranking se calcula con una consulta agregada, sin cargar la coleccion de tiradas del jugador
+            updatedPlayer.setRanking(iPlayerService.findPlayerSuccessRanking(updatedPlayer.getIdPlayer()));
 
             EntityModel<PlayerDto> playerDto = playerModelAssembler.toModel(updatedPlayer);
             return ResponseEntity
                     .created(playerDto.getRequiredLink(IanaLinkRelations.SELF).toUri())
                     .body(playerDto);
         }
-        return ResponseEntity
-                .status(HttpStatus.BAD_REQUEST)
-                .body(Problem.create()
-                        .withTitle("Please select another Nick Name.")
-                        .withDetail("There is another player with that Nick Name."));
+        return nickNameInUse();
     }
 
     /**
@@ -216,25 +262,27 @@ public class PlayerController{
     }
 
     /**
-     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8081/players
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8081/players?limit={limit}&after={after}
+     *
+     * Listado paginado de jugadores junto con su porcentaje medio de exito.
      *
-     * Listado de jugadores junto con su porcentaje medio de exito
+     * Paginacion por clave (keyset): cada pagina devuelve como maximo limit jugadores con identificador
+     * mayor que after, ordenados por identificador. Si la pagina esta completa se agrega un enlace next
+     * a la pagina siguiente
      *
+     * @param limit numero maximo de jugadores de la pagina, entre 1 y MAX_PAGE_LIMIT
+     * @param after identificador del ultimo jugador de la pagina anterior
      * @return objeto generico de tipo ResponseEntity con enlaces agregados
      */
     @GetMapping("/players")
-    public ResponseEntity<?> allPlayers(){
-        List<Player> players = iPlayerService.listPlayers();
+    public ResponseEntity<?> allPlayers(@RequestParam(name="limit", required=false) Integer limit,
+                                        @RequestParam(name="after", required=false) Long after){
+        int pageLimit = null == limit ? DEFAULT_PAGE_LIMIT : Math.max(1, Math.min(limit, MAX_PAGE_LIMIT));
 
-        players.forEach(p -> p.setRanking(iUtilities.computePlayerSuccessRanking(p.getCrapsRolls())));
-
-        List<EntityModel<PlayerDto>> playersDto = players.stream()
-                .map(playerModelAssembler::toModel)
-                .collect(Collectors.toList());
+        List<Player> players = iPlayerService.listPlayersPage(after, pageLimit);
 
         CollectionModel<EntityModel<PlayerDto>> collectionModel =
-                CollectionModel.of(playersDto,
-                        linkTo(methodOn(PlayerController.class).allPlayers()).withSelfRel());
+                playerModelAssembler.toCollectionModel(players, pageLimit, after);
 
         return ResponseEntity
                 .created(collectionModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
@@ -246,31 +294,128 @@ public class PlayerController{
      *
      * Jugador realiza tirada de dados
      *
+     * Con el diario de tiradas activo (IRollJournalService), la respuesta no espera a la base de datos: la
+     * tirada aparece en los listados y el ranking tras el siguiente volcado del diario. Con la escritura
+     * agrupada activa (ICrapsRollGroupCommitService), la tirada se guarda en el lote del hilo escritor y la
+     * respuesta se envia cuando ese lote se ha confirmado
+     *
      * @param idPlayer
-     * @return objeto generico de tipo ResponseEntity con enlaces agregados
+     * @return CompletableFuture que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
      */
     @PostMapping("/players/{id}/games")
-    public ResponseEntity<?> newCrapsRollPlayer(@PathVariable(name="id") Long idPlayer) {
-        Player player = iPlayerService.findPlayerById(idPlayer)
-                .orElseThrow(() -> new PlayerNotFoundException(idPlayer));
+    public CompletableFuture<ResponseEntity<?>> newCrapsRollPlayer(@PathVariable(name="id") Long idPlayer) {
+        return CompletableFuture.supplyAsync(() -> {
+            Player player = iPlayerService.findPlayerById(idPlayer)
+                    .orElseThrow(() -> new PlayerNotFoundException(idPlayer));
+
+            CrapsRoll newCrapsRoll = iUtilities.generateNewCrapsRoll(idPlayer);
+
+            // los enlaces se resuelven en el ejecutor del controlador, con los atributos de la peticion que
+            // copia RequestContextTaskDecorator; la respuesta tambien se construye en ese ejecutor y no en el
+            // hilo escritor de la escritura agrupada, que no tiene acceso a la peticion
+            Links links = crapsRollModelAssembler.toLinks(idPlayer);
+
+            return saveNewCrapsRoll(player, newCrapsRoll).<ResponseEntity<?>>thenApplyAsync(crapsRollPlayer -> {
+                EntityModel<CrapsRollDto> entityModel = crapsRollModelAssembler.toModel(crapsRollPlayer, links);
+
+                return ResponseEntity
+                        .created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                        .body(entityModel);
+            }, controllerExecutor);
+        }, controllerExecutor).thenCompose(response -> response);
+    }
 
-        CrapsRoll newCrapsRoll = iUtilities.generateNewCrapsRoll(idPlayer);
+    /**
+     * Mapeo de una peticion HTTP POST, a la URL http://localhost:8081/players/{id}/games?count={count}
+     *
+     * Jugador realiza count tiradas de dados en una sola peticion. Las tiradas y sus partidas se insertan
+     * por lotes JDBC en una unica transaccion.
+     *
+     * Devuelve un resumen con el numero de tiradas, las tiradas ganadas y el nuevo porcentaje de exito
+     * del jugador
+     *
+     * @param idPlayer
+     * @param count numero de tiradas, entre 1 y MAX_BULK_CRAPS_ROLLS
+     * @return CompletableFuture que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @PostMapping(value = "/players/{id}/games", params = {"count", "stream!=true"})
+    public CompletableFuture<ResponseEntity<?>> newCrapsRollsPlayer(@PathVariable(name="id") Long idPlayer,
+                                                                   @RequestParam(name="count") Integer count) {
+        return async(() -> {
+            checkBulkCount(count);
 
-        Game game = iUtilities.generateNewGame(player);
+            List<CrapsRoll> crapsRollsPlayer = saveNewCrapsRolls(idPlayer, count);
+            CrapsRollSummaryDto summary = toSummary(idPlayer, crapsRollsPlayer);
 
-        game.setIdCrapsRoll(iGameService.countAll()+1);
+            EntityModel<CrapsRollSummaryDto> entityModel = crapsRollModelAssembler.toSummaryModel(summary, count);
 
-        game.setGameResult(newCrapsRoll.getRollResult().equals(7)?true:false);
+            return ResponseEntity
+                    .created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                    .body(entityModel);
+        });
+    }
 
-        newCrapsRoll.setGame(game);
+    /**
+     * Mapeo de una peticion HTTP POST, a la URL http://localhost:8081/players/{id}/games?count={count}&stream=true
+     *
+     * Igual que newCrapsRollsPlayer, pero la respuesta incluye ademas todas las tiradas realizadas,
+     * escritas de forma incremental
+     *
+     * @param idPlayer
+     * @param count numero de tiradas, entre 1 y MAX_BULK_CRAPS_ROLLS
+     * @return CompletableFuture que se completa con un objeto de tipo ResponseEntity con el cuerpo de la respuesta
+     * escrito en streaming
+     */
+    @PostMapping(value = "/players/{id}/games", params = {"count", "stream=true"})
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> streamNewCrapsRollsPlayer(@PathVariable(name="id") Long idPlayer,
+                                                                                              @RequestParam(name="count") Integer count) {
+        // las tiradas se insertan en el ejecutor de los controladores, no en el hilo de Tomcat. Sin async(): Spring MVC
+        // solo reconoce la respuesta en streaming si el tipo declarado es ResponseEntity<StreamingResponseBody>
+        return CompletableFuture.supplyAsync(() -> {
+            checkBulkCount(count);
+
+            List<CrapsRoll> crapsRollsPlayer = saveNewCrapsRolls(idPlayer, count);
+            CrapsRollSummaryDto summary = toSummary(idPlayer, crapsRollsPlayer);
+
+            StreamingResponseBody crapsRollsBody =
+                    crapsRollModelAssembler.toStreamingSummaryModel(summary, count, crapsRollsPlayer);
+
+            return ResponseEntity
+                    .created(playerControllerLinks.allCrapsRolls(idPlayer, IanaLinkRelations.SELF).toUri())
+                    .contentType(MediaTypes.HAL_JSON)
+                    .body(crapsRollsBody);
+        }, controllerExecutor);
+    }
+
+    private List<CrapsRoll> saveNewCrapsRolls(Long idPlayer, int count) {
+        Player player = iPlayerService.findPlayerById(idPlayer)
+                .orElseThrow(() -> new PlayerNotFoundException(idPlayer));
 
-        CrapsRoll crapsRollPlayer= iCrapsRollService.saveCrapsRoll(newCrapsRoll);
+        return iCrapsRollService.saveCrapsRolls(iUtilities.generateNewCrapsRolls(player, count));
+    }
 
-        EntityModel<CrapsRollDto> entityModel = crapsRollModelAssembler.toModel(crapsRollPlayer);
+    private CrapsRollSummaryDto toSummary(Long idPlayer, List<CrapsRoll> crapsRolls) {
+        CrapsRollSummaryDto summary = new CrapsRollSummaryDto();
+        summary.setIdPlayer(idPlayer);
+        summary.setTotal((long) crapsRolls.size());
+        summary.setWins(iUtilities.getWinsCrapsRolls(crapsRolls));
+        summary.setRanking(iRankingService.findPlayerStats(idPlayer).map(PlayerStats::getRanking).orElse(0.0));
+        return summary;
+    }
 
+    private ResponseEntity<?> nickNameInUse() {
         return ResponseEntity
-                .created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
-                .body(entityModel);
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Problem.create()
+                        .withTitle("Please select another Nick Name.")
+                        .withDetail("There is another player with that Nick Name."));
+    }
+
+    // fuera de rango, RestExceptionHandler responde 400 con el mismo Problem en las dos variantes del endpoint
+    private void checkBulkCount(Integer count) {
+        if (null == count || count < 1 || count > MAX_BULK_CRAPS_ROLLS){
+            throw new InvalidBulkCountException(MAX_BULK_CRAPS_ROLLS);
+        }
     }
 
     /**
@@ -279,30 +424,32 @@ public class PlayerController{
      * Listado de tiradas de un jugador
      *
      * @param idPlayer
-     * @return objeto generico de tipo ResponseEntity con enlaces agregados
+     * @return CompletableFuture que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
      */
     @GetMapping("/players/{id}/games")
-    public ResponseEntity<?> allCrapsRollsByPlayer(@PathVariable(name="id") Long idPlayer) {
-        Player player = iPlayerService.findPlayerById(idPlayer)
-                .orElseThrow(() -> new PlayerNotFoundException(idPlayer));
+    public CompletableFuture<ResponseEntity<?>> allCrapsRollsByPlayer(@PathVariable(name="id") Long idPlayer) {
+        return async(() -> {
+            Player player = iPlayerService.findPlayerById(idPlayer)
+                    .orElseThrow(() -> new PlayerNotFoundException(idPlayer));
 
-        List<CrapsRoll> crapsRollsPlayer= iCrapsRollService.listCrapsRollsByPlayer(player);
+            List<CrapsRoll> crapsRollsPlayer= iCrapsRollService.listCrapsRollsByPlayer(player);
 
-        if (!crapsRollsPlayer.isEmpty()){
-            List<EntityModel<CrapsRollDto>> crapsRollsByPlayerDto = crapsRollsPlayer.stream()
-                    .map(crapsRollModelAssembler::toModel)
-                    .collect(Collectors.toList());
+            if (!crapsRollsPlayer.isEmpty()){
+                List<EntityModel<CrapsRollDto>> crapsRollsByPlayerDto = crapsRollsPlayer.stream()
+                        .map(crapsRollModelAssembler::toModel)
+                        .collect(Collectors.toList());
 
-            CollectionModel<EntityModel<CrapsRollDto>> collectionModel =
-                    CollectionModel.of(crapsRollsByPlayerDto,
-                            linkTo(methodOn(PlayerController.class).allCrapsRollsByPlayer(idPlayer)).withSelfRel());
+                CollectionModel<EntityModel<CrapsRollDto>> collectionModel =
+                        CollectionModel.of(crapsRollsByPlayerDto,
+                                playerControllerLinks.allCrapsRolls(idPlayer, IanaLinkRelations.SELF));
 
-            return ResponseEntity
-                    .created(collectionModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
-                    .body(collectionModel);
-        }
+                return ResponseEntity
+                        .created(collectionModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                        .body(collectionModel);
+            }
 
-        return ResponseEntity.noContent().build();
+            return ResponseEntity.noContent().build();
+        });
     }
 
     /**
@@ -311,40 +458,123 @@ public class PlayerController{
      * Elimina tiradas de un jugador
      *
      * @param idPlayer
+     * @return CompletableFuture que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @DeleteMapping(value = "/players/{id}/games", params = "async!=true")
+    public CompletableFuture<ResponseEntity<?>> deleteCrapsRollsByPlayer(@PathVariable(name="id") Long idPlayer) {
+        return async(() -> {
+            Player player = iPlayerService.findPlayerById(idPlayer)
+                    .orElseThrow(() -> new PlayerNotFoundException(idPlayer));
+
+            iCrapsRollService.deleteAllCrapsRollsByPlayer(player.getIdPlayer(), deleted -> { });
+            return ResponseEntity.noContent().build();
+        });
+    }
+
+    /**
+     * Mapeo de una peticion HTTP DELETE, a la URL http://localhost:8081/players/{id}/games?async=true
+     *
+     * Elimina las tiradas de un jugador en segundo plano. Responde 202 Accepted, con la URL del progreso
+     * del borrado en la cabecera Location; si ya hay un borrado en curso para el jugador, devuelve ese
+     *
+     * @param idPlayer
      * @return objeto generico de tipo ResponseEntity con enlaces agregados
      */
-    @DeleteMapping("/players/{id}/games")
-    public ResponseEntity<?> deleteCrapsRollsByPlayer(@PathVariable(name="id") Long idPlayer) {
+    @DeleteMapping(value = "/players/{id}/games", params = "async=true")
+    public ResponseEntity<?> purgeCrapsRollsByPlayer(@PathVariable(name="id") Long idPlayer) {
         Player player = iPlayerService.findPlayerById(idPlayer)
                 .orElseThrow(() -> new PlayerNotFoundException(idPlayer));
 
-        List<CrapsRoll> crapsRollsByPlayer = iCrapsRollService.listCrapsRollsByPlayer(player);
-
-        iCrapsRollService.deleteCrapsRollsByPlayer(crapsRollsByPlayer);
-        return ResponseEntity.noContent().build();
+        EntityModel<PurgeDto> purgeDto =
+                crapsRollModelAssembler.toPurgeModel(iPurgeService.startCrapsRollsPurge(player.getIdPlayer()));
+        return ResponseEntity
+                .accepted()
+                .location(purgeDto.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .body(purgeDto);
     }
 
     /**
-     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8081/players/ranking
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8081/players/{id}/games/purge
      *
-     * Ranking medio, porcentaje medio de exito de todos los jugadores
+     * Progreso del ultimo borrado en segundo plano de las tiradas de un jugador; 404 si no hay ninguno
      *
+     * @param idPlayer
      * @return objeto generico de tipo ResponseEntity con enlaces agregados
      */
+    @GetMapping("/players/{id}/games/purge")
+    public ResponseEntity<?> crapsRollsPurge(@PathVariable(name="id") Long idPlayer) {
+        return iPurgeService.findCrapsRollsPurge(idPlayer)
+                .<ResponseEntity<?>>map(purge -> ResponseEntity.ok(crapsRollModelAssembler.toPurgeModel(purge)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL
+     * http://localhost:8081/players/ranking?limit={limit}&afterPlayer={afterPlayer}&afterGame={afterGame}
+     *
+     * Ranking medio, porcentaje medio de exito de todos los jugadores, con una pagina de las partidas
+     *
+     * El ranking medio sale de la foto del ranking, sin leer la tabla GAME. Las partidas se paginan por clave
+     * (keyset): cada pagina devuelve como maximo limit partidas posteriores a la partida (afterPlayer,
+     * afterGame), ordenadas por jugador y partida, y si esta completa se agrega un enlace next. El listado
+     * completo, sin cargarlo en memoria, se obtiene con ?stream=true
+     *
+     * El ranking medio se calcula con los contadores de tiradas de cada jugador y la lista de partidas se lee
+     * de la tabla GAME: tras un DELETE /players/{id}/games los contadores del jugador vuelven a cero, pero sus
+     * partidas se conservan (con idCrapsRoll a null), de modo que la lista puede incluir partidas que ya no
+     * cuentan en la media
+     *
+     * @param limit numero maximo de partidas de la pagina, entre 1 y MAX_GAMES_LIMIT
+     * @param afterPlayer jugador de la ultima partida de la pagina anterior
+     * @param afterGame identificador de la ultima partida de la pagina anterior
+     * @return CompletableFuture que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
     @GetMapping("/players/ranking")
-    public ResponseEntity<?> averageSuccessRankingAllPlayers() {
-        List<Game> allGames = iGameService.allGames();
+    public CompletableFuture<ResponseEntity<?>> averageSuccessRankingAllPlayers(
+            @RequestParam(name="limit", required=false) Integer limit,
+            @RequestParam(name="afterPlayer", required=false) Long afterPlayer,
+            @RequestParam(name="afterGame", required=false) Long afterGame) {
+        return async(() -> {
+            int gamesLimit = null == limit ? DEFAULT_GAMES_LIMIT : Math.max(1, Math.min(limit, MAX_GAMES_LIMIT));
+
+            List<Game> games = iGameService.listGamesPage(afterPlayer, afterGame, gamesLimit);
+
+            Double averageRankingAllPlayers = iRankingSnapshotService.getSnapshot().getAverageRankingAllPlayers();
+            Ranking ranking = new Ranking();
+            ranking.setAverageRankingAllPlayers(averageRankingAllPlayers);
+            ranking.setGames(games);
+
+            EntityModel<RankingDto> rankingDto = rankingModelAssembler.toModel(ranking, gamesLimit, afterPlayer, afterGame);
+
+            return ResponseEntity
+                    .created(rankingDto.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                    .body(rankingDto);
+        });
+    }
 
-        Double averageRankingAllPlayers = iUtilities.computeAverageRankingAllPlayers(allGames);
-        Ranking ranking = new Ranking();
-        ranking.setAverageRankingAllPlayers(averageRankingAllPlayers);
-        ranking.setGames(allGames);
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8081/players/ranking?stream=true
+     *
+     * Ranking medio, porcentaje medio de exito de todos los jugadores, en modo streaming: las partidas
+     * se leen de la base de datos con un cursor, ordenadas por jugador, y se escriben en la respuesta a
+     * medida que se leen, de modo que la memoria utilizada no depende del numero de partidas.
+     *
+     * Como en la variante sin streaming, la media sale de los contadores de tiradas y las partidas de la tabla
+     * GAME, que conserva las partidas de las tiradas eliminadas
+     *
+     * @return objeto de tipo ResponseEntity con el cuerpo de la respuesta escrito en streaming
+     */
+    @GetMapping(value = "/players/ranking", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAverageSuccessRankingAllPlayers() {
+        Double averageRankingAllPlayers = iRankingSnapshotService.getSnapshot().getAverageRankingAllPlayers();
 
-        EntityModel<RankingDto> rankingDto = rankingModelAssembler.toModel(ranking);
+        StreamingResponseBody rankingBody =
+                rankingModelAssembler.toStreamingModel(averageRankingAllPlayers, iGameService::forEachGame);
 
         return ResponseEntity
-                .created(rankingDto.getRequiredLink(IanaLinkRelations.SELF).toUri())
-                .body(rankingDto);
+                .ok()
+                .contentType(MediaTypes.HAL_JSON)
+                .body(rankingBody);
     }
 
     /**
@@ -352,19 +582,23 @@ public class PlayerController{
      *
      * Jugador con peor porcentaje de exito
      *
-     * @return objeto generico de tipo ResponseEntity con enlaces agregados
+     * @return CompletableFuture que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
      */
     @GetMapping("/players/ranking/loser")
-    public ResponseEntity<?> playerLoser() {
-        List<Player> allPlayers = iPlayerService.listPlayers();
+    public CompletableFuture<ResponseEntity<?>> playerLoser() {
+        return async(() -> {
+            Optional<PlayerStats> playerLoser = iRankingSnapshotService.getSnapshot().getWorstPlayer();
 
-        Optional<Player> playerLoser = iUtilities.getWorstPlayer(allPlayers);
+            if (playerLoser.isPresent()){
+                EntityModel<PlayerDto> playerDto = playerModelAssembler.toModel(findRankedPlayer(playerLoser.get()));
 
-        EntityModel<PlayerDto> playerDto = playerModelAssembler.toModel(playerLoser.get());
+                return ResponseEntity
+                        .created(playerDto.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                        .body(playerDto);
+            }
 
-        return ResponseEntity
-                .created(playerDto.getRequiredLink(IanaLinkRelations.SELF).toUri())
-                .body(playerDto);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     /**
@@ -372,18 +606,135 @@ public class PlayerController{
      *
      * Jugador con mejor porcentaje de exito
      *
-     * @return objeto generico de tipo ResponseEntity con enlaces agregados
+     * @return CompletableFuture que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
      */
     @GetMapping("/players/ranking/winner")
-    public ResponseEntity<?> playerWinner() {
-        List<Player> allPlayers = iPlayerService.listPlayers();
+    public CompletableFuture<ResponseEntity<?>> playerWinner() {
+        return async(() -> {
+            Optional<PlayerStats> playerWinner = iRankingSnapshotService.getSnapshot().getBestPlayer();
+
+            if (playerWinner.isPresent()){
+                EntityModel<PlayerDto> playerDto = playerModelAssembler.toModel(findRankedPlayer(playerWinner.get()));
+
+                return ResponseEntity
+                        .created(playerDto.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                        .body(playerDto);
+            }
+
+            return ResponseEntity.noContent().build();
+        });
+    }
 
-        Optional<Player> playerWinner = iUtilities.getBestPlayer(allPlayers);
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8081/players/ranking/top?limit={limit}
+     *
+     * Listado de los jugadores con mejor porcentaje de exito, ordenado de mejor a peor
+     *
+     * @param limit numero maximo de jugadores, entre 1 y MAX_RANKING_LIMIT
+     * @return CompletableFuture que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players/ranking/top")
+    public CompletableFuture<ResponseEntity<?>> playersTop(@RequestParam(name="limit", required=false) Integer limit) {
+        return async(() -> {
+            List<PlayerStats> bestPlayers = iRankingSnapshotService.getSnapshot().getBestPlayers(rankingLimit(limit));
 
-        EntityModel<PlayerDto> playerDto = playerModelAssembler.toModel(playerWinner.get());
+            return rankedPlayers(bestPlayers, playerControllerLinks.top(limit, IanaLinkRelations.SELF));
+        });
+    }
+
+    /**
+     * Mapeo de una peticion HTTP GET, a la URL http://localhost:8081/players/ranking/bottom?limit={limit}
+     *
+     * Listado de los jugadores con peor porcentaje de exito, ordenado de peor a mejor
+     *
+     * @param limit numero maximo de jugadores, entre 1 y MAX_RANKING_LIMIT
+     * @return CompletableFuture que se completa con un objeto generico de tipo ResponseEntity con enlaces agregados
+     */
+    @GetMapping("/players/ranking/bottom")
+    public CompletableFuture<ResponseEntity<?>> playersBottom(@RequestParam(name="limit", required=false) Integer limit) {
+        return async(() -> {
+            List<PlayerStats> worstPlayers = iRankingSnapshotService.getSnapshot().getWorstPlayers(rankingLimit(limit));
+
+            return rankedPlayers(worstPlayers, playerControllerLinks.bottom(limit, IanaLinkRelations.SELF));
+        });
+    }
+
+    /**
+     * Mapeo de una peticion HTTP POST, a la URL http://localhost:8081/players/ranking/refresh
+     *
+     * Reconstruye en el momento la foto del ranking que leen los endpoints /players/ranking*, sin esperar
+     * a la siguiente reconstruccion programada
+     *
+     * @return objeto generico de tipo ResponseEntity sin contenido
+     */
+    @PostMapping("/players/ranking/refresh")
+    public ResponseEntity<?> refreshRanking() {
+        iRankingSnapshotService.refresh();
+
+        return ResponseEntity.noContent().build();
+    }
+
+    // diario de tiradas, escritura agrupada o una transaccion por tirada, en ese orden de preferencia
+    private CompletableFuture<CrapsRoll> saveNewCrapsRoll(Player player, CrapsRoll newCrapsRoll) {
+        if (iRollJournalService.isPresent()){
+            // la tirada y su partida se insertan despues, en el volcado del diario
+            return CompletableFuture.completedFuture(iRollJournalService.get().appendCrapsRoll(newCrapsRoll));
+        }
+
+        Game game = iUtilities.generateNewGame(player);
+
+        game.setGameResult(newCrapsRoll.getRollResult() == 7);
+
+        newCrapsRoll.setGame(game);
+
+        if (iCrapsRollGroupCommitService.isPresent()){
+            return iCrapsRollGroupCommitService.get().submitCrapsRoll(newCrapsRoll);
+        }
+        return CompletableFuture.completedFuture(iCrapsRollService.saveCrapsRoll(newCrapsRoll));
+    }
+
+    // la peticion se procesa en el ejecutor de los controladores, liberando el hilo de Tomcat
+    private CompletableFuture<ResponseEntity<?>> async(Supplier<ResponseEntity<?>> response) {
+        return CompletableFuture.supplyAsync(response, controllerExecutor);
+    }
+
+    private ResponseEntity<?> rankedPlayers(List<PlayerStats> rankedPlayers, Link selfLink) {
+        if (rankedPlayers.isEmpty()){
+            return ResponseEntity.noContent().build();
+        }
+
+        Map<Long, Double> rankingByPlayer = rankedPlayers.stream()
+                .collect(Collectors.toMap(PlayerStats::getIdPlayer, PlayerStats::getRanking));
+
+        List<Player> players = iPlayerService.listPlayersById(rankedPlayers.stream()
+                .map(PlayerStats::getIdPlayer)
+                .collect(Collectors.toList()));
+
+        players.forEach(p -> p.setRanking(rankingByPlayer.get(p.getIdPlayer())));
+
+        List<EntityModel<PlayerDto>> playersDto = players.stream()
+                .map(playerModelAssembler::toModel)
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<PlayerDto>> collectionModel = CollectionModel.of(playersDto, selfLink);
 
         return ResponseEntity
-                .created(playerDto.getRequiredLink(IanaLinkRelations.SELF).toUri())
-                .body(playerDto);
+                .created(collectionModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .body(collectionModel);
+    }
+
+    private Player findRankedPlayer(PlayerStats playerStats) {
+        Player player = iPlayerService.findPlayerById(playerStats.getIdPlayer())
+                .orElseThrow(() -> new PlayerNotFoundException(playerStats.getIdPlayer()));
+
+        player.setRanking(playerStats.getRanking());
+        return player;
+    }
+
+    private int rankingLimit(Integer limit) {
+        if (null == limit){
+            return DEFAULT_RANKING_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_RANKING_LIMIT));
     }
 }
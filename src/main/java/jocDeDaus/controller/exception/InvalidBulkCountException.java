@@ -0,0 +1,17 @@
+package jocDeDaus.controller.exception;
+
+/**
+ * Clase de la capa Controller, dentro del paquete Exception
+ *
+ * Extiende RuntimeException, de tipo unchecked.
+ *
+ * La exception es lanzada cuando el numero de tiradas de una peticion POST /players/{id}/games?count={count}
+ * esta fuera de rango. RestExceptionHandler responde con un 400 y el mismo Problem en todas las variantes
+ * del endpoint, tambien en la respuesta en streaming, cuyo tipo no admite otro cuerpo
+ */
+public class InvalidBulkCountException extends RuntimeException {
+
+    public InvalidBulkCountException(int maxCount) {
+        super("The number of craps rolls must be between 1 and " + maxCount + ".");
+    }
+}
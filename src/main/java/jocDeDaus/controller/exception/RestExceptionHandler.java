@@ -2,9 +2,12 @@ package jocDeDaus.controller.exception;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.hateoas.mediatype.problem.Problem;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
@@ -25,6 +28,10 @@ import java.util.stream.Collectors;
  *
  * Lanza una excepción cuando falla la validacion de un argumento anotado con @Valid
  *
+ * Responde 400 con un Problem cuando el numero de tiradas de una peticion esta fuera de rango
+ *
+ * Responde 503 cuando el ejecutor de los controladores esta lleno y rechaza la peticion
+ *
  */
 @ControllerAdvice
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
@@ -49,4 +56,25 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
         return new ResponseEntity<>(body, headers, status);
     }
+
+    // error handle for an out of range number of craps rolls
+    @ExceptionHandler(InvalidBulkCountException.class)
+    public ResponseEntity<Object> handleInvalidBulkCount(InvalidBulkCountException ex) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(Problem.create()
+                        .withTitle("Invalid number of craps rolls.")
+                        .withDetail(ex.getMessage()));
+    }
+
+    // error handle for a full controller executor
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Object> handleTaskRejected(TaskRejectedException ex) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Problem.create()
+                        .withTitle("Server busy.")
+                        .withDetail("Too many requests in progress, please retry later."));
+    }
 }
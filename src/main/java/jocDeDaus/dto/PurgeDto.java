@@ -0,0 +1,91 @@
+package jocDeDaus.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Clase de la capa de dominio, implementa el patron Data Transfer Object (DTO Pattern) mediante la
+ * creacion de un objeto plano (POJO) con una serie de atributos que puedan ser enviados o recuperados
+ * del servidor en una sola invocacion (de tal forma que un DTO puede contener informacion de multiples
+ * fuentes o tablas y concentrarlas en una unica clase simple, esto es, crear estructuras de datos
+ * independientes del modelo de datos, para transmitir informacion entre un cliente y un servidor)
+ *
+ * Progreso del borrado en segundo plano de las tiradas de un jugador: estado (RUNNING, COMPLETED o FAILED),
+ * tiradas borradas hasta el momento, inicio y fin
+ *
+ * Anotaciones:
+ * @Component
+ * Indica que una clase es un "componente".
+ * Estas clases se consideran candidatas para la deteccion automatica cuando se utiliza una configuracion
+ * basada en anotaciones y un escaneo de classpath.
+ * Tambien se pueden considerar otras anotaciones a nivel de clase como identificacion de un componente,
+ * normalmente un tipo especial de componente: por ejemplo, la anotacion @Repository
+ */
+
+@Component
+public class PurgeDto extends ResponseDto{
+
+    private Long idPlayer;
+    private String status;
+    private Long deletedCrapsRolls;
+    @JsonFormat(pattern = "dd/MM/yyyy hh:mm:ss a")
+    private Date startedAt;
+    @JsonFormat(pattern = "dd/MM/yyyy hh:mm:ss a")
+    private Date finishedAt;
+
+    public PurgeDto() {
+    }
+
+    public Long getIdPlayer() {
+        return idPlayer;
+    }
+
+    public void setIdPlayer(Long idPlayer) {
+        this.idPlayer = idPlayer;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getDeletedCrapsRolls() {
+        return deletedCrapsRolls;
+    }
+
+    public void setDeletedCrapsRolls(Long deletedCrapsRolls) {
+        this.deletedCrapsRolls = deletedCrapsRolls;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Date finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "PurgeDto {" +
+                "idPlayer=" + idPlayer +
+                ", status='" + status + '\'' +
+                ", deletedCrapsRolls=" + deletedCrapsRolls +
+                ", startedAt=" + startedAt +
+                ", finishedAt=" + finishedAt +
+                '}';
+    }
+}
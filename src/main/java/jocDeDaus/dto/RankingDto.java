@@ -4,8 +4,6 @@ import org.springframework.stereotype.Component;
 
 import java.util.List;
 
-import static java.util.Comparator.comparing;
-
 /**
  * Clase de la capa de dominio, implementa el patron Data Transfer Object (DTO Pattern) mediante la
  * creacion de un objeto plano (POJO) con una serie de atributos que puedan ser enviados o recuperados
@@ -40,7 +38,6 @@ public class RankingDto extends ResponseDto{
     }
 
     public List<GameDto> getGames() {
-        games.sort(comparing(GameDto::getIdPlayer));
         return games;
     }
 
@@ -1,5 +1,10 @@
 package jocDeDaus.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.*;
 import java.io.Serializable;
 
@@ -10,15 +15,32 @@ import java.io.Serializable;
  *
  * La anotacion @Table indica que la clase sera mapeada a una tabla y persistida
  *
+ * El identificador se obtiene de la tabla CRAPSROLL_SEQ por bloques de 50 valores (optimizador pooled-lo),
+ * de modo que Hibernate conoce el identificador antes del INSERT y puede agrupar las inserciones en
+ * lotes JDBC, cosa que la estrategia IDENTITY impide
+ *
+ * La anotacion @Cache guarda la entidad en la cache de segundo nivel (region jocDeDaus.entity.CrapsRoll, ehcache.xml)
+ *
  */
 
 @Entity
 @Table(name="CRAPSROLL")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class CrapsRoll implements Serializable {
 
     @Id
     @Column(name = "ID_CRAPSROLL")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "crapsRollIdGenerator")
+    @GenericGenerator(name = "crapsRollIdGenerator",
+            strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "CRAPSROLL_SEQ"),
+                    @Parameter(name = "value_column", value = "NEXT_VAL"),
+                    @Parameter(name = "force_table_use", value = "true"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private Long idCrapsRoll;
 
     @Column(name = "ID_PLAYER")
@@ -1,5 +1,8 @@
 package jocDeDaus.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -15,25 +18,30 @@ import java.util.List;
  *
  * Entidad que contiene clave primaria compuesta, anotada con @IdClass(GamePlayerPk.class)
  *
+ * La clave primaria se asigna antes de persistir la entidad: ID_GAME a partir del contador del jugador
+ * (IIdAllocationService) e ID_CRAPSROLL a partir de la tirada asociada
+ *
+ * La anotacion @Cache guarda la entidad en la cache de segundo nivel (region jocDeDaus.entity.Game, ehcache.xml)
+ *
  */
 
 @Entity
 @Table(name="GAME") //en caso que la tabla sea diferente
 @IdClass(GamePlayerPk.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Game implements Serializable {
 
     //Atributos de entidad Game
     @Id
     @Column(name = "ID_GAME")
-    @GeneratedValue(strategy = GenerationType.AUTO)
     private Long idGame;
 
     @Id
     @Column(name = "ID_PLAYER")
-    @GeneratedValue(strategy = GenerationType.AUTO)
     private Long idPlayer;
 
-    @Column(name = "ID_CRAPSROLL")
+    @Column(name = "ID_CRAPSROLL", insertable = false, updatable = false)
     private Long IdCrapsRoll;
 
     @Column(name = "GAME_RESULT")
@@ -43,8 +51,8 @@ public class Game implements Serializable {
     @JoinColumn(name="ID_PLAYER", insertable = false, updatable = false)
     private Player player;
 
-    @OneToOne
-    @JoinColumn(name = "ID_CRAPSROLL", insertable = false, updatable = false)
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ID_CRAPSROLL")
     private CrapsRoll crapsRoll;
 
 
@@ -0,0 +1,51 @@
+package jocDeDaus.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Clase de la capa de dominio.
+ *
+ * La anotacion @Entity indica que la clase es una entidad.
+ *
+ * La anotacion @Table indica que la clase sera mapeada a una tabla y persistida
+ *
+ * Contador del ultimo identificador de partida (ID_GAME) asignado a cada jugador
+ *
+ */
+
+@Entity
+@Table(name="GAME_COUNTER")
+public class GameCounter implements Serializable {
+
+    @Id
+    @Column(name = "ID_PLAYER")
+    private Long idPlayer;
+
+    @Column(name = "LAST_ID_GAME")
+    private Long lastIdGame;
+
+    public GameCounter() {
+    }
+
+    public GameCounter(Long idPlayer, Long lastIdGame) {
+        this.idPlayer = idPlayer;
+        this.lastIdGame = lastIdGame;
+    }
+
+    public Long getIdPlayer() {
+        return idPlayer;
+    }
+
+    public void setIdPlayer(Long idPlayer) {
+        this.idPlayer = idPlayer;
+    }
+
+    public Long getLastIdGame() {
+        return lastIdGame;
+    }
+
+    public void setLastIdGame(Long lastIdGame) {
+        this.lastIdGame = lastIdGame;
+    }
+}
@@ -1,5 +1,8 @@
 package jocDeDaus.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
@@ -15,10 +18,18 @@ import java.util.List;
  *
  * La anotacion @Table indica que la clase sera mapeada a una tabla y persistida
  *
+ * La anotacion @Cache guarda la entidad y sus colecciones de tiradas y partidas en la cache de segundo nivel
+ * (regiones jocDeDaus.entity.Player, Player.crapsRolls y Player.games, ehcache.xml)
+ *
+ * Los contadores TOTAL_ROLLS y TOTAL_WINS los mantiene IPlayerStatisticsService con sentencias UPDATE
+ * atomicas, en la misma transaccion que inserta o borra las tiradas: Hibernate los lee pero no los escribe
+ *
  */
 
 @Entity
 @Table(name="PLAYER") //en caso que la tabla sea diferente
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Player implements Serializable {
 
     //Atributos de entidad Player
@@ -35,13 +46,21 @@ public class Player implements Serializable {
     @NotNull(message = "name is required")
     private String name;
 
+    @Column(name = "TOTAL_ROLLS", insertable = false, updatable = false)
+    private Long totalRolls;
+
+    @Column(name = "TOTAL_WINS", insertable = false, updatable = false)
+    private Long totalWins;
+
     @Transient
     private Double ranking;
 
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "player", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<CrapsRoll> crapsRolls;
 
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "player", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Game> games;
 
     public Player() {
@@ -85,6 +104,22 @@ public class Player implements Serializable {
         this.name = name;
     }
 
+    public Long getTotalRolls() {
+        return totalRolls;
+    }
+
+    public void setTotalRolls(Long totalRolls) {
+        this.totalRolls = totalRolls;
+    }
+
+    public Long getTotalWins() {
+        return totalWins;
+    }
+
+    public void setTotalWins(Long totalWins) {
+        this.totalWins = totalWins;
+    }
+
     public Double getRanking() {
         return ranking;
     }
@@ -0,0 +1,55 @@
+package jocDeDaus.entity;
+
+import java.io.Serializable;
+
+/**
+ * Clase de la capa de dominio.
+ *
+ * Agregado inmutable con los contadores de partidas de un jugador (partidas ganadas y totales)
+ * junto con su porcentaje de exito ya calculado.
+ *
+ * Las instancias no se modifican nunca: cada nueva partida genera un nuevo PlayerStats, lo que permite
+ * compartirlas entre hilos sin sincronizacion.
+ *
+ */
+
+public final class PlayerStats implements Serializable {
+
+    private final Long idPlayer;
+    private final long wins;
+    private final long total;
+    private final Double ranking;
+
+    public PlayerStats(Long idPlayer, long wins, long total, Double ranking) {
+        this.idPlayer = idPlayer;
+        this.wins = wins;
+        this.total = total;
+        this.ranking = ranking;
+    }
+
+    public Long getIdPlayer() {
+        return idPlayer;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Double getRanking() {
+        return ranking;
+    }
+
+    @Override
+    public String toString() {
+        return "PlayerStats {" +
+                "idPlayer=" + idPlayer +
+                ", wins=" + wins +
+                ", total=" + total +
+                ", ranking=" + ranking +
+                '}';
+    }
+}
@@ -0,0 +1,83 @@
+package jocDeDaus.entity;
+
+import java.util.Date;
+
+/**
+ * Clase de la capa de dominio.
+ *
+ * Estado de un borrado en segundo plano de las tiradas de un jugador: se borran por tramos, cada uno
+ * confirmado en su propia transaccion, y deletedCrapsRolls avanza al confirmarse cada tramo.
+ *
+ * Solo el hilo que ejecuta el borrado modifica la instancia; los campos son volatile para que las
+ * consultas de progreso, desde otros hilos, vean siempre el ultimo valor.
+ *
+ */
+
+public class Purge {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final Long idPlayer;
+    private final Date startedAt;
+    private volatile Status status;
+    private volatile long deletedCrapsRolls;
+    private volatile Date finishedAt;
+
+    public Purge(Long idPlayer) {
+        this.idPlayer = idPlayer;
+        this.startedAt = new Date();
+        this.status = Status.RUNNING;
+    }
+
+    public void addDeletedCrapsRolls(long deleted) {
+        deletedCrapsRolls += deleted;
+    }
+
+    public void complete() {
+        finish(Status.COMPLETED);
+    }
+
+    public void fail() {
+        finish(Status.FAILED);
+    }
+
+    private void finish(Status status) {
+        this.finishedAt = new Date();
+        this.status = status;
+    }
+
+    public boolean isRunning() {
+        return Status.RUNNING == status;
+    }
+
+    public Long getIdPlayer() {
+        return idPlayer;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getDeletedCrapsRolls() {
+        return deletedCrapsRolls;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Purge {" +
+                "idPlayer=" + idPlayer +
+                ", status=" + status +
+                ", deletedCrapsRolls=" + deletedCrapsRolls +
+                ", startedAt=" + startedAt +
+                ", finishedAt=" + finishedAt +
+                '}';
+    }
+}
@@ -0,0 +1,97 @@
+package jocDeDaus.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Clase de la capa de dominio.
+ *
+ * Foto inmutable del ranking: clasificacion completa de los jugadores (peor primero, mismo orden que la
+ * clasificacion de IRankingService), ranking medio de todos los jugadores y mejor y peor jugador, todos
+ * calculados a partir de la misma copia de los contadores, de modo que son coherentes entre si.
+ *
+ * Las instancias no se modifican nunca y se pueden leer desde cualquier hilo sin sincronizacion. Los
+ * jugadores eliminados despues de la foto se descartan al leerla (isRanked), sin esperar a la siguiente foto;
+ * el ranking medio, en cambio, los incluye hasta entonces.
+ *
+ */
+
+public final class RankingSnapshot {
+
+    private final List<PlayerStats> leaderboard;
+    private final Double averageRankingAllPlayers;
+    private final Predicate<Long> isRanked;
+    private final long builtAt;
+
+    /**
+     * @param leaderboard clasificacion de los jugadores, peor primero
+     * @param averageRankingAllPlayers ranking medio de todos los jugadores
+     * @param isRanked indica si un jugador sigue en la clasificacion en el momento de la lectura
+     * @param builtAt instante de la foto (System.nanoTime)
+     */
+    public RankingSnapshot(List<PlayerStats> leaderboard, Double averageRankingAllPlayers, Predicate<Long> isRanked,
+                           long builtAt) {
+        this.leaderboard = List.copyOf(leaderboard);
+        this.averageRankingAllPlayers = averageRankingAllPlayers;
+        this.isRanked = isRanked;
+        this.builtAt = builtAt;
+    }
+
+    public Double getAverageRankingAllPlayers() {
+        return averageRankingAllPlayers;
+    }
+
+    public Optional<PlayerStats> getBestPlayer() {
+        List<PlayerStats> bestPlayers = getBestPlayers(1);
+        return bestPlayers.isEmpty() ? Optional.empty() : Optional.of(bestPlayers.get(0));
+    }
+
+    // en caso de empate se toma el jugador con mayor identificador, igual que IRankingService.worstPlayer
+    public Optional<PlayerStats> getWorstPlayer() {
+        PlayerStats worstPlayer = null;
+        for (PlayerStats playerStats : leaderboard) {
+            if (!isRanked(playerStats)){
+                continue;
+            }
+            if (null != worstPlayer && playerStats.getRanking().compareTo(worstPlayer.getRanking()) != 0){
+                break;
+            }
+            worstPlayer = playerStats;
+        }
+        return Optional.ofNullable(worstPlayer);
+    }
+
+    public List<PlayerStats> getBestPlayers(int limit) {
+        List<PlayerStats> players = new ArrayList<>(Math.max(0, Math.min(limit, leaderboard.size())));
+        for (int i = leaderboard.size() - 1; i >= 0 && players.size() < limit; i--) {
+            if (isRanked(leaderboard.get(i))){
+                players.add(leaderboard.get(i));
+            }
+        }
+        return players;
+    }
+
+    public List<PlayerStats> getWorstPlayers(int limit) {
+        List<PlayerStats> players = new ArrayList<>(Math.max(0, Math.min(limit, leaderboard.size())));
+        for (int i = 0; i < leaderboard.size() && players.size() < limit; i++) {
+            if (isRanked(leaderboard.get(i))){
+                players.add(leaderboard.get(i));
+            }
+        }
+        return players;
+    }
+
+    public int getPlayers() {
+        return leaderboard.size();
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    private boolean isRanked(PlayerStats playerStats) {
+        return isRanked.test(playerStats.getIdPlayer());
+    }
+}
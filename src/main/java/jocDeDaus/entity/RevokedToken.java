@@ -0,0 +1,53 @@
+package jocDeDaus.entity;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Clase de la capa de dominio.
+ *
+ * La anotacion @Entity indica que la clase es una entidad.
+ *
+ * La anotacion @Table indica que la clase sera mapeada a una tabla y persistida
+ *
+ * Token JWT revocado, identificado por su claim jti, hasta su fecha de expiracion
+ *
+ */
+
+@Entity
+@Table(name="REVOKED_TOKEN")
+public class RevokedToken implements Serializable {
+
+    @Id
+    @Column(name = "ID_TOKEN")
+    private String idToken;
+
+    @Temporal(value = TemporalType.TIMESTAMP)
+    @Column(name = "EXPIRES_AT")
+    private Date expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String idToken, Date expiresAt) {
+        this.idToken = idToken;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getIdToken() {
+        return idToken;
+    }
+
+    public void setIdToken(String idToken) {
+        this.idToken = idToken;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
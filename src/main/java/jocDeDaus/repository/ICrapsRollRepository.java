@@ -2,9 +2,15 @@ package jocDeDaus.repository;
 
 import jocDeDaus.entity.CrapsRoll;
 import jocDeDaus.entity.Player;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,6 +22,20 @@ import java.util.List;
 @Transactional
 public interface ICrapsRollRepository extends JpaRepository<CrapsRoll, Long> {
 
+    // la partida es el lado inverso de un @OneToOne y no admite carga diferida: se obtiene en la misma consulta
+    @EntityGraph(attributePaths = "game")
     List<CrapsRoll> findCrapsRollsByPlayer(Player player);
 
+    // identificadores de las tiradas de un jugador, por bloques: marcan el limite de cada borrado por tramos
+    @Query("SELECT c.idCrapsRoll FROM CrapsRoll c WHERE c.idPlayer = :idPlayer ORDER BY c.idCrapsRoll")
+    List<Long> findIdCrapsRollsByPlayer(@Param("idPlayer") Long idPlayer, Pageable pageable);
+
+    @Query("SELECT c.idCrapsRoll FROM CrapsRoll c WHERE c.idCrapsRoll IN :idCrapsRolls")
+    List<Long> findExistingIdCrapsRolls(@Param("idCrapsRolls") Collection<Long> idCrapsRolls);
+
+    // borrado sin cargar entidades: la base de datos pone a NULL el ID_CRAPSROLL de sus partidas (ON DELETE SET NULL)
+    @Modifying
+    @Query("DELETE FROM CrapsRoll c WHERE c.idPlayer = :idPlayer AND c.idCrapsRoll <= :upTo")
+    int deleteCrapsRollsByPlayerUpTo(@Param("idPlayer") Long idPlayer, @Param("upTo") Long upTo);
+
 }
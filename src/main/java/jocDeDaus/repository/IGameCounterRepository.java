@@ -0,0 +1,27 @@
+package jocDeDaus.repository;
+
+import jocDeDaus.entity.GameCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Interface de la capa Repository, extiende JpaRepository
+ *
+ */
+
+@Repository
+@Transactional
+public interface IGameCounterRepository extends JpaRepository<GameCounter, Long> {
+
+    @Modifying
+    @Query("UPDATE GameCounter c SET c.lastIdGame = c.lastIdGame + :count WHERE c.idPlayer = :idPlayer")
+    int incrementLastIdGame(@Param("idPlayer") Long idPlayer, @Param("count") Long count);
+
+    @Query("SELECT c.lastIdGame FROM GameCounter c WHERE c.idPlayer = :idPlayer")
+    Long findLastIdGame(@Param("idPlayer") Long idPlayer);
+
+}
@@ -1,9 +1,19 @@
 package jocDeDaus.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import jocDeDaus.entity.Game;
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Interface de la capa Repository, extiende JpaRepository
@@ -14,4 +24,30 @@ import jocDeDaus.entity.Game;
 @Transactional
 public interface IGameRepository extends JpaRepository<Game, Long> {
 
+    int GAME_FETCH_SIZE = 1000;
+
+    // Pagina de partidas por clave (keyset): las siguientes a la partida (afterPlayer, afterGame), por jugador y partida
+    @Query("SELECT g.idGame AS idGame, g.idPlayer AS idPlayer, g.IdCrapsRoll AS idCrapsRoll, " +
+            "g.gameResult AS gameResult FROM Game g " +
+            "WHERE g.idPlayer > :afterPlayer OR (g.idPlayer = :afterPlayer AND g.idGame > :afterGame) " +
+            "ORDER BY g.idPlayer, g.idGame")
+    List<IGameView> findGamesAfter(@Param("afterPlayer") Long afterPlayer, @Param("afterGame") Long afterGame,
+                                   Pageable pageable);
+
+    @Query("SELECT MAX(g.idGame) FROM Game g WHERE g.idPlayer = :idPlayer")
+    Long findMaxIdGameByPlayer(@Param("idPlayer") Long idPlayer);
+
+    // Recorre las partidas con un cursor JDBC, de GAME_FETCH_SIZE filas en cada ida y vuelta a la base de datos
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + GAME_FETCH_SIZE))
+    @Query("SELECT g.idGame AS idGame, g.idPlayer AS idPlayer, g.IdCrapsRoll AS idCrapsRoll, " +
+            "g.gameResult AS gameResult FROM Game g ORDER BY g.idPlayer, g.idGame")
+    Stream<IGameView> streamAllOrderByIdPlayer();
+
+    @Query("SELECT g.idGame FROM Game g WHERE g.idPlayer = :idPlayer ORDER BY g.idGame")
+    List<Long> findIdGamesByPlayer(@Param("idPlayer") Long idPlayer, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Game g WHERE g.idPlayer = :idPlayer AND g.idGame <= :upTo")
+    int deleteGamesByPlayerUpTo(@Param("idPlayer") Long idPlayer, @Param("upTo") Long upTo);
+
 }
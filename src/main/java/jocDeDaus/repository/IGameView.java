@@ -0,0 +1,20 @@
+package jocDeDaus.repository;
+
+/**
+ * Interface de la capa Repository
+ *
+ * Proyeccion de las columnas de la tabla GAME, utilizada para recorrer las partidas
+ * sin cargar entidades en el contexto de persistencia
+ *
+ */
+
+public interface IGameView {
+
+    Long getIdGame();
+
+    Long getIdPlayer();
+
+    Long getIdCrapsRoll();
+
+    Boolean getGameResult();
+}
@@ -0,0 +1,15 @@
+package jocDeDaus.repository;
+
+/**
+ * Interface de la capa Repository
+ *
+ * Proyeccion del identificador y el nombre de un jugador
+ *
+ */
+
+public interface IPlayerName {
+
+    Long getIdPlayer();
+
+    String getName();
+}
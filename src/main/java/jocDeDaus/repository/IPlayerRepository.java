@@ -1,9 +1,16 @@
 package jocDeDaus.repository;
 
 import jocDeDaus.entity.Player;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Interface de la capa Repository, extiende JpaRepository
@@ -14,4 +21,32 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public interface IPlayerRepository extends JpaRepository<Player, Long> {
 
+    @Query("SELECT p.idPlayer FROM Player p WHERE p.idPlayer IN :idPlayers")
+    List<Long> findExistingIdPlayers(@Param("idPlayers") Collection<Long> idPlayers);
+
+    @Query("SELECT p.idPlayer AS idPlayer, p.name AS name FROM Player p")
+    List<IPlayerName> findAllNames();
+
+    @Query("SELECT p.idPlayer FROM Player p ORDER BY p.idPlayer")
+    List<Long> findAllIdPlayersOrderById();
+
+    // porcentaje de exito a partir de los contadores TOTAL_ROLLS y TOTAL_WINS: una lectura de columnas, sin
+    // agregar las tiradas. Sin cache de consultas: Hibernate no ve los UPDATE de los contadores
+    @Query("SELECT p.idPlayer AS idPlayer, p.entryDate AS entryDate, p.name AS name, p.totalRolls AS total, " +
+            "p.totalWins AS wins FROM Player p WHERE p.idPlayer > :after ORDER BY p.idPlayer")
+    List<IPlayerRollStats> findPlayersRollStatsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT p.idPlayer AS idPlayer, p.entryDate AS entryDate, p.name AS name, p.totalRolls AS total, " +
+            "p.totalWins AS wins FROM Player p WHERE p.idPlayer = :idPlayer")
+    Optional<IPlayerRollStats> findPlayerRollStats(@Param("idPlayer") Long idPlayer);
+
+    @Query("SELECT p.idPlayer AS idPlayer, p.entryDate AS entryDate, p.name AS name, p.totalRolls AS total, " +
+            "p.totalWins AS wins FROM Player p")
+    List<IPlayerRollStats> findAllPlayersRollStats();
+
+    // las tiradas, partidas y contador del jugador se eliminan por las claves foraneas ON DELETE CASCADE
+    @Modifying
+    @Query("DELETE FROM Player p WHERE p.idPlayer = :idPlayer")
+    int deletePlayerById(@Param("idPlayer") Long idPlayer);
+
 }
@@ -0,0 +1,24 @@
+package jocDeDaus.repository;
+
+import java.util.Date;
+
+/**
+ * Interface de la capa Repository
+ *
+ * Proyeccion de los jugadores junto con el numero de tiradas y tiradas ganadas
+ * de cada uno, columnas TOTAL_ROLLS y TOTAL_WINS de la tabla PLAYER
+ *
+ */
+
+public interface IPlayerRollStats {
+
+    Long getIdPlayer();
+
+    Date getEntryDate();
+
+    String getName();
+
+    Long getTotal();
+
+    Long getWins();
+}
@@ -0,0 +1,29 @@
+package jocDeDaus.repository;
+
+import jocDeDaus.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Interface de la capa Repository, extiende JpaRepository
+ *
+ */
+
+@Repository
+@Transactional
+public interface IRevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByExpiresAtAfter(Date date);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt <= :date")
+    int deleteExpired(@Param("date") Date date);
+
+}
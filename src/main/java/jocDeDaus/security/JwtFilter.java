@@ -18,16 +18,25 @@ import java.io.IOException;
  * el cuál se encarga de pasar el "request" a nuestra clase de utilidad JwtUtil
  * para que valide el token
  *
+ * Los tokens ya verificados se resuelven en la cache JwtTokenCache, y los revocados
+ * se rechazan con TokenRevocationList
+ *
  */
 public class JwtFilter extends GenericFilterBean {
 
+    private final JwtUtil jwtUtil;
+
+    public JwtFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
     @Override
     public void doFilter(ServletRequest request,
                          ServletResponse response,
                          FilterChain filterChain)
             throws IOException, ServletException {
 
-        Authentication authentication = JwtUtil.getAuthentication((HttpServletRequest)request);
+        Authentication authentication = jwtUtil.getAuthentication((HttpServletRequest)request);
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
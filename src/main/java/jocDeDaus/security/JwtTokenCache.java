@@ -0,0 +1,175 @@
+package jocDeDaus.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clase de la capa Security
+ *
+ * Cache de tokens JWT ya verificados. Asocia el hash SHA-256 de cada token (nunca el token en claro)
+ * con el objeto Authentication construido a partir de el, hasta la fecha de expiracion (exp) del token.
+ *
+ * Con la cache, las peticiones que reutilizan un token solo calculan un hash y consultan un mapa,
+ * en lugar de volver a decodificar el token y verificar su firma HS512.
+ *
+ * La cache (Caffeine) esta acotada a jocdedaus.security.token-cache.max-size entradas: al llenarse se
+ * descartan las menos usadas, y cada entrada caduca por si sola en la fecha de expiracion de su token.
+ *
+ * Publica las metricas jocdedaus.security.token.cache (etiqueta result: hit, miss o expired)
+ * y jocdedaus.security.token.cache.size
+ *
+ */
+
+@Component
+public class JwtTokenCache {
+
+    // MessageDigest no es seguro entre hilos: una instancia por hilo
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 forma parte de los algoritmos obligatorios de toda JVM
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Value("${jocdedaus.security.token-cache.max-size:10000}")
+    private int maxSize;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Cache<String, CachedAuthentication> authenticationsByHash;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter expired;
+
+    @PostConstruct
+    public void registerMetrics() {
+        authenticationsByHash = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+
+        hits = cacheCounter("hit");
+        misses = cacheCounter("miss");
+        expired = cacheCounter("expired");
+        Gauge.builder("jocdedaus.security.token.cache.size", authenticationsByHash, Cache::estimatedSize)
+                .description("Verified tokens in the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve la autenticacion de un token ya verificado y no expirado
+     *
+     * @param token token JWT, sin el prefijo Bearer
+     * @return Authentication del token, o null si no esta en la cache o ha expirado
+     */
+    public Authentication get(String token) {
+        String hash = hash(token);
+        CachedAuthentication cached = authenticationsByHash.getIfPresent(hash);
+
+        if (null == cached){
+            misses.increment();
+            return null;
+        }
+        // Caffeine elimina las entradas caducadas con cierto retraso: la expiracion se comprueba de nuevo
+        if (cached.isExpired(System.currentTimeMillis())){
+            authenticationsByHash.asMap().remove(hash, cached);
+            expired.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.authentication;
+    }
+
+    /**
+     * Guarda la autenticacion de un token verificado hasta su fecha de expiracion
+     *
+     * @param token token JWT, sin el prefijo Bearer
+     * @param authentication autenticacion construida a partir del token
+     * @param expiration fecha de expiracion del token; sin ella el token no se guarda
+     */
+    public void put(String token, Authentication authentication, Date expiration) {
+        if (null == expiration){
+            return;
+        }
+        authenticationsByHash.put(hash(token), new CachedAuthentication(authentication, expiration.getTime()));
+    }
+
+    /**
+     * Elimina un token de la cache, de forma que la siguiente peticion lo vuelva a verificar
+     */
+    public void evict(String token) {
+        authenticationsByHash.invalidate(hash(token));
+    }
+
+    private Counter cacheCounter(String result) {
+        return Counter.builder("jocdedaus.security.token.cache")
+                .description("Verified token cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String hash(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private static final class CachedAuthentication {
+
+        private final Authentication authentication;
+        private final long expiresAt;
+
+        private CachedAuthentication(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        private long nanosToExpiration() {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+        }
+    }
+
+    // cada entrada caduca en la fecha de expiracion de su token, sin que la lectura la prolongue
+    private static final class TokenExpiry implements Expiry<String, CachedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String hash, CachedAuthentication cached, long currentTime) {
+            return cached.nanosToExpiration();
+        }
+
+        @Override
+        public long expireAfterUpdate(String hash, CachedAuthentication cached, long currentTime,
+                                      long currentDuration) {
+            return cached.nanosToExpiration();
+        }
+
+        @Override
+        public long expireAfterRead(String hash, CachedAuthentication cached, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,71 +1,215 @@
 package jocDeDaus.security;
 
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.env.Environment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
 
 import static java.util.Collections.emptyList;
 
 /**
  * Clase de la capa Security
  *
+ * Emite y valida los tokens JWT. Cada inicio de sesion recibe un token de acceso de corta duracion,
+ * en el encabezado Authorization, y un token de refresco, en el encabezado Refresh-Token, con el que
+ * obtener un nuevo par de tokens en /token/refresh sin volver a enviar usuario y password.
+ *
+ * Cada token lleva un identificador unico (jti) y su tipo (typ: access o refresh). Los tokens revocados
+ * con /logout, y los de refresco ya utilizados, se rechazan a traves de TokenRevocationList
+ *
+ * La clave de firma no tiene valor por defecto: se lee del entorno (JOCDEDAUS_SECURITY_JWT_SECRET), codificada
+ * en base64, y la aplicacion no arranca si falta o tiene menos de 64 bytes, el minimo para HS512
+ *
  */
 
+@Component
 public class JwtUtil {
 
-    public static final long TOKEN_EXPIRATION_TIME = 86400000; // 1 dia
+    static final String HEADER_REFRESH_TOKEN_KEY = "Refresh-Token";
     private static final String HEADER_AUTHORIZACION_KEY = "Authorization";
     private static final String TOKEN_BEARER_PREFIX = "Bearer ";
+    private static final String TOKEN_TYPE_CLAIM = "typ";
+    private static final String ACCESS_TOKEN = "access";
+    private static final String REFRESH_TOKEN = "refresh";
+    private static final int MIN_SECRET_KEY_BYTES = 64;
 
-    // Método para crear el JWT y enviarlo al cliente en el header de la respuesta
-    static void addAuthentication(HttpServletResponse res, String username) {
+    @Value("${jocdedaus.security.jwt.secret}")
+    private String secretKey;
 
-        String token = Jwts.builder()
-                .setSubject(username)
+    private byte[] signingKey;
 
-                // Tiempo de expiracion de 1 dia
-                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_EXPIRATION_TIME))
+    @Value("${jocdedaus.security.jwt.access-expiration:900000}")
+    private long accessExpirationTime; // 15 minutos
 
-                // Hash con el que firmaremos la clave
-                .signWith(SignatureAlgorithm.HS512, "secret@")
-                .compact();
+    @Value("${jocdedaus.security.jwt.refresh-expiration:86400000}")
+    private long refreshExpirationTime; // 1 dia
+
+    @Autowired
+    JwtTokenCache jwtTokenCache;
+
+    @Autowired
+    TokenRevocationList tokenRevocationList;
+
+    // Método para decodificar la clave de firma y comprobar su longitud al arrancar
+    @PostConstruct
+    public void loadSigningKey() {
+        try {
+            signingKey = Base64.getDecoder().decode(secretKey.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("jocdedaus.security.jwt.secret must be a base64-encoded key", e);
+        }
+        if (signingKey.length < MIN_SECRET_KEY_BYTES) {
+            throw new IllegalStateException("jocdedaus.security.jwt.secret must be at least "
+                    + MIN_SECRET_KEY_BYTES + " bytes long for HS512");
+        }
+    }
+
+    // Método para crear el par de JWT y enviarlo al cliente en el header de la respuesta
+    void addAuthentication(HttpServletResponse res, String username) {
+
+        String token = createToken(username, ACCESS_TOKEN, accessExpirationTime);
+        String refreshToken = createToken(username, REFRESH_TOKEN, refreshExpirationTime);
 
         //agregamos al encabezado el token
         res.addHeader(HEADER_AUTHORIZACION_KEY, TOKEN_BEARER_PREFIX + token);
 
         //agregamos al encabezado el token
         res.addHeader(HEADER_AUTHORIZACION_KEY, token);
+
+        //agregamos al encabezado el token de refresco
+        res.addHeader(HEADER_REFRESH_TOKEN_KEY, refreshToken);
     }
 
-    // Método para validar el token enviado por el cliente
-    static Authentication getAuthentication(HttpServletRequest request) {
+    // Método para validar el token de acceso enviado por el cliente
+    // Los tokens ya verificados se obtienen de la cache, sin volver a comprobar la firma
+    Authentication getAuthentication(HttpServletRequest request) {
 
         // Obtenemos el token que viene en el encabezado de la peticion
         String token = request.getHeader(HEADER_AUTHORIZACION_KEY);
 
         // si hay un token presente, entonces lo validamos
         if (token != null) {
-            String user = Jwts.parser()
-                    .setSigningKey("secret@")
-                    .parseClaimsJws(token.replace(TOKEN_BEARER_PREFIX, "")) //este metodo es el que valida
-                    .getBody()
-                    .getSubject();
+            String jwt = token.replace(TOKEN_BEARER_PREFIX, "");
+
+            Authentication authentication = jwtTokenCache.get(jwt);
+            if (authentication == null) {
+                Claims claims;
+                try {
+                    claims = parseToken(jwt); //este metodo es el que valida
+                } catch (JwtException | IllegalArgumentException e) {
+                    // un token expirado, mal formado o con otra firma se trata como una peticion sin autenticar
+                    return null;
+                }
+
+                // un token de refresco no sirve como token de acceso
+                if (claims.getSubject() == null || !ACCESS_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM))) {
+                    return null;
+                }
+                authentication = toAuthentication(claims);
+                jwtTokenCache.put(jwt, authentication, claims.getExpiration());
+            }
 
             // Para las demás peticiones que no sean /login
             // no requerimos una autenticacion por name/password
             // por este motivo podemos devolver un UsernamePasswordAuthenticationToken sin password
-            return user != null ?
-                    new UsernamePasswordAuthenticationToken(user, null, emptyList()) :
-                    null;
+            return tokenRevocationList.isRevoked((String) authentication.getDetails()) ? null : authentication;
         }
         return null;
     }
-}
\ No newline at end of file
+
+    // Método para validar el token de refresco enviado a /token/refresh
+    Authentication getRefreshAuthentication(HttpServletRequest request) {
+        String refreshToken = request.getHeader(HEADER_REFRESH_TOKEN_KEY);
+
+        if (refreshToken == null) {
+            throw new BadCredentialsException("Refresh token required");
+        }
+        try {
+            Claims claims = parseToken(refreshToken);
+
+            if (claims.getSubject() == null || !REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM))) {
+                throw new BadCredentialsException("Invalid refresh token");
+            }
+            // el token se consume aqui, antes de emitir el nuevo par: de dos peticiones concurrentes con el
+            // mismo token de refresco solo una lo revoca, la otra se rechaza
+            if (!tokenRevocationList.revoke(claims.getId(), claims.getExpiration())) {
+                throw new BadCredentialsException("Invalid refresh token");
+            }
+            return toAuthentication(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadCredentialsException("Invalid refresh token", e);
+        }
+    }
+
+    // Método para emitir un nuevo par de tokens: el token de refresco utilizado ya se ha revocado al validarlo
+    void refreshAuthentication(HttpServletResponse res, Authentication auth) {
+        addAuthentication(res, auth.getName());
+    }
+
+    // Método para revocar los tokens de acceso y de refresco enviados por el cliente
+    void revokeAuthentication(HttpServletRequest request) {
+        String token = request.getHeader(HEADER_AUTHORIZACION_KEY);
+
+        if (token != null) {
+            String jwt = token.replace(TOKEN_BEARER_PREFIX, "");
+            revoke(jwt);
+            jwtTokenCache.evict(jwt);
+        }
+        revoke(request.getHeader(HEADER_REFRESH_TOKEN_KEY));
+    }
+
+    private void revoke(String jwt) {
+        if (jwt == null) {
+            return;
+        }
+        try {
+            Claims claims = parseToken(jwt);
+            tokenRevocationList.revoke(claims.getId(), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException e) {
+            // un token invalido o expirado no necesita revocarse
+        }
+    }
+
+    private String createToken(String username, String tokenType, long expirationTime) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
+                .claim(TOKEN_TYPE_CLAIM, tokenType)
+
+                // Tiempo de expiracion
+                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
+
+                // Hash con el que firmaremos la clave
+                .signWith(SignatureAlgorithm.HS512, signingKey)
+                .compact();
+    }
+
+    private Claims parseToken(String jwt) {
+        return Jwts.parser()
+                .setSigningKey(signingKey)
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    // el jti se guarda como detalle de la autenticacion para comprobar la revocacion en cada peticion
+    private Authentication toAuthentication(Claims claims) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(claims.getSubject(), null, emptyList());
+        authentication.setDetails(claims.getId());
+        return authentication;
+    }
+}
@@ -1,7 +1,11 @@
 package jocDeDaus.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.springframework.boot.autoconfigure.security.SecurityProperties.User;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,17 +20,33 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Clase de la capa Security
  *
+ * Antes de leer las credenciales se comprueba el limite de intentos por direccion IP y, una vez
+ * leido el nombre, por usuario. Los intentos que superan el limite reciben un 429 Too Many Requests
+ * con el encabezado Retry-After, sin llegar a autenticarse
+ *
  */
 
 public class LoginFilter extends AbstractAuthenticationProcessingFilter {
 
-    public LoginFilter(String url, AuthenticationManager authManager) {
+    private final JwtUtil jwtUtil;
+
+    private final LoginRateLimiter loginRateLimiter;
+
+    // lector reutilizable, creado una sola vez a partir del ObjectMapper de la aplicacion
+    private final ObjectReader userReader;
+
+    public LoginFilter(String url, AuthenticationManager authManager, JwtUtil jwtUtil,
+                       LoginRateLimiter loginRateLimiter, ObjectMapper objectMapper) {
         super(new AntPathRequestMatcher(url));
         setAuthenticationManager(authManager);
+        this.jwtUtil = jwtUtil;
+        this.loginRateLimiter = loginRateLimiter;
+        this.userReader = objectMapper.readerFor(User.class);
     }
 
     @Override
@@ -34,6 +54,11 @@ public class LoginFilter extends AbstractAuthenticationProcessingFilter {
             HttpServletRequest req, HttpServletResponse res)
             throws AuthenticationException, IOException, ServletException {
 
+        // limite por direccion IP, antes de leer el body
+        if (tooManyRequests(res, loginRateLimiter.tryAcquireIp(req.getRemoteAddr()))) {
+            return null;
+        }
+
         // obtenemos el body de la peticion que asumimos viene en formato JSON
         InputStream body = req.getInputStream();
 
@@ -41,7 +66,12 @@ public class LoginFilter extends AbstractAuthenticationProcessingFilter {
         // {"name":"root", "password":"r@@t"} o {"name":"user", "password":"secret@"}
         // Realizamos un mapeo a nuestra clase UserModel para tener ahi los datos
 
-        User user = new ObjectMapper().readValue(body, User.class);
+        User user = userReader.readValue(body);
+
+        // limite por nombre de usuario
+        if (tooManyRequests(res, loginRateLimiter.tryAcquireUser(user.getName()))) {
+            return null;
+        }
 
         // Finalmente autenticamos
         // Spring comparará el user/password recibidos
@@ -62,7 +92,19 @@ public class LoginFilter extends AbstractAuthenticationProcessingFilter {
             Authentication auth) throws IOException, ServletException {
 
         // Si la autenticacion fue exitosa, agregamos el token a la respuesta
-        JwtUtil.addAuthentication(res, auth.getName());
+        jwtUtil.addAuthentication(res, auth.getName());
     }
-}
 
+    // devolver null indica a AbstractAuthenticationProcessingFilter que la respuesta ya esta completa
+    private boolean tooManyRequests(HttpServletResponse res, long retryAfterMillis) throws IOException {
+        if (retryAfterMillis <= 0) {
+            return false;
+        }
+        res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis) + 1));
+        // sin sendError: el despacho a /error requiere autenticacion y acabaria en 403
+        res.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        res.getWriter().write("{\"title\":\"Too many login attempts.\"}");
+        return true;
+    }
+}
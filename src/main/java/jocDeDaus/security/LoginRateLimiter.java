@@ -0,0 +1,140 @@
+package jocDeDaus.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Clase de la capa Security
+ *
+ * Limita los intentos de /login por nombre de usuario y por direccion IP con cubos de fichas
+ * (token bucket): cada intento consume una ficha y las fichas se reponen a un ritmo constante
+ * hasta la capacidad del cubo.
+ *
+ * Los cubos no se guardan en un mapa: cada clave se asigna por hash a una de las franjas (stripes)
+ * de un AtomicLongArray de tamano fijo, y el estado de cada cubo (fichas y ultima reposicion) se
+ * empaqueta en un unico long que se actualiza con compareAndSet. No hay bloqueo global y la memoria
+ * no crece con el numero de usuarios o direcciones; dos claves que comparten franja comparten cubo.
+ *
+ * Publica la metrica jocdedaus.security.login.throttled (etiqueta scope: user o ip)
+ *
+ */
+
+@Component
+public class LoginRateLimiter {
+
+    // las fichas se guardan en milesimas, en los 22 bits bajos; el instante de reposicion en los 42 altos
+    private static final long MILLI_TOKENS = 1000;
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    @Value("${jocdedaus.security.login.stripes:65536}")
+    private int stripes;
+
+    @Value("${jocdedaus.security.login.user.capacity:5}")
+    private int userCapacity;
+
+    @Value("${jocdedaus.security.login.user.refill-per-minute:5}")
+    private int userRefillPerMinute;
+
+    @Value("${jocdedaus.security.login.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${jocdedaus.security.login.ip.refill-per-minute:20}")
+    private int ipRefillPerMinute;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final long origin = System.nanoTime();
+
+    private TokenBuckets userBuckets;
+    private TokenBuckets ipBuckets;
+
+    @PostConstruct
+    public void createBuckets() {
+        userBuckets = new TokenBuckets(stripes, userCapacity, userRefillPerMinute, throttledCounter("user"));
+        ipBuckets = new TokenBuckets(stripes, ipCapacity, ipRefillPerMinute, throttledCounter("ip"));
+    }
+
+    /**
+     * Consume una ficha del cubo de la direccion IP
+     *
+     * @return 0 si el intento esta permitido, o los milisegundos hasta la siguiente ficha
+     */
+    public long tryAcquireIp(String address) {
+        return ipBuckets.tryAcquire(address, now());
+    }
+
+    /**
+     * Consume una ficha del cubo del nombre de usuario, sin distinguir mayusculas
+     *
+     * @return 0 si el intento esta permitido, o los milisegundos hasta la siguiente ficha
+     */
+    public long tryAcquireUser(String name) {
+        return userBuckets.tryAcquire(null == name ? "" : name.toLowerCase(), now());
+    }
+
+    private long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+    }
+
+    private Counter throttledCounter(String scope) {
+        return Counter.builder("jocdedaus.security.login.throttled")
+                .description("Login attempts rejected by the rate limiter")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    private static final class TokenBuckets {
+
+        private final AtomicLongArray buckets;
+        private final long capacity;
+        private final double refillPerMilli;
+        private final Counter throttled;
+
+        private TokenBuckets(int stripes, int capacity, int refillPerMinute, Counter throttled) {
+            this.buckets = new AtomicLongArray(stripes);
+            this.capacity = capacity * MILLI_TOKENS;
+            this.refillPerMilli = refillPerMinute * MILLI_TOKENS / 60000.0;
+            this.throttled = throttled;
+
+            // todos los cubos empiezan llenos
+            for (int i = 0; i < stripes; i++) {
+                buckets.set(i, this.capacity);
+            }
+        }
+
+        private long tryAcquire(String key, long now) {
+            int stripe = stripe(key);
+            while (true) {
+                long state = buckets.get(stripe);
+                long last = state >>> TOKEN_BITS;
+                long tokens = Math.min(capacity, (state & TOKEN_MASK) + (long) ((now - last) * refillPerMilli));
+
+                if (tokens < MILLI_TOKENS){
+                    throttled.increment();
+                    return (long) Math.ceil((MILLI_TOKENS - tokens) / refillPerMilli);
+                }
+                long updated = (now << TOKEN_BITS) | (tokens - MILLI_TOKENS);
+                if (buckets.compareAndSet(stripe, state, updated)){
+                    return 0;
+                }
+            }
+        }
+
+        private int stripe(String key) {
+            int hash = key.hashCode();
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            return (hash & Integer.MAX_VALUE) % buckets.length();
+        }
+    }
+}
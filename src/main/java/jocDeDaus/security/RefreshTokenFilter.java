@@ -0,0 +1,45 @@
+package jocDeDaus.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AbstractAuthenticationProcessingFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Clase de la capa Security
+ *
+ * Las peticiones /token/refresh pasarán por este filtro, que valida el token de refresco
+ * del encabezado Refresh-Token y devuelve un nuevo par de tokens, igual que /login
+ *
+ */
+
+public class RefreshTokenFilter extends AbstractAuthenticationProcessingFilter {
+
+    private final JwtUtil jwtUtil;
+
+    public RefreshTokenFilter(String url, JwtUtil jwtUtil) {
+        super(new AntPathRequestMatcher(url, "POST"));
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Authentication attemptAuthentication(HttpServletRequest req, HttpServletResponse res)
+            throws AuthenticationException {
+
+        return jwtUtil.getRefreshAuthentication(req);
+    }
+
+    @Override
+    protected void successfulAuthentication(
+            HttpServletRequest req,
+            HttpServletResponse res, FilterChain chain,
+            Authentication auth) {
+
+        // El token de refresco ya se ha revocado al validarlo, agregamos el nuevo par de tokens a la respuesta
+        jwtUtil.refreshAuthentication(res, auth);
+    }
+}
@@ -1,5 +1,6 @@
 package jocDeDaus.security;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
@@ -8,7 +9,9 @@ import org.springframework.security.config.annotation.authentication.builders.Au
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.logout.HttpStatusReturningLogoutSuccessHandler;
 
 /**
  * Clase de la capa Security
@@ -21,6 +24,21 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private static final String LOGIN_URL = "/login";
 
+    private static final String REFRESH_URL = "/token/refresh";
+
+    private static final String LOGOUT_URL = "/logout";
+
+    private static final String[] METRICS_URLS = {"/actuator/health", "/actuator/prometheus"};
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Value("${spring.security.userModel.name}")
     private String name;
 
@@ -31,14 +49,26 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     protected void configure(HttpSecurity http) throws Exception {
         http.csrf().disable().authorizeRequests()
             .antMatchers(LOGIN_URL).permitAll() //permitimos el acceso a /login a cualquiera
+            .antMatchers(REFRESH_URL).permitAll() //el token de refresco se valida en RefreshTokenFilter
+            .antMatchers(METRICS_URLS).permitAll() //comprobacion de estado y recogida de metricas de Prometheus
             .anyRequest().authenticated() //cualquier otra peticion requiere autenticacion
             .and()
+            // /logout revoca el token de acceso y, si se envia, el token de refresco
+            .logout()
+                .logoutUrl(LOGOUT_URL)
+                .addLogoutHandler((req, res, auth) -> jwtUtil.revokeAuthentication(req))
+                .logoutSuccessHandler(new HttpStatusReturningLogoutSuccessHandler(HttpStatus.NO_CONTENT))
+            .and()
             // Las peticiones /login pasaran previamente por este filtro
-            .addFilterBefore(new LoginFilter(LOGIN_URL, authenticationManager()),
+            .addFilterBefore(new LoginFilter(LOGIN_URL, authenticationManager(), jwtUtil, loginRateLimiter, objectMapper),
+                    UsernamePasswordAuthenticationFilter.class)
+
+            // Las peticiones /token/refresh pasaran previamente por este filtro
+            .addFilterBefore(new RefreshTokenFilter(REFRESH_URL, jwtUtil),
                     UsernamePasswordAuthenticationFilter.class)
 
             // Las demás peticiones pasarán por este filtro para validar el token
-            .addFilterBefore(new JwtFilter(),
+            .addFilterBefore(new JwtFilter(jwtUtil),
                     UsernamePasswordAuthenticationFilter.class);
     }
 
@@ -0,0 +1,188 @@
+package jocDeDaus.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jocDeDaus.entity.RevokedToken;
+import jocDeDaus.repository.IRevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Clase de la capa Security
+ *
+ * Lista de tokens revocados, identificados por su claim jti, que JwtFilter consulta en cada peticion.
+ *
+ * La consulta pasa primero por un filtro de Bloom en memoria: si el filtro indica que el token no esta
+ * revocado, la respuesta es definitiva, sin tocar el mapa ni la base de datos. Solo los positivos
+ * (revocados o falsos positivos) se confirman en el conjunto exacto.
+ *
+ * Los tokens revocados se guardan en la tabla REVOKED_TOKEN, de forma que la lista sobrevive a los
+ * reinicios. Se eliminan periodicamente una vez expirados, ya que un token expirado se rechaza
+ * igualmente, y el filtro de Bloom se reconstruye con los que quedan.
+ *
+ * Anotaciones:
+ * @Scheduled
+ * Ejecuta la limpieza de tokens expirados con el periodo de jocdedaus.security.revocation.purge-interval
+ *
+ */
+
+@Component
+public class TokenRevocationList {
+
+    @Value("${jocdedaus.security.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Autowired
+    IRevokedTokenRepository iRevokedTokenRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Long> expirationById = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    @PostConstruct
+    public void loadRevokedTokens() {
+        iRevokedTokenRepository.findByExpiresAtAfter(new Date())
+                .forEach(t -> expirationById.put(t.getIdToken(), t.getExpiresAt().getTime()));
+        rebuildBloomFilter();
+
+        Gauge.builder("jocdedaus.security.revoked.tokens", expirationById, Map::size)
+                .description("Revoked tokens not yet expired")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Comprueba si un token esta revocado
+     *
+     * @param idToken claim jti del token
+     * @return true si el token esta revocado
+     */
+    public boolean isRevoked(String idToken) {
+        if (null == idToken || !bloomFilter.mightContain(idToken)){
+            return false;
+        }
+        return expirationById.containsKey(idToken);
+    }
+
+    /**
+     * Revoca un token hasta su fecha de expiracion. La revocacion es atomica: de varias llamadas
+     * concurrentes con el mismo token, solo una devuelve true, lo que permite consumir un token de
+     * refresco una unica vez
+     *
+     * @param idToken claim jti del token
+     * @param expiresAt fecha de expiracion del token
+     * @return true si esta llamada ha revocado el token, false si ya estaba revocado
+     */
+    public boolean revoke(String idToken, Date expiresAt) {
+        // primero el conjunto exacto: un positivo del filtro siempre se confirma en el
+        if (null != expirationById.putIfAbsent(idToken, expiresAt.getTime())){
+            return false;
+        }
+        try {
+            iRevokedTokenRepository.save(new RevokedToken(idToken, expiresAt));
+        } catch (RuntimeException e) {
+            expirationById.remove(idToken);
+            throw e;
+        }
+        bloomFilter.put(idToken);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${jocdedaus.security.revocation.purge-interval:3600000}")
+    public void purgeExpired() {
+        Date now = new Date();
+        iRevokedTokenRepository.deleteExpired(now);
+
+        if (expirationById.values().removeIf(expiresAt -> expiresAt <= now.getTime())){
+            rebuildBloomFilter();
+        }
+    }
+
+    private void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, 2 * expirationById.size()));
+        expirationById.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+
+        // revocaciones concurrentes con la reconstruccion
+        expirationById.keySet().forEach(rebuilt::put);
+    }
+
+    /**
+     * Filtro de Bloom con una probabilidad de falsos positivos del 1% para el numero de elementos
+     * esperado. Los bits se guardan en un AtomicLongArray, por lo que admite lecturas y escrituras
+     * concurrentes sin bloqueos
+     */
+    private static final class BloomFilter {
+
+        private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        private BloomFilter(int expectedInsertions) {
+            long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(FALSE_POSITIVE_PROBABILITY)
+                    / (Math.log(2) * Math.log(2)));
+            int optimalHashes = (int) Math.round((double) optimalBits / expectedInsertions * Math.log(2));
+
+            words = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+            bits = words.length() * 64L;
+            hashes = Math.max(1, optimalHashes);
+        }
+
+        private void put(String value) {
+            long hash = hash(value);
+            for (int i = 0; i < hashes; i++) {
+                long bit = bitIndex(hash, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = words.get(word)) & mask) == 0
+                        && !words.compareAndSet(word, current, current | mask)) {
+                    // reintenta si otro hilo ha modificado la misma palabra
+                }
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash = hash(value);
+            for (int i = 0; i < hashes; i++) {
+                long bit = bitIndex(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // doble hashing: h1 + i * h2, con las dos mitades de un hash de 64 bits
+        private long bitIndex(long hash, int i) {
+            int combined = (int) hash + i * (int) (hash >>> 32);
+            return (combined & Integer.MAX_VALUE) % bits;
+        }
+
+        // FNV-1a de 64 bits con una mezcla final para repartir los bits altos
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
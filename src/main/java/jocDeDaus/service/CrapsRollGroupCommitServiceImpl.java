@@ -0,0 +1,248 @@
+package jocDeDaus.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jocDeDaus.entity.CrapsRoll;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Clase de la capa Service, implementa la interface ICrapsRollGroupCommitService
+ *
+ * Escritura agrupada de las tiradas individuales: en lugar de una transaccion por peticion, los hilos de las
+ * peticiones dejan la tirada en una cola sin bloqueos (ConcurrentLinkedQueue, varios productores y un unico
+ * consumidor) y un unico hilo escritor las guarda por lotes con ICrapsRollService.saveCrapsRolls, una
+ * transaccion y un INSERT por lotes JDBC para todo el lote. Solo se activa con jocdedaus.group-commit.enabled=true.
+ *
+ * Un lote se cierra al reunir max-batch-size tiradas o max-wait milisegundos despues de encolarse la primera.
+ * Con carga, mientras el escritor guarda un lote se acumula el siguiente, que sale sin esperar; sin carga,
+ * cada tirada espera como maximo max-wait. Con mas de queue-capacity tiradas en cola, la tirada se rechaza
+ * con TaskRejectedException (503).
+ *
+ * El futuro de cada tirada se completa, en el hilo escritor, cuando su lote se ha confirmado. Si el lote
+ * falla (por ejemplo, un jugador eliminado mientras su tirada estaba en cola), sus tiradas se guardan una
+ * a una para que el error solo llegue a las peticiones afectadas.
+ *
+ * Publica las metricas jocdedaus.groupcommit.queue.depth, jocdedaus.groupcommit.batch.size,
+ * jocdedaus.groupcommit.wait (desde que se encola la tirada hasta que se confirma su lote),
+ * jocdedaus.groupcommit.commit y jocdedaus.groupcommit.rejected
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @ConditionalOnProperty
+ * El servicio solo se crea si jocdedaus.group-commit.enabled=true
+ *
+ * @PostConstruct / @PreDestroy
+ * Arranca el hilo escritor; al parar, el escritor guarda las tiradas que queden en cola y termina. Las
+ * tiradas encoladas despues de la ultima comprobacion del escritor se rechazan (TaskRejectedException)
+ *
+ */
+
+@Service
+@ConditionalOnProperty(name = "jocdedaus.group-commit.enabled", havingValue = "true")
+public class CrapsRollGroupCommitServiceImpl implements ICrapsRollGroupCommitService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CrapsRollGroupCommitServiceImpl.class);
+
+    @Autowired
+    ICrapsRollService iCrapsRollService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${jocdedaus.group-commit.max-batch-size:100}")
+    int maxBatchSize;
+
+    @Value("${jocdedaus.group-commit.max-wait:5}")
+    long maxWait;
+
+    @Value("${jocdedaus.group-commit.queue-capacity:10000}")
+    int queueCapacity;
+
+    private final ConcurrentLinkedQueue<PendingCrapsRoll> queue = new ConcurrentLinkedQueue<>();
+
+    // ConcurrentLinkedQueue.size() recorre toda la cola: la profundidad se cuenta aparte
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    private Counter rejected;
+    private DistributionSummary batchSize;
+    private Timer commitTime;
+    private Timer waitTime;
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("jocdedaus.groupcommit.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Rolls waiting for the group commit writer")
+                .register(meterRegistry);
+        rejected = Counter.builder("jocdedaus.groupcommit.rejected")
+                .description("Rolls rejected because the group commit queue was full")
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("jocdedaus.groupcommit.batch.size")
+                .description("Rolls saved per group commit transaction")
+                .register(meterRegistry);
+        commitTime = Timer.builder("jocdedaus.groupcommit.commit")
+                .description("Time to save and commit a group commit batch")
+                .register(meterRegistry);
+        waitTime = Timer.builder("jocdedaus.groupcommit.wait")
+                .description("Time from enqueueing a roll until its batch commits")
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::writeBatches, "group-commit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+
+        // tiradas encoladas despues de que el escritor comprobara la cola por ultima vez
+        PendingCrapsRoll pendingCrapsRoll;
+        while (null != (pendingCrapsRoll = queue.poll())) {
+            queueDepth.decrementAndGet();
+            pendingCrapsRoll.future.completeExceptionally(
+                    new TaskRejectedException("The group commit writer is stopped"));
+        }
+    }
+
+    @Override
+    public CompletableFuture<CrapsRoll> submitCrapsRoll(CrapsRoll crapsRoll) {
+        if (!running){
+            throw new TaskRejectedException("The group commit writer is stopped");
+        }
+        if (queueDepth.incrementAndGet() > queueCapacity){
+            queueDepth.decrementAndGet();
+            rejected.increment();
+            throw new TaskRejectedException("The group commit queue is full");
+        }
+
+        PendingCrapsRoll pendingCrapsRoll = new PendingCrapsRoll(crapsRoll);
+        queue.offer(pendingCrapsRoll);
+        // si stop() ha empezado mientras tanto y nadie ha sacado la tirada de la cola, ya no la sacara nadie:
+        // quien la saque (el escritor o stop()) completa su future
+        if (!running && queue.remove(pendingCrapsRoll)){
+            queueDepth.decrementAndGet();
+            throw new TaskRejectedException("The group commit writer is stopped");
+        }
+        LockSupport.unpark(writer);
+        return pendingCrapsRoll.future;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    private void writeBatches() {
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWait);
+        List<PendingCrapsRoll> batch = new ArrayList<>(maxBatchSize);
+
+        while (running || !queue.isEmpty()) {
+            PendingCrapsRoll first = queue.poll();
+            if (null == first){
+                // submitCrapsRoll despierta al escritor despues de encolar: no se pierde ninguna tirada
+                LockSupport.park(this);
+                continue;
+            }
+
+            batch.add(first);
+            long deadline = first.enqueued + maxWaitNanos;
+            while (batch.size() < maxBatchSize) {
+                PendingCrapsRoll next = queue.poll();
+                if (null != next){
+                    batch.add(next);
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !running){
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            queueDepth.addAndGet(-batch.size());
+
+            try {
+                commit(batch);
+            } catch (Throwable t) {
+                // un Error no debe terminar el hilo escritor: fallan las tiradas del lote y el resto sigue
+                logger.error("Group commit of {} rolls failed", batch.size(), t);
+                batch.forEach(p -> p.future.completeExceptionally(t));
+            }
+            batch.clear();
+        }
+    }
+
+    private void commit(List<PendingCrapsRoll> batch) {
+        batchSize.record(batch.size());
+        List<CrapsRoll> crapsRolls = batch.stream().map(p -> p.crapsRoll).collect(Collectors.toList());
+
+        try {
+            commitTime.record(() -> iCrapsRollService.saveCrapsRolls(crapsRolls));
+            batch.forEach(this::complete);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1){
+                batch.get(0).future.completeExceptionally(e);
+                return;
+            }
+
+            logger.warn("Group commit of {} rolls failed, saving them one by one", batch.size(), e);
+            for (PendingCrapsRoll pendingCrapsRoll : batch) {
+                // la transaccion del lote se deshizo, pero la tirada conserva el identificador que recibio
+                pendingCrapsRoll.crapsRoll.setIdCrapsRoll(null);
+                try {
+                    iCrapsRollService.saveCrapsRoll(pendingCrapsRoll.crapsRoll);
+                    complete(pendingCrapsRoll);
+                } catch (RuntimeException ex) {
+                    pendingCrapsRoll.future.completeExceptionally(ex);
+                }
+            }
+        }
+    }
+
+    private void complete(PendingCrapsRoll pendingCrapsRoll) {
+        waitTime.record(System.nanoTime() - pendingCrapsRoll.enqueued, TimeUnit.NANOSECONDS);
+        pendingCrapsRoll.future.complete(pendingCrapsRoll.crapsRoll);
+    }
+
+    private static final class PendingCrapsRoll {
+
+        private final CrapsRoll crapsRoll;
+        private final CompletableFuture<CrapsRoll> future = new CompletableFuture<>();
+        private final long enqueued = System.nanoTime();
+
+        private PendingCrapsRoll(CrapsRoll crapsRoll) {
+            this.crapsRoll = crapsRoll;
+        }
+    }
+}
@@ -1,11 +1,27 @@
 package jocDeDaus.service;
 
 import jocDeDaus.entity.CrapsRoll;
+import jocDeDaus.entity.Game;
 import jocDeDaus.entity.Player;
 import jocDeDaus.repository.ICrapsRollRepository;
+import jocDeDaus.repository.IPlayerRepository;
+import jocDeDaus.util.SecondLevelCache;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
 
 
 /**
@@ -23,6 +39,15 @@ import java.util.*;
  * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
  * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
  *
+ * @PersistenceContext
+ * Inyecta el EntityManager compartido, utilizado para insertar las tiradas multiples por lotes
+ *
+ * @Transactional
+ * Describe un atributo de transaccion en un metodo. La tirada, su partida y la reserva del identificador
+ * de partida se confirman en una unica transaccion, junto con los contadores de tiradas del jugador
+ * (IPlayerStatisticsService). El borrado de todas las tiradas de un jugador, en cambio, no es transaccional:
+ * cada tramo de jocdedaus.purge.chunk-size tiradas se confirma por separado (TransactionTemplate)
+ *
  */
 
 @Service
@@ -31,19 +56,201 @@ public class CrapsRollServiceImpl implements ICrapsRollService {
     @Autowired
     ICrapsRollRepository iCrapsRollRepository;
 
+    @Autowired
+    IRankingService iRankingService;
+
+    @Autowired
+    IIdAllocationService iIdAllocationService;
+
+    @Autowired
+    SecondLevelCache secondLevelCache;
+
+    @Autowired
+    IPlayerRepository iPlayerRepository;
+
+    @Autowired
+    IPlayerStatisticsService iPlayerStatisticsService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    // diario de tiradas, solo con jocdedaus.journal.enabled=true; se resuelve al usarlo, ya que el diario
+    // depende a su vez de este servicio
+    @Autowired
+    ObjectProvider<IRollJournalService> iRollJournalService;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${jocdedaus.purge.chunk-size:1000}")
+    int purgeChunkSize;
+
+    // el contexto de persistencia se vacia en cada lote JDBC de Hibernate
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    int batchSize;
 
     @Override
+    @Transactional
     public CrapsRoll saveCrapsRoll(CrapsRoll crapsRoll) {
-        return iCrapsRollRepository.save(crapsRoll);
+        iPlayerStatisticsService.addCrapsRolls(List.of(crapsRoll));
+
+        Game game = crapsRoll.getGame();
+
+        if (null != game){
+            game.setIdGame(iIdAllocationService.allocateIdGames(game.getIdPlayer(), 1));
+            game.setCrapsRoll(crapsRoll);
+        }
+
+        CrapsRoll savedCrapsRoll = iCrapsRollRepository.save(crapsRoll);
+
+        if (null != game){
+            game.setIdCrapsRoll(savedCrapsRoll.getIdCrapsRoll());
+            afterCommit(() -> iRankingService.recordGame(game.getIdPlayer(), game.getGameResult()));
+        }
+        afterCommit(() -> secondLevelCache.evictPlayerCollections(savedCrapsRoll.getIdPlayer()));
+        return savedCrapsRoll;
     }
 
     @Override
-    public void deleteCrapsRollsByPlayer(List<CrapsRoll> crapsRolls) {
-        iCrapsRollRepository.deleteInBatch(crapsRolls);
+    @Transactional
+    public List<CrapsRoll> saveCrapsRolls(List<CrapsRoll> crapsRolls) {
+        iPlayerStatisticsService.addCrapsRolls(crapsRolls);
+
+        Map<Long, List<Game>> gamesByPlayer = crapsRolls.stream()
+                .map(CrapsRoll::getGame)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Game::getIdPlayer, LinkedHashMap::new, Collectors.toList()));
+
+        // un unico UPDATE del contador por jugador reserva los identificadores de todas sus partidas
+        gamesByPlayer.forEach((idPlayer, games) -> {
+            long idGame = iIdAllocationService.allocateIdGames(idPlayer, games.size());
+            for (Game game : games) {
+                game.setIdGame(idGame++);
+            }
+        });
+
+        // las tiradas multiples no se guardan en la cache de segundo nivel: desplazarian a las entradas en uso
+        entityManager.setProperty("javax.persistence.cache.storeMode", CacheStoreMode.BYPASS);
+
+        for (int i = 0; i < crapsRolls.size(); i++) {
+            CrapsRoll crapsRoll = crapsRolls.get(i);
+            if (null != crapsRoll.getGame()){
+                crapsRoll.getGame().setCrapsRoll(crapsRoll);
+            }
+            entityManager.persist(crapsRoll);
+
+            // vacia el contexto de persistencia en cada lote para que la memoria no crezca con el numero de tiradas
+            if ((i + 1) % batchSize == 0){
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        gamesByPlayer.forEach((idPlayer, games) -> {
+            games.forEach(g -> g.setIdCrapsRoll(g.getCrapsRoll().getIdCrapsRoll()));
+
+            long wins = games.stream().filter(g -> Boolean.TRUE.equals(g.getGameResult())).count();
+            afterCommit(() -> iRankingService.recordGames(idPlayer, wins, games.size()));
+        });
+        crapsRolls.stream()
+                .map(CrapsRoll::getIdPlayer)
+                .distinct()
+                .forEach(idPlayer -> afterCommit(() -> secondLevelCache.evictPlayerCollections(idPlayer)));
+        return crapsRolls;
     }
 
     @Override
+    @Transactional
+    public int saveJournaledCrapsRolls(List<CrapsRoll> crapsRolls) {
+        // al reproducir el diario tras una caida, parte de las tiradas pueden estar ya en la base de datos;
+        // las de jugadores eliminados mientras estaban en el diario se descartan
+        Set<Long> savedIdCrapsRolls = new HashSet<>(iCrapsRollRepository.findExistingIdCrapsRolls(crapsRolls.stream()
+                .map(CrapsRoll::getIdCrapsRoll)
+                .collect(Collectors.toList())));
+        Set<Long> idPlayers = new HashSet<>(iPlayerRepository.findExistingIdPlayers(crapsRolls.stream()
+                .map(CrapsRoll::getIdPlayer)
+                .collect(Collectors.toSet())));
+
+        Map<Long, List<CrapsRoll>> crapsRollsByPlayer = crapsRolls.stream()
+                .filter(c -> !savedIdCrapsRolls.contains(c.getIdCrapsRoll()) && idPlayers.contains(c.getIdPlayer()))
+                .collect(Collectors.groupingBy(CrapsRoll::getIdPlayer, LinkedHashMap::new, Collectors.toList()));
+
+        iPlayerStatisticsService.addCrapsRolls(crapsRollsByPlayer.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList()));
+
+        List<Object[]> crapsRollRows = new ArrayList<>();
+        List<Object[]> gameRows = new ArrayList<>();
+        crapsRollsByPlayer.forEach((idPlayer, playerCrapsRolls) -> {
+            long idGame = iIdAllocationService.allocateIdGames(idPlayer, playerCrapsRolls.size());
+            long wins = 0;
+            for (CrapsRoll crapsRoll : playerCrapsRolls) {
+                boolean win = crapsRoll.getRollResult() == 7;
+                crapsRollRows.add(new Object[]{crapsRoll.getIdCrapsRoll(), idPlayer, crapsRoll.getCrapOne(),
+                        crapsRoll.getCrapTwo(), crapsRoll.getRollResult()});
+                gameRows.add(new Object[]{idGame++, idPlayer, crapsRoll.getIdCrapsRoll(), win});
+                wins += win ? 1 : 0;
+            }
+
+            long playerWins = wins;
+            afterCommit(() -> iRankingService.recordGames(idPlayer, playerWins, playerCrapsRolls.size()));
+            afterCommit(() -> secondLevelCache.evictPlayerCollections(idPlayer));
+        });
+
+        // identificadores ya asignados: se insertan con JDBC, fuera del contexto de persistencia de Hibernate
+        jdbcTemplate.batchUpdate("INSERT INTO CRAPSROLL (ID_CRAPSROLL, ID_PLAYER, CRAP_ONE, CRAP_TWO, ROLL_RESULT) " +
+                "VALUES (?, ?, ?, ?, ?)", crapsRollRows);
+        jdbcTemplate.batchUpdate("INSERT INTO GAME (ID_GAME, ID_PLAYER, ID_CRAPSROLL, GAME_RESULT) VALUES (?, ?, ?, ?)",
+                gameRows);
+        return crapsRollRows.size();
+    }
+
+    @Override
+    public long deleteAllCrapsRollsByPlayer(Long idPlayer, LongConsumer onChunkDeleted) {
+        // las tiradas anotadas en el diario antes del borrado se vuelcan primero; si no, se insertarian despues
+        // del borrado y el historial eliminado volveria a aparecer
+        iRollJournalService.ifAvailable(IRollJournalService::flush);
+
+        long deleted = 0;
+        List<Long> chunk;
+        do {
+            // cada tramo se confirma en su propia transaccion: los bloqueos duran lo que tarda un tramo
+            chunk = iCrapsRollRepository.findIdCrapsRollsByPlayer(idPlayer, PageRequest.of(0, purgeChunkSize));
+            if (!chunk.isEmpty()){
+                Long upTo = chunk.get(chunk.size() - 1);
+                // los contadores del jugador se descuentan en la misma transaccion que borra el tramo
+                int count = transactionTemplate.execute(status -> {
+                    iPlayerStatisticsService.removeCrapsRollsUpTo(idPlayer, upTo);
+                    return iCrapsRollRepository.deleteCrapsRollsByPlayerUpTo(idPlayer, upTo);
+                });
+                secondLevelCache.evictCrapsRolls(idPlayer);
+                deleted += count;
+                onChunkDeleted.accept(count);
+            }
+        } while (chunk.size() == purgeChunkSize);
+
+        iRankingService.refreshPlayer(idPlayer);
+        return deleted;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<CrapsRoll> listCrapsRollsByPlayer(Player player) {
         return iCrapsRollRepository.findCrapsRollsByPlayer(player);
     }
+
+    // Los contadores en memoria solo se actualizan si la transaccion se confirma
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
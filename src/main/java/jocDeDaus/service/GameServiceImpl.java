@@ -1,10 +1,18 @@
 package jocDeDaus.service;
 
 import jocDeDaus.entity.Game;
+import jocDeDaus.util.SecondLevelCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import jocDeDaus.repository.IGameRepository;
+import jocDeDaus.repository.IGameView;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Clase de la capa Service, implementa la interface IGameService
@@ -21,6 +29,11 @@ import java.util.List;
  * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
  * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
  *
+ * @Transactional
+ * Describe un atributo de transaccion en un metodo. Las consultas que devuelven un Stream necesitan una
+ * transaccion abierta mientras se recorre el resultado, ya que mantienen abierta la conexion JDBC.
+ * El borrado de todas las partidas de un jugador no es transaccional: cada tramo se confirma por separado
+ *
  */
 
 @Service
@@ -29,9 +42,52 @@ public class GameServiceImpl implements IGameService {
     @Autowired
     IGameRepository iGameRepository;
 
+    @Autowired
+    SecondLevelCache secondLevelCache;
+
+    @Value("${jocdedaus.purge.chunk-size:1000}")
+    int purgeChunkSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Game> listGamesPage(Long afterPlayer, Long afterGame, int limit) {
+        // sin cursor completo se empieza por la primera partida: los identificadores empiezan en 1
+        boolean first = null == afterPlayer || null == afterGame;
+        return iGameRepository.findGamesAfter(first ? 0L : afterPlayer, first ? 0L : afterGame, PageRequest.of(0, limit))
+                .stream()
+                .map(this::toGame)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachGame(Consumer<Game> action) {
+        try (Stream<IGameView> games = iGameRepository.streamAllOrderByIdPlayer()) {
+            games.map(this::toGame).forEach(action);
+        }
+    }
+
     @Override
-    public List<Game> allGames() {
-        return iGameRepository.findAll();
+    public long deleteAllGamesByPlayer(Long idPlayer) {
+        long deleted = 0;
+        List<Long> chunk;
+        do {
+            chunk = iGameRepository.findIdGamesByPlayer(idPlayer, PageRequest.of(0, purgeChunkSize));
+            if (!chunk.isEmpty()){
+                deleted += iGameRepository.deleteGamesByPlayerUpTo(idPlayer, chunk.get(chunk.size() - 1));
+                secondLevelCache.evictPlayerCollections(idPlayer);
+            }
+        } while (chunk.size() == purgeChunkSize);
+        return deleted;
+    }
+
+    private Game toGame(IGameView gameView) {
+        Game game = new Game();
+        game.setIdGame(gameView.getIdGame());
+        game.setIdPlayer(gameView.getIdPlayer());
+        game.setIdCrapsRoll(gameView.getIdCrapsRoll());
+        game.setGameResult(gameView.getGameResult());
+        return game;
     }
 
     @Override
@@ -0,0 +1,16 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.CrapsRoll;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface ICrapsRollGroupCommitService {
+
+    CompletableFuture<CrapsRoll> submitCrapsRoll(CrapsRoll crapsRoll); // enqueue crapsRoll with its game, completed once the batch that contains it commits
+
+    int getQueueDepth(); // crapsRolls waiting for the writer
+}
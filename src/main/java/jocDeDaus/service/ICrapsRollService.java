@@ -3,6 +3,7 @@ package jocDeDaus.service;
 import jocDeDaus.entity.CrapsRoll;
 import jocDeDaus.entity.Player;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 /**
  * Interface de la capa Service
@@ -13,7 +14,11 @@ public interface ICrapsRollService {
 
     CrapsRoll saveCrapsRoll(CrapsRoll crapsRoll); // save crapsRoll
 
-    void deleteCrapsRollsByPlayer(List<CrapsRoll> crapsRolls); // delete crapsRolls by player
+    List<CrapsRoll> saveCrapsRolls(List<CrapsRoll> crapsRolls); // save crapsRolls with JDBC batch inserts, in one transaction
+
+    int saveJournaledCrapsRolls(List<CrapsRoll> crapsRolls); // save crapsRolls whose ids were assigned by the roll journal, with their games, skipping those already saved
+
+    long deleteAllCrapsRollsByPlayer(Long idPlayer, LongConsumer onChunkDeleted); // delete all crapsRolls of a player without loading them, in chunks committed one by one
 
     List<CrapsRoll> listCrapsRollsByPlayer(Player player); // list all crapsRolls by player
 
@@ -2,6 +2,7 @@ package jocDeDaus.service;
 
 import jocDeDaus.entity.Game;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface de la capa Service
@@ -12,5 +13,9 @@ public interface IGameService {
 
     Long countAll(); // count all games
 
-    List<Game> allGames(); // get all games
+    List<Game> listGamesPage(Long afterPlayer, Long afterGame, int limit); // get at most limit games after the game (afterPlayer, afterGame), ordered by player and game
+
+    void forEachGame(Consumer<Game> action); // stream all games, ordered by player, without loading them in memory
+
+    long deleteAllGamesByPlayer(Long idPlayer); // delete all games of a player without loading them, in chunks committed one by one
 }
@@ -0,0 +1,17 @@
+package jocDeDaus.service;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface IIdAllocationService {
+
+    void registerPlayer(Long idPlayer); // create the game counter of a new player
+
+    Long allocateIdGames(Long idPlayer, int count); // reserve count consecutive game ids, returns the first one
+
+    Long allocateIdCrapsRolls(int count); // reserve count consecutive crapsRoll ids outside Hibernate, returns the first one
+
+    void reserveIdCrapsRollsUpTo(Long idCrapsRoll); // make sure crapsRoll ids up to idCrapsRoll are never allocated again
+}
@@ -15,7 +15,17 @@ public interface IPlayerService {
 
     Optional<Player> findPlayerById(Long idPlayer); // find player by Id
 
+    Optional<Player> renamePlayer(Long idPlayer, String name); // change the name of an existing player
+
+    Double findPlayerSuccessRanking(Long idPlayer); // compute the success ranking of a player with a single query
+
+    Optional<Long> findNickNameConflict(String name); // find the Id of a player whose name contains the given one
+
     List<Player> listPlayers(); // list all players
 
+    List<Player> listPlayersPage(Long after, int limit); // list a page of players with their ranking, by Id
+
+    List<Player> listPlayersById(List<Long> idPlayers); // list players by Id, in the given order
+
     void deletePlayer(Player player); // delete a player
 }
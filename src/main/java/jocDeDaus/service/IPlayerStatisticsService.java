@@ -0,0 +1,18 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.CrapsRoll;
+import java.util.List;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface IPlayerStatisticsService {
+
+    void addCrapsRolls(List<CrapsRoll> crapsRolls); // add crapsRolls to the TOTAL_ROLLS and TOTAL_WINS counters of their players, in the caller's transaction
+
+    void removeCrapsRollsUpTo(Long idPlayer, Long upTo); // subtract the crapsRolls of a player with id up to upTo, in the caller's transaction that deletes them
+
+    long rebuildStatistics(); // recompute the counters of all players from CRAPSROLL, returns the number of players
+}
@@ -0,0 +1,19 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.Purge;
+
+import java.util.Optional;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface IPurgeService {
+
+    Purge startCrapsRollsPurge(Long idPlayer); // delete all crapsRolls of a player in the background, or return the purge in progress
+
+    Optional<Purge> findCrapsRollsPurge(Long idPlayer); // progress of the last crapsRolls purge of a player
+
+    void removePurge(Long idPlayer); // forget the purges of a deleted player
+}
@@ -0,0 +1,39 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.PlayerStats;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface IRankingService {
+
+    void registerPlayer(Long idPlayer); // add a player without games to the ranking
+
+    void recordGame(Long idPlayer, Boolean gameResult); // add a new game to the player counters
+
+    void recordGames(Long idPlayer, long wins, long total); // add several games to the player counters
+
+    void refreshPlayer(Long idPlayer); // reload the player counters from the PLAYER table
+
+    void reloadRanking(); // reload the counters of all players from the PLAYER table
+
+    void removePlayer(Long idPlayer); // remove the player counters
+
+    Optional<PlayerStats> findPlayerStats(Long idPlayer); // get the player counters
+
+    Double averageRankingAllPlayers(); // average success ranking of all players
+
+    Optional<PlayerStats> bestPlayer(); // player with the best success ranking
+
+    Optional<PlayerStats> worstPlayer(); // player with the worst success ranking
+
+    List<PlayerStats> bestPlayers(int limit); // top N players, best first
+
+    List<PlayerStats> worstPlayers(int limit); // bottom N players, worst first
+
+    List<PlayerStats> allPlayers(); // sorted copy of the counters of all players, worst first
+}
@@ -0,0 +1,15 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.RankingSnapshot;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface IRankingSnapshotService {
+
+    RankingSnapshot getSnapshot(); // last published snapshot, rebuilt first if it is older than the staleness bound
+
+    RankingSnapshot refresh(); // build and publish a new snapshot now
+}
@@ -0,0 +1,17 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.CrapsRoll;
+
+/**
+ * Interface de la capa Service
+ *
+ */
+
+public interface IRollJournalService {
+
+    CrapsRoll appendCrapsRoll(CrapsRoll crapsRoll); // assign an id to crapsRoll and append it durably to the journal, saved later in the background
+
+    int flush(); // save the pending journal records in the database, returns how many were flushed
+
+    long countPending(); // journal records not yet saved in the database
+}
@@ -0,0 +1,96 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.GameCounter;
+import jocDeDaus.repository.IGameCounterRepository;
+import jocDeDaus.repository.IGameRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Clase de la capa Service, implementa la interface IIdAllocationService
+ *
+ * Asigna los identificadores de partida (ID_GAME) de cada jugador a partir de un contador por jugador,
+ * tabla GAME_COUNTER, en lugar de recorrer las tiradas del jugador para buscar el maximo.
+ *
+ * El incremento del contador es una unica sentencia UPDATE que bloquea la fila del jugador hasta el final
+ * de la transaccion que la invoca, por lo que dos tiradas concurrentes del mismo jugador nunca obtienen
+ * el mismo identificador. Se puede reservar un bloque de identificadores consecutivos con un solo UPDATE.
+ *
+ * Los identificadores de las tiradas (ID_CRAPSROLL) los asigna Hibernate por bloques desde la tabla
+ * CRAPSROLL_SEQ, ver la entidad CrapsRoll. El diario de tiradas (IRollJournalService) reserva sus propios
+ * bloques de la misma tabla, con el mismo criterio que el optimizador pooled-lo: NEXT_VAL es el primer
+ * identificador libre. Se hace con JdbcTemplate y no con una consulta nativa de Hibernate, que vaciaria
+ * toda la cache de segundo nivel al no saber que tablas modifica.
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ * @Transactional
+ * Describe un atributo de transaccion en un metodo. La reserva de identificadores se une a la transaccion
+ * del llamante, que es la que inserta las partidas
+ *
+ */
+
+@Service
+public class IdAllocationServiceImpl implements IIdAllocationService {
+
+    @Autowired
+    IGameCounterRepository iGameCounterRepository;
+
+    @Autowired
+    IGameRepository iGameRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void registerPlayer(Long idPlayer) {
+        if (!iGameCounterRepository.existsById(idPlayer)){
+            iGameCounterRepository.save(new GameCounter(idPlayer, 0L));
+        }
+    }
+
+    @Override
+    @Transactional
+    public Long allocateIdGames(Long idPlayer, int count) {
+        int updated = iGameCounterRepository.incrementLastIdGame(idPlayer, (long) count);
+
+        if (updated == 0){
+            // jugador anterior a la tabla GAME_COUNTER: el contador parte de su mayor ID_GAME
+            Long maxIdGame = iGameRepository.findMaxIdGameByPlayer(idPlayer);
+            long lastIdGame = (null == maxIdGame ? 0 : maxIdGame) + count;
+
+            iGameCounterRepository.saveAndFlush(new GameCounter(idPlayer, lastIdGame));
+            return lastIdGame - count + 1;
+        }
+
+        return iGameCounterRepository.findLastIdGame(idPlayer) - count + 1;
+    }
+
+    @Override
+    @Transactional
+    public Long allocateIdCrapsRolls(int count) {
+        // SELECT ... FOR UPDATE bloquea la fila frente a Hibernate y a otras instancias hasta el final de la transaccion
+        Long nextIdCrapsRoll = jdbcTemplate.queryForObject("SELECT NEXT_VAL FROM CRAPSROLL_SEQ FOR UPDATE", Long.class);
+        jdbcTemplate.update("UPDATE CRAPSROLL_SEQ SET NEXT_VAL = ?", nextIdCrapsRoll + count);
+        return nextIdCrapsRoll;
+    }
+
+    @Override
+    @Transactional
+    public void reserveIdCrapsRollsUpTo(Long idCrapsRoll) {
+        jdbcTemplate.update("UPDATE CRAPSROLL_SEQ SET NEXT_VAL = ? WHERE NEXT_VAL <= ?", idCrapsRoll + 1, idCrapsRoll);
+    }
+}
@@ -1,11 +1,24 @@
 package jocDeDaus.service;
 
+import jocDeDaus.repository.IPlayerRollStats;
+import jocDeDaus.util.IUtilities;
+import jocDeDaus.util.NickNameIndex;
+import jocDeDaus.util.SecondLevelCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import jocDeDaus.entity.Player;
 import jocDeDaus.repository.IPlayerRepository;
+import javax.annotation.PostConstruct;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Clase de la capa Service, implementa la interface IPlayerService
@@ -22,6 +35,14 @@ import java.util.Optional;
  * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
  * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
  *
+ * @Transactional
+ * Describe un atributo de transaccion en un metodo. El cambio de nombre se aplica sobre la entidad gestionada,
+ * sin fusionar (merge) un jugador separado junto con sus colecciones de tiradas y partidas
+ *
+ * @PostConstruct
+ * Marca el metodo que se ejecuta una vez realizada la inyeccion de dependencias, antes de que el
+ * bean quede disponible. Carga el indice de nombres de los jugadores
+ *
  */
 
 @Service
@@ -30,10 +51,46 @@ public class PlayerServiceImpl implements IPlayerService {
     @Autowired
     IPlayerRepository iPlayerRepository;
 
+    @Autowired
+    IRankingService iRankingService;
+
+    @Autowired
+    IUtilities iUtilities;
+
+    @Autowired
+    IIdAllocationService iIdAllocationService;
+
+    @Autowired
+    NickNameIndex nickNameIndex;
+
+    @Autowired
+    SecondLevelCache secondLevelCache;
+
+    @Autowired
+    ICrapsRollService iCrapsRollService;
+
+    @Autowired
+    IGameService iGameService;
+
+    @Autowired
+    IPurgeService iPurgeService;
+
+    @PostConstruct
+    public void loadNickNames() {
+        iPlayerRepository.findAllNames().forEach(p -> nickNameIndex.put(p.getIdPlayer(), p.getName()));
+    }
 
     @Override
     public Player savePlayer(Player player) {
-        return iPlayerRepository.save(player);
+        boolean newPlayer = null == player.getIdPlayer();
+
+        Player savedPlayer = iPlayerRepository.save(player);
+        if (newPlayer){
+            iIdAllocationService.registerPlayer(savedPlayer.getIdPlayer());
+        }
+        iRankingService.registerPlayer(savedPlayer.getIdPlayer());
+        nickNameIndex.put(savedPlayer.getIdPlayer(), savedPlayer.getName());
+        return savedPlayer;
     }
 
     @Override
@@ -42,12 +99,94 @@ public class PlayerServiceImpl implements IPlayerService {
     }
 
     @Override
+    @Transactional
+    public Optional<Player> renamePlayer(Long idPlayer, String name) {
+        return iPlayerRepository.findById(idPlayer)
+                .map(player -> {
+                    player.setName(name);
+                    // el indice unico de la base de datos se comprueba con el flush; el indice de nombres solo
+                    // cambia si la transaccion se confirma
+                    iPlayerRepository.saveAndFlush(player);
+                    afterCommit(() -> nickNameIndex.put(player.getIdPlayer(), player.getName()));
+                    return player;
+                });
+    }
+
+    @Override
+    public Double findPlayerSuccessRanking(Long idPlayer) {
+        return iPlayerRepository.findPlayerRollStats(idPlayer)
+                .map(this::toPlayer)
+                .map(Player::getRanking)
+                .orElse(0.0);
+    }
+
+    @Override
+    public Optional<Long> findNickNameConflict(String name) {
+        return nickNameIndex.findConflict(name);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Player> listPlayers() {
         return iPlayerRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Player> listPlayersPage(Long after, int limit) {
+        List<IPlayerRollStats> playersRollStats = iPlayerRepository.findPlayersRollStatsAfter(
+                null == after ? 0L : after, PageRequest.of(0, limit));
+
+        return playersRollStats.stream()
+                .map(this::toPlayer)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Player> listPlayersById(List<Long> idPlayers) {
+        Map<Long, Player> playersById = iPlayerRepository.findAllById(idPlayers).stream()
+                .collect(Collectors.toMap(Player::getIdPlayer, Function.identity()));
+
+        return idPlayers.stream()
+                .map(playersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void deletePlayer(Player player) {
-        iPlayerRepository.delete(player);
+        // el historial se borra antes por tramos, sin cargar entidades: el borrado en cascada de un jugador con
+        // cientos de miles de tiradas retendria los bloqueos de todas ellas en una sola transaccion.
+        // Las partidas van primero, asi el borrado de las tiradas no tiene que poner a NULL su ID_CRAPSROLL
+        iGameService.deleteAllGamesByPlayer(player.getIdPlayer());
+        iCrapsRollService.deleteAllCrapsRollsByPlayer(player.getIdPlayer(), deleted -> { });
+
+        iPlayerRepository.deletePlayerById(player.getIdPlayer());
+        secondLevelCache.evictPlayer(player.getIdPlayer());
+        // la foto del ranking descarta al leerla a los jugadores que ya no estan en IRankingService
+        iRankingService.removePlayer(player.getIdPlayer());
+        iPurgeService.removePurge(player.getIdPlayer());
+        nickNameIndex.remove(player.getIdPlayer());
+    }
+
+    private Player toPlayer(IPlayerRollStats playerRollStats) {
+        Player player = new Player();
+        player.setIdPlayer(playerRollStats.getIdPlayer());
+        player.setEntryDate(playerRollStats.getEntryDate());
+        player.setName(playerRollStats.getName());
+        player.setRanking(iUtilities.computeSuccessRanking(
+                null == playerRollStats.getWins() ? 0 : playerRollStats.getWins(),
+                null == playerRollStats.getTotal() ? 0 : playerRollStats.getTotal()));
+        return player;
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -0,0 +1,133 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.CrapsRoll;
+import jocDeDaus.repository.IPlayerRepository;
+import jocDeDaus.util.SecondLevelCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Clase de la capa Service, implementa la interface IPlayerStatisticsService
+ *
+ * Mantiene los contadores TOTAL_ROLLS y TOTAL_WINS de la tabla PLAYER, de forma que el porcentaje de exito
+ * de un jugador se obtiene leyendo dos columnas en lugar de agregar sus tiradas.
+ *
+ * Cada incremento o decremento es una unica sentencia UPDATE, sin leer antes el valor, que bloquea la fila
+ * del jugador hasta el final de la transaccion que inserta o borra las tiradas: los contadores cambian a la
+ * vez que las tiradas o no cambian. Debe ser la primera sentencia de esa transaccion, antes de reservar los
+ * identificadores de partida y de insertar las tiradas, y con varios jugadores se actualizan en orden de
+ * identificador, de modo que dos transacciones nunca se bloquean mutuamente.
+ *
+ * Se hace con JdbcTemplate, como CRAPSROLL_SEQ en IIdAllocationService: una sentencia de Hibernate sobre
+ * PLAYER vaciaria la region completa de jugadores de la cache de segundo nivel. Tras confirmar, solo se
+ * invalida el jugador modificado.
+ *
+ * rebuildStatistics recalcula los contadores a partir de CRAPSROLL, por tramos de jugadores, cada uno
+ * confirmado por separado (arranque con --rebuild-statistics)
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ * @Transactional
+ * Describe un atributo de transaccion en un metodo. Propagation.MANDATORY: los contadores solo se modifican
+ * dentro de la transaccion que inserta o borra las tiradas
+ *
+ */
+
+@Service
+public class PlayerStatisticsServiceImpl implements IPlayerStatisticsService {
+
+    private static final String REBUILD_STATISTICS = "UPDATE PLAYER p SET " +
+            "TOTAL_ROLLS = (SELECT COUNT(*) FROM CRAPSROLL c WHERE c.ID_PLAYER = p.ID_PLAYER), " +
+            "TOTAL_WINS = (SELECT COUNT(*) FROM CRAPSROLL c WHERE c.ID_PLAYER = p.ID_PLAYER AND c.ROLL_RESULT = 7) " +
+            "WHERE p.ID_PLAYER BETWEEN ? AND ?";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    IPlayerRepository iPlayerRepository;
+
+    @Autowired
+    SecondLevelCache secondLevelCache;
+
+    @Value("${jocdedaus.statistics.rebuild-chunk-size:1000}")
+    int rebuildChunkSize;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addCrapsRolls(List<CrapsRoll> crapsRolls) {
+        // TreeMap: las filas de PLAYER se bloquean en orden de identificador
+        Map<Long, long[]> countersByPlayer = new TreeMap<>();
+        for (CrapsRoll crapsRoll : crapsRolls) {
+            long[] counters = countersByPlayer.computeIfAbsent(crapsRoll.getIdPlayer(), id -> new long[2]);
+            counters[0]++;
+            counters[1] += crapsRoll.getRollResult() == 7 ? 1 : 0;
+        }
+
+        List<Object[]> rows = new ArrayList<>(countersByPlayer.size());
+        countersByPlayer.forEach((idPlayer, counters) -> rows.add(new Object[]{counters[0], counters[1], idPlayer}));
+
+        jdbcTemplate.batchUpdate("UPDATE PLAYER SET TOTAL_ROLLS = TOTAL_ROLLS + ?, TOTAL_WINS = TOTAL_WINS + ? " +
+                "WHERE ID_PLAYER = ?", rows);
+
+        countersByPlayer.keySet().forEach(idPlayer -> afterCommit(() -> secondLevelCache.evictPlayerStatistics(idPlayer)));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeCrapsRollsUpTo(Long idPlayer, Long upTo) {
+        jdbcTemplate.update("UPDATE PLAYER p SET " +
+                "TOTAL_ROLLS = TOTAL_ROLLS - (SELECT COUNT(*) FROM CRAPSROLL c " +
+                "WHERE c.ID_PLAYER = p.ID_PLAYER AND c.ID_CRAPSROLL <= ?), " +
+                "TOTAL_WINS = TOTAL_WINS - (SELECT COUNT(*) FROM CRAPSROLL c " +
+                "WHERE c.ID_PLAYER = p.ID_PLAYER AND c.ID_CRAPSROLL <= ? AND c.ROLL_RESULT = 7) " +
+                "WHERE p.ID_PLAYER = ?", upTo, upTo, idPlayer);
+
+        afterCommit(() -> secondLevelCache.evictPlayerStatistics(idPlayer));
+    }
+
+    @Override
+    public long rebuildStatistics() {
+        List<Long> idPlayers = iPlayerRepository.findAllIdPlayersOrderById();
+
+        for (int from = 0; from < idPlayers.size(); from += rebuildChunkSize) {
+            int to = Math.min(from + rebuildChunkSize, idPlayers.size()) - 1;
+            // sin transaccion: cada tramo se confirma al ejecutarse
+            jdbcTemplate.update(REBUILD_STATISTICS, idPlayers.get(from), idPlayers.get(to));
+        }
+
+        secondLevelCache.evictPlayers();
+        return idPlayers.size();
+    }
+
+    // la cache de segundo nivel solo se invalida si la transaccion se confirma
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.Purge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Clase de la capa Service, implementa la interface IPurgeService
+ *
+ * Borrado en segundo plano de las tiradas de un jugador, en el ejecutor purgeExecutor. Las tiradas se
+ * borran por tramos (ICrapsRollService.deleteAllCrapsRollsByPlayer) y el progreso se consulta mientras
+ * tanto. Solo hay un borrado en curso por jugador: pedir otro devuelve el que ya esta en marcha.
+ * Se guarda el ultimo borrado de cada jugador hasta que el jugador se elimina
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ */
+
+@Service
+public class PurgeServiceImpl implements IPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurgeServiceImpl.class);
+
+    @Autowired
+    ICrapsRollService iCrapsRollService;
+
+    @Autowired
+    ThreadPoolTaskExecutor purgeExecutor;
+
+    private final ConcurrentMap<Long, Purge> purges = new ConcurrentHashMap<>();
+
+    @Override
+    public Purge startCrapsRollsPurge(Long idPlayer) {
+        Purge newPurge = new Purge(idPlayer);
+        Purge purge = purges.compute(idPlayer, (id, current) ->
+                null != current && current.isRunning() ? current : newPurge);
+
+        if (purge == newPurge){
+            try {
+                purgeExecutor.execute(() -> purgeCrapsRolls(purge));
+            } catch (TaskRejectedException e) {
+                purges.remove(idPlayer, purge);
+                throw e;
+            }
+        }
+        return purge;
+    }
+
+    @Override
+    public Optional<Purge> findCrapsRollsPurge(Long idPlayer) {
+        return Optional.ofNullable(purges.get(idPlayer));
+    }
+
+    @Override
+    public void removePurge(Long idPlayer) {
+        purges.remove(idPlayer);
+    }
+
+    private void purgeCrapsRolls(Purge purge) {
+        try {
+            iCrapsRollService.deleteAllCrapsRollsByPlayer(purge.getIdPlayer(), purge::addDeletedCrapsRolls);
+            purge.complete();
+        } catch (RuntimeException e) {
+            logger.error("Purge of the craps rolls of player {} failed after {} deleted",
+                    purge.getIdPlayer(), purge.getDeletedCrapsRolls(), e);
+            purge.fail();
+        }
+    }
+}
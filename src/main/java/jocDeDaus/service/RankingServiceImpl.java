@@ -0,0 +1,265 @@
+package jocDeDaus.service;
+
+import jocDeDaus.entity.PlayerStats;
+import jocDeDaus.repository.IPlayerRepository;
+import jocDeDaus.repository.IPlayerRollStats;
+import jocDeDaus.util.IUtilities;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Clase de la capa Service, implementa la interface IRankingService
+ *
+ * Mantiene en memoria los contadores de tiradas ganadas y totales de cada jugador, y los totales
+ * globales, de forma que el ranking medio de todos los jugadores se obtiene en tiempo constante sin
+ * recorrer la tabla CRAPSROLL.
+ *
+ * Ademas mantiene una clasificacion ordenada (ConcurrentSkipListSet) por porcentaje de exito, con el
+ * identificador del jugador como criterio de desempate, que permite obtener el mejor y el peor jugador,
+ * o los N primeros y ultimos, en tiempo logaritmico.
+ *
+ * Los contadores se cargan al arrancar la aplicacion de las columnas TOTAL_ROLLS y TOTAL_WINS de PLAYER
+ * y despues se actualizan de forma incremental con cada nuevo jugador, nueva partida o eliminacion.
+ *
+ * Publica en Micrometer los contadores jocdedaus.crapsrolls y jocdedaus.crapsrolls.wins (tiradas
+ * confirmadas desde el arranque) y los indicadores jocdedaus.ranking.players y jocdedaus.ranking.average
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @Autowired
+ * Marca un constructor, campo, metodo setter o metodo de configuracion para ser detectado
+ * automaticamente por la funcionalidad de inyeccion de dependencias de Spring
+ *
+ * @PostConstruct
+ * Marca el metodo que se ejecuta una vez realizada la inyeccion de dependencias, antes de que el
+ * bean quede disponible
+ *
+ */
+
+@Service
+public class RankingServiceImpl implements IRankingService {
+
+    private static final Comparator<PlayerStats> RANKING_ORDER =
+            Comparator.comparing(PlayerStats::getRanking).thenComparing(PlayerStats::getIdPlayer);
+
+    @Autowired
+    IPlayerRepository iPlayerRepository;
+
+    @Autowired
+    IUtilities iUtilities;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Counter crapsRollsCounter;
+
+    private Counter winsCounter;
+
+    private final ConcurrentMap<Long, PlayerStats> statsByPlayer = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListSet<PlayerStats> leaderboard = new ConcurrentSkipListSet<>(RANKING_ORDER);
+
+    private final AtomicReference<Totals> totals = new AtomicReference<>(Totals.EMPTY);
+
+    @PostConstruct
+    public void loadRanking() {
+        crapsRollsCounter = Counter.builder("jocdedaus.crapsrolls")
+                .description("Craps rolls committed since startup")
+                .register(meterRegistry);
+        winsCounter = Counter.builder("jocdedaus.crapsrolls.wins")
+                .description("Winning craps rolls committed since startup")
+                .register(meterRegistry);
+        Gauge.builder("jocdedaus.ranking.players", statsByPlayer, Map::size)
+                .description("Players in the ranking")
+                .register(meterRegistry);
+        Gauge.builder("jocdedaus.ranking.average", this, RankingServiceImpl::averageRankingAllPlayers)
+                .description("Average success ranking of all players")
+                .register(meterRegistry);
+
+        reloadRanking();
+    }
+
+    @Override
+    public void reloadRanking() {
+        List<IPlayerRollStats> playersRollStats = iPlayerRepository.findAllPlayersRollStats();
+        playersRollStats.forEach(p -> updatePlayerStats(p.getIdPlayer(), old -> toPlayerStats(p)));
+    }
+
+    @Override
+    public void registerPlayer(Long idPlayer) {
+        updatePlayerStats(idPlayer, old -> old != null ? old : newPlayerStats(idPlayer, 0, 0));
+    }
+
+    @Override
+    public void recordGame(Long idPlayer, Boolean gameResult) {
+        recordGames(idPlayer, Boolean.TRUE.equals(gameResult) ? 1 : 0, 1);
+    }
+
+    @Override
+    public void recordGames(Long idPlayer, long wins, long total) {
+        crapsRollsCounter.increment(total);
+        winsCounter.increment(wins);
+
+        updatePlayerStats(idPlayer, old -> newPlayerStats(idPlayer,
+                (old == null ? 0 : old.getWins()) + wins,
+                (old == null ? 0 : old.getTotal()) + total));
+    }
+
+    @Override
+    public void refreshPlayer(Long idPlayer) {
+        PlayerStats playerStats = iPlayerRepository.findPlayerRollStats(idPlayer)
+                .map(this::toPlayerStats)
+                .orElseGet(() -> newPlayerStats(idPlayer, 0, 0));
+
+        updatePlayerStats(idPlayer, old -> playerStats);
+    }
+
+    @Override
+    public void removePlayer(Long idPlayer) {
+        updatePlayerStats(idPlayer, old -> null);
+    }
+
+    @Override
+    public Optional<PlayerStats> findPlayerStats(Long idPlayer) {
+        return Optional.ofNullable(statsByPlayer.get(idPlayer));
+    }
+
+    @Override
+    public Double averageRankingAllPlayers() {
+        Totals current = totals.get();
+        return iUtilities.computeAverageRanking(current.wins, current.total, current.players);
+    }
+
+    @Override
+    public Optional<PlayerStats> bestPlayer() {
+        try {
+            return Optional.of(leaderboard.last());
+        } catch (NoSuchElementException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<PlayerStats> worstPlayer() {
+        try {
+            // en caso de empate se devuelve el jugador con mayor identificador,
+            // igual que el criterio de reduccion de IUtilities.getWorstPlayer
+            Double worstRanking = leaderboard.first().getRanking();
+            return Optional.ofNullable(leaderboard.floor(new PlayerStats(Long.MAX_VALUE, 0, 0, worstRanking)));
+        } catch (NoSuchElementException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public List<PlayerStats> bestPlayers(int limit) {
+        return firstPlayers(leaderboard.descendingIterator(), limit);
+    }
+
+    @Override
+    public List<PlayerStats> worstPlayers(int limit) {
+        return firstPlayers(leaderboard.iterator(), limit);
+    }
+
+    @Override
+    public List<PlayerStats> allPlayers() {
+        // se copian los contadores y no la clasificacion: updatePlayerStats mueve a un jugador con un remove y
+        // un add, y una copia de la clasificacion entre los dos lo dejaria fuera. statsByPlayer sustituye cada
+        // entrada de forma atomica, de modo que la copia contiene a todos los jugadores
+        List<PlayerStats> players = new ArrayList<>(statsByPlayer.values());
+        players.sort(RANKING_ORDER);
+        return players;
+    }
+
+    private List<PlayerStats> firstPlayers(Iterator<PlayerStats> iterator, int limit) {
+        List<PlayerStats> players = new ArrayList<>(Math.max(0, limit));
+        while (iterator.hasNext() && players.size() < limit) {
+            players.add(iterator.next());
+        }
+        return players;
+    }
+
+    /**
+     * Sustituye de forma atomica los contadores de un jugador, actualizando los totales globales
+     * y su posicion en la clasificacion.
+     * Las modificaciones de un mismo jugador quedan serializadas por ConcurrentHashMap.compute
+     */
+    private void updatePlayerStats(Long idPlayer, UnaryOperator<PlayerStats> update) {
+        statsByPlayer.compute(idPlayer, (id, old) -> {
+            PlayerStats current = update.apply(old);
+
+            totals.updateAndGet(t -> t.remove(old).add(current));
+
+            // RANKING_ORDER solo compara ranking e identificador: con el mismo porcentaje (1/2 y 2/4) add no
+            // sustituiria la entrada anterior, que conservaria los contadores antiguos
+            if (old != null) {
+                leaderboard.remove(old);
+            }
+            if (current != null) {
+                leaderboard.add(current);
+            }
+            return current;
+        });
+    }
+
+    private PlayerStats toPlayerStats(IPlayerRollStats playerRollStats) {
+        long wins = playerRollStats.getWins() == null ? 0 : playerRollStats.getWins();
+        long total = playerRollStats.getTotal() == null ? 0 : playerRollStats.getTotal();
+
+        return newPlayerStats(playerRollStats.getIdPlayer(), wins, total);
+    }
+
+    private PlayerStats newPlayerStats(Long idPlayer, long wins, long total) {
+        return new PlayerStats(idPlayer, wins, total, iUtilities.computeSuccessRanking(wins, total));
+    }
+
+    /**
+     * Totales globales de partidas ganadas, partidas jugadas y jugadores con alguna partida.
+     * Inmutable, se reemplaza de forma atomica para que las lecturas sean siempre coherentes.
+     */
+    private static final class Totals {
+
+        private static final Totals EMPTY = new Totals(0, 0, 0);
+
+        private final long wins;
+        private final long total;
+        private final long players;
+
+        private Totals(long wins, long total, long players) {
+            this.wins = wins;
+            this.total = total;
+            this.players = players;
+        }
+
+        private Totals add(PlayerStats playerStats) {
+            if (playerStats == null || playerStats.getTotal() == 0) {
+                return this;
+            }
+            return new Totals(wins + playerStats.getWins(), total + playerStats.getTotal(), players + 1);
+        }
+
+        private Totals remove(PlayerStats playerStats) {
+            if (playerStats == null || playerStats.getTotal() == 0) {
+                return this;
+            }
+            return new Totals(wins - playerStats.getWins(), total - playerStats.getTotal(), players - 1);
+        }
+    }
+}
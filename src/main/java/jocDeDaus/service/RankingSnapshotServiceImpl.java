@@ -0,0 +1,146 @@
+package jocDeDaus.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jocDeDaus.entity.PlayerStats;
+import jocDeDaus.entity.RankingSnapshot;
+import jocDeDaus.util.IUtilities;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clase de la capa Service, implementa la interface IRankingSnapshotService
+ *
+ * Publica una foto inmutable del ranking (RankingSnapshot) en una unica referencia volatile. Cada
+ * jocdedaus.ranking.snapshot.interval milisegundos se copian los contadores de todos los jugadores de
+ * IRankingService (allPlayers, ordenados) y se calculan a partir de esa misma copia el ranking medio y el
+ * mejor y peor jugador, de modo que siempre coinciden; la nueva foto sustituye a la anterior con una sola
+ * escritura.
+ *
+ * Los endpoints /players/ranking* leen la foto sin bloqueos ni recorridos de la clasificacion: todas las
+ * lecturas de un mismo intervalo devuelven el mismo resultado, coherente entre si, aunque las tiradas sigan
+ * llegando. Si la foto tiene mas de jocdedaus.ranking.snapshot.max-staleness milisegundos (por ejemplo,
+ * porque la tarea programada se ha retrasado), la lectura la reconstruye antes de devolverla; las
+ * reconstrucciones estan serializadas y solo un hilo la reconstruye. Un jugador eliminado deja de aparecer
+ * como mejor o peor jugador en cuanto sale de IRankingService, sin reconstruir la foto.
+ *
+ * Publica las metricas jocdedaus.ranking.snapshot.age (antiguedad de la foto publicada) y
+ * jocdedaus.ranking.snapshot.build (tiempo de construccion)
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @PostConstruct
+ * Publica la primera foto, una vez cargado el ranking, antes de que el bean quede disponible
+ *
+ * @Scheduled
+ * Reconstruye la foto con el periodo de jocdedaus.ranking.snapshot.interval
+ *
+ */
+
+@Service
+public class RankingSnapshotServiceImpl implements IRankingSnapshotService {
+
+    @Autowired
+    IRankingService iRankingService;
+
+    @Autowired
+    IUtilities iUtilities;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${jocdedaus.ranking.snapshot.max-staleness:5000}")
+    long maxStaleness;
+
+    private final Object refreshLock = new Object();
+
+    private volatile RankingSnapshot snapshot;
+
+    private Timer buildTime;
+
+    @PostConstruct
+    public void start() {
+        buildTime = Timer.builder("jocdedaus.ranking.snapshot.build")
+                .description("Time to copy the leaderboard into a new ranking snapshot")
+                .register(meterRegistry);
+        TimeGauge.builder("jocdedaus.ranking.snapshot.age", this, TimeUnit.NANOSECONDS,
+                        RankingSnapshotServiceImpl::snapshotAge)
+                .description("Age of the published ranking snapshot")
+                .register(meterRegistry);
+
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${jocdedaus.ranking.snapshot.interval:1000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @Override
+    public RankingSnapshot getSnapshot() {
+        RankingSnapshot current = snapshot;
+        if (isFresh(current)){
+            return current;
+        }
+
+        synchronized (refreshLock) {
+            // otro hilo puede haberla reconstruido mientras se esperaba el bloqueo
+            current = snapshot;
+            return isFresh(current) ? current : build();
+        }
+    }
+
+    @Override
+    public RankingSnapshot refresh() {
+        synchronized (refreshLock) {
+            return build();
+        }
+    }
+
+    private RankingSnapshot build() {
+        return buildTime.record(() -> {
+            List<PlayerStats> leaderboard = iRankingService.allPlayers();
+
+            // el ranking medio sale de la misma copia que la clasificacion, no de los totales del servicio, que
+            // pueden haber cambiado despues de la copia
+            long wins = 0;
+            long total = 0;
+            long players = 0;
+            for (PlayerStats playerStats : leaderboard) {
+                if (playerStats.getTotal() > 0){
+                    wins += playerStats.getWins();
+                    total += playerStats.getTotal();
+                    players++;
+                }
+            }
+
+            RankingSnapshot built = new RankingSnapshot(leaderboard,
+                    iUtilities.computeAverageRanking(wins, total, players),
+                    idPlayer -> iRankingService.findPlayerStats(idPlayer).isPresent(), System.nanoTime());
+            snapshot = built;
+            return built;
+        });
+    }
+
+    private boolean isFresh(RankingSnapshot current) {
+        return System.nanoTime() - current.getBuiltAt() <= TimeUnit.MILLISECONDS.toNanos(maxStaleness);
+    }
+
+    private double snapshotAge() {
+        RankingSnapshot current = snapshot;
+        return null == current ? 0 : System.nanoTime() - current.getBuiltAt();
+    }
+}
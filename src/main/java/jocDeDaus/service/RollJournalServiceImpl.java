@@ -0,0 +1,247 @@
+package jocDeDaus.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jocDeDaus.entity.CrapsRoll;
+import jocDeDaus.util.RollJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Clase de la capa Service, implementa la interface IRollJournalService
+ *
+ * Escritura de las tiradas individuales a traves de un diario (RollJournal) en lugar de una transaccion
+ * por tirada: la peticion termina cuando el registro esta en el fichero proyectado en memoria (y en disco,
+ * con jocdedaus.journal.force=true), y un volcado periodico inserta en CRAPSROLL y GAME por lotes los
+ * registros pendientes. Solo se activa con jocdedaus.journal.enabled=true.
+ *
+ * El identificador de cada tirada se asigna al anotarla, de un bloque reservado en CRAPSROLL_SEQ, de modo
+ * que la respuesta lo incluye y el volcado es idempotente: al arrancar se vuelcan primero los registros
+ * posteriores al ultimo checkpoint, y los que ya llegaron a la base de datos antes de una caida se omiten.
+ *
+ * Hasta el siguiente volcado (jocdedaus.journal.flush-interval), la tirada no aparece en los listados,
+ * el ranking ni las estadisticas del jugador.
+ *
+ * Un lote que falla se reintenta en los siguientes volcados. Si falla jocdedaus.journal.max-flush-attempts
+ * veces seguidas sin que la base de datos este caida, se vuelca tirada a tirada y las que siguen fallando se
+ * anotan en dead-letter.csv (idCrapsRoll,idPlayer,crapOne,crapTwo,rollResult), en el directorio del diario, y
+ * se descartan: un registro que no se puede guardar no bloquea el resto del diario.
+ *
+ * Publica las metricas jocdedaus.journal.pending y jocdedaus.journal.dead-letter
+ *
+ * Anotaciones:
+ * @Service
+ * Indica que la clase es un "Servicio", esto es, una operacion ofrecida como una interface que esta solo en el modelo,
+ * sin un estado encapsulado.
+ *
+ * Sirve como una especializacion de @Component, lo que permite que las clases de implementacion se detecten
+ * automaticamente a traves del escaneo del classpath
+ *
+ * @ConditionalOnProperty
+ * El servicio solo se crea si jocdedaus.journal.enabled=true
+ *
+ * @Scheduled
+ * Vuelca el diario con el periodo de jocdedaus.journal.flush-interval
+ *
+ * @PostConstruct / @PreDestroy
+ * Abre el diario y vuelca los registros pendientes de la ejecucion anterior al arrancar; al parar,
+ * vuelca lo que quede y cierra el diario
+ *
+ */
+
+@Service
+@ConditionalOnProperty(name = "jocdedaus.journal.enabled", havingValue = "true")
+public class RollJournalServiceImpl implements IRollJournalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollJournalServiceImpl.class);
+
+    private static final String DEAD_LETTER_FILE = "dead-letter.csv";
+
+    @Autowired
+    ICrapsRollService iCrapsRollService;
+
+    @Autowired
+    IIdAllocationService iIdAllocationService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${jocdedaus.journal.dir:journal}")
+    String directory;
+
+    @Value("${jocdedaus.journal.segment-records:65536}")
+    int segmentRecords;
+
+    @Value("${jocdedaus.journal.force:true}")
+    boolean force;
+
+    @Value("${jocdedaus.journal.flush-batch-size:1000}")
+    int flushBatchSize;
+
+    @Value("${jocdedaus.journal.id-block-size:1000}")
+    int idBlockSize;
+
+    @Value("${jocdedaus.journal.max-flush-attempts:5}")
+    int maxFlushAttempts;
+
+    private RollJournal rollJournal;
+
+    // el volcado periodico y el de @PreDestroy no deben leer el diario a la vez
+    private final Object flushLock = new Object();
+
+    // bloque de identificadores reservado en CRAPSROLL_SEQ: [nextIdCrapsRoll, endIdCrapsRoll)
+    private long nextIdCrapsRoll;
+    private long endIdCrapsRoll;
+
+    private long maxFlushedIdCrapsRoll;
+
+    // volcados seguidos en los que ha fallado el primer lote pendiente
+    private int failedFlushes;
+
+    private Counter deadLetters;
+
+    @PostConstruct
+    public void open() {
+        rollJournal = new RollJournal(Paths.get(directory), segmentRecords, force);
+
+        Gauge.builder("jocdedaus.journal.pending", this, IRollJournalService::countPending)
+                .description("Roll journal records not yet saved in the database")
+                .register(meterRegistry);
+        deadLetters = Counter.builder("jocdedaus.journal.dead-letter")
+                .description("Roll journal records discarded to the dead-letter file after failing on their own")
+                .register(meterRegistry);
+
+        long pending = countPending();
+        if (pending > 0){
+            logger.info("Replaying {} roll journal records", pending);
+            flush();
+            // CRAPSROLL_SEQ puede haberse quedado por detras de los identificadores reproducidos
+            // (base de datos restaurada o reinicializada): no deben volver a asignarse
+            iIdAllocationService.reserveIdCrapsRollsUpTo(maxFlushedIdCrapsRoll);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        rollJournal.close();
+    }
+
+    @Override
+    public synchronized CrapsRoll appendCrapsRoll(CrapsRoll crapsRoll) {
+        if (nextIdCrapsRoll == endIdCrapsRoll){
+            nextIdCrapsRoll = iIdAllocationService.allocateIdCrapsRolls(idBlockSize);
+            endIdCrapsRoll = nextIdCrapsRoll + idBlockSize;
+        }
+        crapsRoll.setIdCrapsRoll(nextIdCrapsRoll++);
+
+        rollJournal.append(crapsRoll);
+        return crapsRoll;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${jocdedaus.journal.flush-interval:200}")
+    public int flush() {
+        synchronized (flushLock) {
+            int flushed = 0;
+            try {
+                List<CrapsRoll> crapsRolls;
+                while (!(crapsRolls = rollJournal.read(rollJournal.getCheckpointPosition(), flushBatchSize)).isEmpty()) {
+                    try {
+                        iCrapsRollService.saveJournaledCrapsRolls(crapsRolls);
+                    } catch (RuntimeException e) {
+                        if (++failedFlushes < maxFlushAttempts || isDatabaseUnavailable(e)){
+                            // los registros siguen en el diario y se reintentan en el siguiente volcado
+                            logger.warn("Roll journal flush failed (attempt {} of {}) with {} records pending",
+                                    failedFlushes, maxFlushAttempts, countPending(), e);
+                            return flushed;
+                        }
+                        logger.error("Roll journal batch failed {} times, saving it record by record", failedFlushes, e);
+                        return flushed + flushRecordByRecord(crapsRolls);
+                    }
+                    failedFlushes = 0;
+                    // el checkpoint avanza despues de confirmar la transaccion: una caida entre ambos solo repite el lote
+                    checkpoint(crapsRolls);
+                    flushed += crapsRolls.size();
+                }
+            } catch (RuntimeException e) {
+                // los registros siguen en el diario y se reintentan en el siguiente volcado
+                logger.warn("Roll journal flush failed with {} records pending", countPending(), e);
+            }
+            return flushed;
+        }
+    }
+
+    /**
+     * Vuelca un lote tirada a tirada, cada una en su propia transaccion; las que fallan solas pasan al fichero de
+     * descartes. Se detiene, sin descartar nada, si la base de datos no esta disponible
+     *
+     * @param crapsRolls lote que ha fallado maxFlushAttempts veces, empezando en el checkpoint
+     * @return tiradas guardadas en la base de datos
+     */
+    private int flushRecordByRecord(List<CrapsRoll> crapsRolls) {
+        int flushed = 0;
+        for (CrapsRoll crapsRoll : crapsRolls) {
+            try {
+                flushed += iCrapsRollService.saveJournaledCrapsRolls(List.of(crapsRoll));
+            } catch (RuntimeException e) {
+                if (isDatabaseUnavailable(e)){
+                    logger.warn("Roll journal flush failed with {} records pending", countPending(), e);
+                    return flushed;
+                }
+                deadLetter(crapsRoll, e);
+            }
+            checkpoint(List.of(crapsRoll));
+        }
+        failedFlushes = 0;
+        return flushed;
+    }
+
+    private void checkpoint(List<CrapsRoll> crapsRolls) {
+        rollJournal.checkpoint(rollJournal.getCheckpointPosition() + crapsRolls.size());
+        maxFlushedIdCrapsRoll = Math.max(maxFlushedIdCrapsRoll,
+                crapsRolls.stream().mapToLong(CrapsRoll::getIdCrapsRoll).max().getAsLong());
+    }
+
+    private void deadLetter(CrapsRoll crapsRoll, RuntimeException e) {
+        String record = crapsRoll.getIdCrapsRoll() + "," + crapsRoll.getIdPlayer() + "," + crapsRoll.getCrapOne()
+                + "," + crapsRoll.getCrapTwo() + "," + crapsRoll.getRollResult() + System.lineSeparator();
+        try {
+            Files.writeString(Paths.get(directory, DEAD_LETTER_FILE), record,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+        deadLetters.increment();
+        logger.error("Roll journal record {} moved to {}", crapsRoll.getIdCrapsRoll(), DEAD_LETTER_FILE, e);
+    }
+
+    // con la base de datos caida fallarian todas las tiradas: se reintenta el lote, sin descartar ninguna
+    private static boolean isDatabaseUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    @Override
+    public long countPending() {
+        return rollJournal.getWritePosition() - rollJournal.getCheckpointPosition();
+    }
+}
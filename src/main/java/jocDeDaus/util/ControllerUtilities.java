@@ -3,10 +3,10 @@ package jocDeDaus.util;
 import jocDeDaus.entity.CrapsRoll;
 import jocDeDaus.entity.Game;
 import jocDeDaus.entity.Player;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import java.util.*;
 import java.util.function.ToDoubleBiFunction;
-import java.util.stream.Stream;
 import static java.util.stream.Collectors.*;
 import static java.util.stream.Collectors.reducing;
 
@@ -22,6 +22,9 @@ public class ControllerUtilities implements IUtilities {
 
     ToDoubleBiFunction<Double, Double> computeAverageFunction = (a, b) -> a/b*100;
 
+    @Autowired
+    private IDiceEngine iDiceEngine;
+
     public Optional<Player> checkUniqueNickName(Player newPlayer, List<Player> players) {
 
         return players.stream()
@@ -31,15 +34,10 @@ public class ControllerUtilities implements IUtilities {
                 .findFirst();
     }
 
+    // El identificador de la partida se asigna al guardarla, ver IIdAllocationService
     public Game generateNewGame(Player player) {
         Game game = new Game();
 
-        Long maxValueGamePlayer = player.getCrapsRolls().stream()
-                .map(cr -> cr.getIdCrapsRoll())
-                .max(Comparator.naturalOrder()).orElseGet(()-> 0L);
-
-        game.setIdGame(maxValueGamePlayer+1);
-
         game.setIdPlayer(player.getIdPlayer());
         return game;
     }
@@ -49,28 +47,39 @@ public class ControllerUtilities implements IUtilities {
 
         crapsRoll.setIdPlayer(idPlayer);
 
-        List<Short> randomCrapsRoll = getRandomNumbers();
-
-        crapsRoll.setCrapOne(randomCrapsRoll.get(0));
-        crapsRoll.setCrapTwo(randomCrapsRoll.get(1));
-        crapsRoll.setRollResult((short) (crapsRoll.getCrapOne()
-                +crapsRoll.getCrapTwo()));
+        setDice(crapsRoll, iDiceEngine.rollDie(), iDiceEngine.rollDie());
         return crapsRoll;
     }
 
-    public List<Short> getRandomNumbers(){
+    public List<CrapsRoll> generateNewCrapsRolls(Player player, int count) {
+        List<CrapsRoll> crapsRolls = new ArrayList<>(count);
+
+        short[] dice = new short[count * 2];
+        iDiceEngine.rollDice(dice);
 
-        Random random = new Random();
-        Integer max = 6;
-        Integer min = 1;
+        for (int i = 0; i < count; i++) {
+            CrapsRoll crapsRoll = new CrapsRoll();
+            crapsRoll.setIdPlayer(player.getIdPlayer());
+            setDice(crapsRoll, dice[2 * i], dice[2 * i + 1]);
 
-        List<Short> randomNumbers = Stream.generate(()->random.nextInt((max - min) + 1) + min)
-                .distinct()
-                .limit(2)
-                .map(r -> r.shortValue())
-                .collect(toList());
+            Game game = generateNewGame(player);
+            game.setGameResult(crapsRoll.getRollResult() == 7);
 
-        return randomNumbers;
+            crapsRoll.setGame(game);
+            crapsRolls.add(crapsRoll);
+        }
+        return crapsRolls;
+    }
+
+    public List<Short> getRandomNumbers(){
+        return List.of(iDiceEngine.rollDie(), iDiceEngine.rollDie());
+    }
+
+    // Short.valueOf devuelve instancias cacheadas para valores de -128 a 127: no se crean objetos por tirada
+    private void setDice(CrapsRoll crapsRoll, short crapOne, short crapTwo) {
+        crapsRoll.setCrapOne(crapOne);
+        crapsRoll.setCrapTwo(crapTwo);
+        crapsRoll.setRollResult((short) (crapOne + crapTwo));
     }
 
     public Double computePlayerSuccessRanking(List<CrapsRoll> crapsRolls) {
@@ -138,6 +147,25 @@ public class ControllerUtilities implements IUtilities {
         return successRanking;
     }
 
+    public Double computeSuccessRanking(long wins, long total) {
+        if (total > 0){
+            double successRanking = computeAverageFunction.applyAsDouble((double) wins, (double) total);
+
+            return Math.round(successRanking*100.0)/100.0;
+        }
+        return Double.valueOf(0);
+    }
+
+    public Double computeAverageRanking(long wins, long total, long players) {
+        if (total > 0 && players > 0){
+            double averageRanking = computeAverageFunction.applyAsDouble((double) wins, (double) total)
+                    /players;
+
+            return Math.round(averageRanking*100.0)/100.0;
+        }
+        return Double.valueOf(0);
+    }
+
     public Optional<Player> getWorstPlayer(List<Player> players) {
         players.forEach(p -> p.setRanking(computeGameSuccessRanking(p.getGames())));
 
@@ -0,0 +1,19 @@
+package jocDeDaus.util;
+
+/**
+ * Interface de la capa de Utilidades
+ *
+ * Generador de tiradas de un dado de seis caras (valores de 1 a 6).
+ * Las implementaciones trabajan con tipos primitivos para no crear objetos por tirada
+ */
+
+public interface IDiceEngine {
+
+    int FACES = 6;
+
+    short rollDie(); // roll one die
+
+    void rollDice(short[] dice); // fill the array with die rolls
+
+    void rollDice(byte[] dice); // fill the array with die rolls
+}
@@ -16,6 +16,7 @@ public interface IUtilities {
     Optional<Player> checkUniqueNickName(Player newPlayer, List<Player> players);
     Game generateNewGame(Player player);
     CrapsRoll generateNewCrapsRoll(Long idPlayer);
+    List<CrapsRoll> generateNewCrapsRolls(Player player, int count);
     List<Short> getRandomNumbers();
     Double computePlayerSuccessRanking(List<CrapsRoll> crapsRolls);
     Long getWinsCrapsRolls(List<CrapsRoll> crapsRolls);
@@ -23,6 +24,8 @@ public interface IUtilities {
     Long getWinsGames(List<Game> games);
     Map<Long, Long> getGamesByPlayer(List<Game> games);
     Double computeGameSuccessRanking(List<Game> games);
+    Double computeSuccessRanking(long wins, long total);
+    Double computeAverageRanking(long wins, long total, long players);
     Optional<Player> getWorstPlayer(List<Player> players);
     Optional<Player> getBestPlayer(List<Player> players);
 }
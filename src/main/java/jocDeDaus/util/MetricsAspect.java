@@ -0,0 +1,87 @@
+package jocDeDaus.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Aspecto que mide con un Timer de Micrometer la duracion de cada llamada a los servicios (I*Service),
+ * a los repositorios (I*Repository) y a los calculos de ranking de IUtilities.
+ *
+ * Los temporizadores se publican como:
+ * jocdedaus.service, jocdedaus.repository y jocdedaus.utilities,
+ * con las etiquetas class (interface), method y exception (none si la llamada termina sin error)
+ *
+ * Las peticiones HTTP se miden aparte, con el temporizador http.server.requests de Spring Boot Actuator,
+ * etiquetado por la URI de cada mapeo de PlayerController
+ *
+ * Anotaciones:
+ * @Aspect
+ * Declara la clase como un aspecto de AspectJ, aplicado por Spring AOP mediante proxies
+ *
+ * @Around
+ * Consejo que envuelve la ejecucion de los metodos seleccionados por el punto de corte
+ *
+ */
+
+@Aspect
+@Component
+public class MetricsAspect {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // nombre de la interface de cada clase de implementacion o proxy de Spring Data
+    private final Map<Class<?>, String> interfaceNames = new ConcurrentHashMap<>();
+
+    @Around("execution(public * jocDeDaus.service.I*Service+.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("jocdedaus.service", joinPoint);
+    }
+
+    @Around("target(org.springframework.data.repository.Repository) && execution(public * *(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("jocdedaus.repository", joinPoint);
+    }
+
+    @Around("execution(public * jocDeDaus.util.IUtilities+.compute*(..))")
+    public Object timeUtilities(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("jocdedaus.utilities", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("class", interfaceName(joinPoint.getTarget().getClass()))
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private String interfaceName(Class<?> targetClass) {
+        return interfaceNames.computeIfAbsent(targetClass, c -> Arrays.stream(c.getInterfaces())
+                .filter(i -> i.getName().startsWith("jocDeDaus."))
+                .findFirst()
+                .<Class<?>>map(i -> i)
+                .orElse(c)
+                .getSimpleName());
+    }
+}
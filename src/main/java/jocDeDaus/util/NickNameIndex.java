@@ -0,0 +1,131 @@
+package jocDeDaus.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Indice invertido en memoria de los nombres de los jugadores, en mayusculas, por n-gramas
+ * (subcadenas de 1, 2 y 3 caracteres).
+ *
+ * Mantiene la misma semantica que IUtilities.checkUniqueNickName: un nombre esta ocupado si algun
+ * jugador, distinto de ANONYMOUS, tiene un nombre que lo contiene, sin distinguir mayusculas.
+ * La busqueda solo compara los candidatos que comparten todos los trigramas del nombre buscado,
+ * en lugar de recorrer todos los jugadores.
+ *
+ * Las lecturas concurrentes no se bloquean entre si; las altas, bajas y cambios de nombre
+ * se serializan con un ReadWriteLock
+ *
+ */
+
+@Component
+public class NickNameIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final String ANONYMOUS = "ANONYMOUS";
+
+    private final Map<Long, String> namesByPlayer = new HashMap<>();
+    private final Map<String, Set<Long>> playersByGram = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Busca un jugador cuyo nombre contenga el nombre indicado
+     *
+     * @param name nombre buscado
+     * @return identificador de un jugador con un nombre que contiene el buscado, si existe
+     */
+    public Optional<Long> findConflict(String name) {
+        if (null == name || name.isBlank()){
+            return Optional.empty();
+        }
+        String key = name.trim().toUpperCase();
+
+        lock.readLock().lock();
+        try {
+            if (key.length() <= GRAM_LENGTH){
+                return playersByGram.getOrDefault(key, Collections.emptySet()).stream().findFirst();
+            }
+
+            Set<Long> candidates = null;
+            for (String gram : grams(key, GRAM_LENGTH)) {
+                Set<Long> players = playersByGram.get(gram);
+                if (null == players){
+                    return Optional.empty();
+                }
+                if (null == candidates || players.size() < candidates.size()){
+                    candidates = players;
+                }
+            }
+
+            return candidates.stream()
+                    .filter(idPlayer -> namesByPlayer.get(idPlayer).contains(key))
+                    .findFirst();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza el nombre de un jugador
+     */
+    public void put(Long idPlayer, String name) {
+        lock.writeLock().lock();
+        try {
+            removeFromIndex(idPlayer);
+
+            String key = null == name ? "" : name.toUpperCase();
+            if (!key.isBlank() && !key.equals(ANONYMOUS)){
+                namesByPlayer.put(idPlayer, key);
+                for (int length = 1; length <= GRAM_LENGTH; length++) {
+                    for (String gram : grams(key, length)) {
+                        playersByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(idPlayer);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina el nombre de un jugador
+     */
+    public void remove(Long idPlayer) {
+        lock.writeLock().lock();
+        try {
+            removeFromIndex(idPlayer);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeFromIndex(Long idPlayer) {
+        String key = namesByPlayer.remove(idPlayer);
+        if (null == key){
+            return;
+        }
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (String gram : grams(key, length)) {
+                Set<Long> players = playersByGram.get(gram);
+                if (null != players){
+                    players.remove(idPlayer);
+                    if (players.isEmpty()){
+                        playersByGram.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(String key, int length) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + length <= key.length(); i++) {
+            grams.add(key.substring(i, i + length));
+        }
+        return grams;
+    }
+}
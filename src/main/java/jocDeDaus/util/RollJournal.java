@@ -0,0 +1,286 @@
+package jocDeDaus.util;
+
+import jocDeDaus.entity.CrapsRoll;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Diario de tiradas: fichero de solo escritura al final, proyectado en memoria (MappedByteBuffer) y dividido
+ * en segmentos de segmentRecords registros. Cada tirada es un registro de RECORD_SIZE bytes:
+ *
+ *   ID_CRAPSROLL (8) | ID_PLAYER (8) | instante de la tirada en ms (8) | CRAP_ONE (1) | CRAP_TWO (1) | 0 (2) | CRC32 (4)
+ *
+ * Los registros se numeran con una posicion global: el registro p esta en el segmento p / segmentRecords,
+ * fichero rolls-{segmento}.journal. El fichero checkpoint guarda la posicion del primer registro que aun
+ * no esta en la base de datos; los segmentos anteriores a esa posicion se eliminan.
+ *
+ * Al abrir el diario se recorre el ultimo segmento hasta el primer registro vacio o con un CRC que no
+ * coincide (escritura interrumpida), que marca la siguiente posicion de escritura.
+ *
+ * append es sincronizado y lo pueden llamar varios hilos; read y checkpoint solo los llama el hilo que
+ * vuelca el diario en la base de datos
+ *
+ */
+
+public class RollJournal implements Closeable {
+
+    public static final int RECORD_SIZE = 32;
+
+    private static final int CRC_OFFSET = RECORD_SIZE - Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "rolls-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT = "checkpoint";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final boolean force;
+
+    private MappedByteBuffer writeSegment;
+    private long writeSegmentNumber = -1;
+    private MappedByteBuffer readSegment;
+    private long readSegmentNumber = -1;
+
+    private volatile long writePosition;
+    private volatile long checkpointPosition;
+
+    /**
+     * Abre el diario, creando el directorio si no existe
+     *
+     * @param directory directorio de los segmentos y del checkpoint
+     * @param segmentRecords registros de cada segmento
+     * @param force si append espera a que el registro llegue al disco (MappedByteBuffer.force)
+     */
+    public RollJournal(Path directory, int segmentRecords, boolean force) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.force = force;
+        try {
+            Files.createDirectories(directory);
+            checkpointPosition = readCheckpoint();
+            writePosition = recoverWritePosition();
+            deleteSegmentsBefore(checkpointPosition);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the roll journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Anade una tirada al final del diario
+     *
+     * @param crapsRoll tirada con identificador ya asignado
+     * @return posicion del registro
+     */
+    public synchronized long append(CrapsRoll crapsRoll) {
+        long position = writePosition;
+        MappedByteBuffer segment = writeSegment(position / segmentRecords);
+        int offset = (int) (position % segmentRecords) * RECORD_SIZE;
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.putLong(crapsRoll.getIdCrapsRoll());
+        record.putLong(crapsRoll.getIdPlayer());
+        record.putLong(System.currentTimeMillis());
+        record.put(crapsRoll.getCrapOne().byteValue());
+        record.put(crapsRoll.getCrapTwo().byteValue());
+        record.putInt(CRC_OFFSET, crc(record.array()));
+
+        segment.put(offset, record.array());
+        if (force){
+            segment.force(offset, RECORD_SIZE);
+        }
+
+        writePosition = position + 1;
+        return position;
+    }
+
+    /**
+     * Lee como maximo max registros a partir de una posicion, sin pasar de la posicion de escritura
+     *
+     * @param from posicion del primer registro
+     * @param max numero maximo de registros
+     * @return tiradas leidas, en orden de posicion
+     */
+    public List<CrapsRoll> read(long from, int max) {
+        long to = Math.min(writePosition, from + max);
+        List<CrapsRoll> crapsRolls = new ArrayList<>((int) Math.max(0, to - from));
+
+        byte[] record = new byte[RECORD_SIZE];
+        for (long position = from; position < to; position++) {
+            readSegment(position / segmentRecords).get((int) (position % segmentRecords) * RECORD_SIZE, record);
+            crapsRolls.add(toCrapsRoll(ByteBuffer.wrap(record)));
+        }
+        return crapsRolls;
+    }
+
+    /**
+     * Marca como volcados en la base de datos los registros anteriores a una posicion y elimina los
+     * segmentos que ya no contienen registros pendientes
+     *
+     * @param position posicion del primer registro pendiente
+     */
+    public void checkpoint(long position) {
+        try {
+            Path temporary = directory.resolve(CHECKPOINT + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position));
+                channel.force(true);
+            }
+            Files.move(temporary, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE);
+
+            checkpointPosition = position;
+            deleteSegmentsBefore(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the roll journal checkpoint", e);
+        }
+    }
+
+    public long getWritePosition() {
+        return writePosition;
+    }
+
+    public long getCheckpointPosition() {
+        return checkpointPosition;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (null != writeSegment){
+            writeSegment.force();
+        }
+        writeSegment = null;
+        readSegment = null;
+    }
+
+    private MappedByteBuffer writeSegment(long number) {
+        if (number != writeSegmentNumber){
+            if (null != writeSegment){
+                writeSegment.force();
+            }
+            writeSegment = map(number);
+            writeSegmentNumber = number;
+        }
+        return writeSegment;
+    }
+
+    private MappedByteBuffer readSegment(long number) {
+        if (number != readSegmentNumber){
+            readSegment = map(number);
+            readSegmentNumber = number;
+        }
+        return readSegment;
+    }
+
+    // el fichero se crea con su tamano definitivo; la proyeccion sigue siendo valida tras cerrar el canal
+    private MappedByteBuffer map(long number) {
+        try (FileChannel channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map roll journal segment " + number, e);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT);
+        if (!Files.exists(checkpoint)){
+            return firstSegment() * segmentRecords;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(checkpoint)).getLong();
+    }
+
+    private long recoverWritePosition() throws IOException {
+        long lastSegment = lastSegment();
+        if (lastSegment < 0){
+            return checkpointPosition;
+        }
+
+        MappedByteBuffer segment = map(lastSegment);
+        byte[] record = new byte[RECORD_SIZE];
+        int index = 0;
+        while (index < segmentRecords) {
+            segment.get(index * RECORD_SIZE, record);
+            if (!isValid(record)){
+                break;
+            }
+            index++;
+        }
+        return Math.max(checkpointPosition, lastSegment * segmentRecords + index);
+    }
+
+    private void deleteSegmentsBefore(long position) throws IOException {
+        long firstPending = position / segmentRecords;
+        try (Stream<Path> segments = Files.list(directory)) {
+            for (Path segment : (Iterable<Path>) segments::iterator) {
+                long number = segmentNumber(segment);
+                if (number >= 0 && number < firstPending){
+                    if (number == readSegmentNumber){
+                        readSegment = null;
+                        readSegmentNumber = -1;
+                    }
+                    Files.deleteIfExists(segment);
+                }
+            }
+        }
+    }
+
+    private long firstSegment() throws IOException {
+        try (Stream<Path> segments = Files.list(directory)) {
+            return segments.mapToLong(RollJournal::segmentNumber).filter(n -> n >= 0).min().orElse(0);
+        }
+    }
+
+    private long lastSegment() throws IOException {
+        try (Stream<Path> segments = Files.list(directory)) {
+            return segments.mapToLong(RollJournal::segmentNumber).max().orElse(-1);
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)){
+            return -1;
+        }
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isValid(byte[] record) {
+        int storedCrc = ByteBuffer.wrap(record).getInt(CRC_OFFSET);
+        // un registro vacio (todo ceros) no es valido aunque su CRC32 no sea 0
+        return ByteBuffer.wrap(record).getLong(0) != 0 && storedCrc == crc(record);
+    }
+
+    private static int crc(byte[] record) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(record, 0, CRC_OFFSET);
+        return (int) crc32.getValue();
+    }
+
+    private static CrapsRoll toCrapsRoll(ByteBuffer record) {
+        CrapsRoll crapsRoll = new CrapsRoll();
+        crapsRoll.setIdCrapsRoll(record.getLong(0));
+        crapsRoll.setIdPlayer(record.getLong(8));
+        crapsRoll.setCrapOne((short) record.get(24));
+        crapsRoll.setCrapTwo((short) record.get(25));
+        crapsRoll.setRollResult((short) (crapsRoll.getCrapOne() + crapsRoll.getCrapTwo()));
+        return crapsRoll;
+    }
+}
@@ -0,0 +1,120 @@
+package jocDeDaus.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jocDeDaus.entity.CrapsRoll;
+import jocDeDaus.entity.Game;
+import jocDeDaus.entity.Player;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Invalidacion explicita de la cache de segundo nivel de Hibernate (ehcache.xml) en los casos que
+ * Hibernate no puede detectar por si mismo:
+ *
+ * - Las tiradas y partidas se insertan con ID_PLAYER, sin asignar la asociacion player, de modo que las
+ *   colecciones Player.crapsRolls y Player.games en cache no se enteran de las nuevas filas.
+ * - Al eliminar un jugador, la base de datos borra sus tiradas y partidas (ON DELETE CASCADE).
+ * - Al eliminar tiradas, la base de datos pone a NULL el ID_CRAPSROLL de sus partidas (ON DELETE SET NULL).
+ * - Los contadores TOTAL_ROLLS y TOTAL_WINS de PLAYER se actualizan con JDBC (IPlayerStatisticsService).
+ *
+ * Publica la metrica jocdedaus.cache.hit.ratio (etiqueta region): aciertos / (aciertos + fallos) de cada
+ * region, a partir de las estadisticas de Hibernate
+ *
+ */
+
+@Component
+public class SecondLevelCache {
+
+    private static final String PLAYER_CRAPSROLLS = Player.class.getName() + ".crapsRolls";
+    private static final String PLAYER_GAMES = Player.class.getName() + ".games";
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private Cache cache;
+
+    @PostConstruct
+    public void registerMetrics() {
+        cache = entityManagerFactory.getCache().unwrap(Cache.class);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // el gauge referencia Statistics, que vive tanto como la SessionFactory (Micrometer guarda referencias debiles)
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder("jocdedaus.cache.hit.ratio", statistics, st -> hitRatio(st.getCacheRegionStatistics(region)))
+                    .description("Second-level cache hit ratio")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Invalida las colecciones de tiradas y partidas de un jugador
+     *
+     * @param idPlayer identificador del jugador
+     */
+    public void evictPlayerCollections(Long idPlayer) {
+        cache.evictCollectionData(PLAYER_CRAPSROLLS, idPlayer);
+        cache.evictCollectionData(PLAYER_GAMES, idPlayer);
+    }
+
+    /**
+     * Invalida un jugador eliminado, sus colecciones y las tiradas y partidas borradas en cascada.
+     * Las tiradas y partidas no se conocen por su identificador, por lo que se invalidan sus regiones completas
+     *
+     * @param idPlayer identificador del jugador
+     */
+    public void evictPlayer(Long idPlayer) {
+        cache.evictEntityData(Player.class, idPlayer);
+        evictPlayerCollections(idPlayer);
+        cache.evictEntityData(CrapsRoll.class);
+        cache.evictEntityData(Game.class);
+    }
+
+    /**
+     * Invalida un jugador cuyos contadores de tiradas se han actualizado
+     *
+     * @param idPlayer identificador del jugador
+     */
+    public void evictPlayerStatistics(Long idPlayer) {
+        cache.evictEntityData(Player.class, idPlayer);
+    }
+
+    /**
+     * Invalida todos los jugadores, tras recalcular los contadores de tiradas de todos ellos
+     */
+    public void evictPlayers() {
+        cache.evictEntityData(Player.class);
+    }
+
+    /**
+     * Invalida las colecciones de un jugador cuyas tiradas se han eliminado, y las partidas que apuntaban a ellas
+     *
+     * @param idPlayer identificador del jugador
+     */
+    public void evictCrapsRolls(Long idPlayer) {
+        evictPlayerCollections(idPlayer);
+        cache.evictEntityData(Game.class);
+    }
+
+    private static double hitRatio(CacheRegionStatistics regionStatistics) {
+        if (null == regionStatistics){
+            return Double.NaN;
+        }
+        long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / requests;
+    }
+}
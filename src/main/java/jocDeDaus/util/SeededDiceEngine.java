@@ -0,0 +1,42 @@
+package jocDeDaus.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Implementa la interface IDiceEngine con un SplittableRandom inicializado con una semilla fija:
+ * la misma semilla produce siempre la misma secuencia de tiradas, lo que permite reproducir una
+ * partida en auditorias y pruebas.
+ *
+ * SplittableRandom no es seguro entre hilos, por lo que el acceso se sincroniza para que la secuencia
+ * sea la misma independientemente del numero de peticiones concurrentes
+ */
+
+public class SeededDiceEngine implements IDiceEngine {
+
+    private final SplittableRandom random;
+
+    public SeededDiceEngine(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public synchronized short rollDie() {
+        return (short) (random.nextInt(FACES) + 1);
+    }
+
+    @Override
+    public synchronized void rollDice(short[] dice) {
+        for (int i = 0; i < dice.length; i++) {
+            dice[i] = (short) (random.nextInt(FACES) + 1);
+        }
+    }
+
+    @Override
+    public synchronized void rollDice(byte[] dice) {
+        for (int i = 0; i < dice.length; i++) {
+            dice[i] = (byte) (random.nextInt(FACES) + 1);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package jocDeDaus.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Implementa la interface IDiceEngine con ThreadLocalRandom: cada hilo usa su propio generador,
+ * por lo que no hay contencion entre peticiones concurrentes.
+ *
+ * Implementacion por defecto
+ */
+
+public class ThreadLocalDiceEngine implements IDiceEngine {
+
+    @Override
+    public short rollDie() {
+        return (short) (ThreadLocalRandom.current().nextInt(FACES) + 1);
+    }
+
+    @Override
+    public void rollDice(short[] dice) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < dice.length; i++) {
+            dice[i] = (short) (random.nextInt(FACES) + 1);
+        }
+    }
+
+    @Override
+    public void rollDice(byte[] dice) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < dice.length; i++) {
+            dice[i] = (byte) (random.nextInt(FACES) + 1);
+        }
+    }
+}
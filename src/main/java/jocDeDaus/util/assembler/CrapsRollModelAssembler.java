@@ -1,15 +1,23 @@
 package jocDeDaus.util.assembler;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jocDeDaus.dto.CrapsRollDto;
+import jocDeDaus.dto.CrapsRollSummaryDto;
+import jocDeDaus.dto.PurgeDto;
 import jocDeDaus.entity.CrapsRoll;
-import org.modelmapper.ModelMapper;
+import jocDeDaus.entity.Purge;
+import jocDeDaus.util.mapper.IDtoMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.Links;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
-import jocDeDaus.controller.PlayerController;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.List;
 
 /**
  * Clase de la capa de Utilidades
@@ -27,20 +35,122 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class CrapsRollModelAssembler implements RepresentationModelAssembler<CrapsRoll, EntityModel<CrapsRollDto>> {
 
     @Autowired
-    private ModelMapper modelMapper;
+    private IDtoMapper iDtoMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlayerControllerLinks playerControllerLinks;
 
     public EntityModel<CrapsRollDto> toModel(CrapsRoll crapsRoll) {
+        return toModel(crapsRoll, toLinks(crapsRoll.getIdPlayer()));
+    }
+
+    /**
+     * Convierte una tirada en un EntityModel con enlaces ya resueltos con toLinks, para construir la
+     * respuesta fuera del hilo de la peticion
+     *
+     * @param crapsRoll tirada
+     * @param links enlaces de las tiradas del jugador
+     * @return EntityModel con la tirada y sus enlaces
+     */
+    public EntityModel<CrapsRollDto> toModel(CrapsRoll crapsRoll, Links links) {
+        return EntityModel.of(convertToDto(crapsRoll), links);
+    }
+
+    /**
+     * Enlaces de una tirada de un jugador
+     *
+     * @param idPlayer identificador del jugador
+     * @return enlaces self, all y delete
+     */
+    public Links toLinks(Long idPlayer) {
+        return Links.of(playerControllerLinks.newCrapsRoll(idPlayer, IanaLinkRelations.SELF),
+                playerControllerLinks.allCrapsRolls(idPlayer, LinkRelation.of("all")),
+                playerControllerLinks.deleteCrapsRolls(idPlayer, LinkRelation.of("delete")));
+    }
 
-        CrapsRollDto crapsRollDto = convertToDto(crapsRoll);
+    /**
+     * Convierte el resumen de una tirada multiple en un EntityModel con enlaces agregados
+     *
+     * @param summary resumen de la tirada multiple
+     * @param count numero de tiradas solicitadas
+     * @return EntityModel con el resumen y sus enlaces
+     */
+    public EntityModel<CrapsRollSummaryDto> toSummaryModel(CrapsRollSummaryDto summary, Integer count) {
+        return EntityModel.of(summary, toSummaryLinks(summary.getIdPlayer(), count));
+    }
+
+    /**
+     * Crea el cuerpo de una respuesta que escribe el resumen de una tirada multiple seguido de todas
+     * sus tiradas, de forma incremental con un JsonGenerator.
+     *
+     * Los enlaces se resuelven al llamar a este metodo, en el hilo de la peticion, ya que el cuerpo
+     * se escribe despues en otro hilo, sin acceso a la peticion actual
+     *
+     * @param summary resumen de la tirada multiple
+     * @param count numero de tiradas solicitadas
+     * @param crapsRolls tiradas realizadas
+     * @return cuerpo de la respuesta
+     */
+    public StreamingResponseBody toStreamingSummaryModel(CrapsRollSummaryDto summary, Integer count,
+                                                         List<CrapsRoll> crapsRolls) {
+        Links links = toSummaryLinks(summary.getIdPlayer(), count);
+
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeNumberField("idPlayer", summary.getIdPlayer());
+                generator.writeNumberField("total", summary.getTotal());
+                generator.writeNumberField("wins", summary.getWins());
+                generator.writeNumberField("ranking", summary.getRanking());
+
+                generator.writeArrayFieldStart("crapsRolls");
+                for (CrapsRoll crapsRoll : crapsRolls) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("idCrapsRoll", crapsRoll.getIdCrapsRoll());
+                    generator.writeNumberField("idPlayer", crapsRoll.getIdPlayer());
+                    generator.writeNumberField("crapOne", crapsRoll.getCrapOne());
+                    generator.writeNumberField("crapTwo", crapsRoll.getCrapTwo());
+                    generator.writeNumberField("rollResult", crapsRoll.getRollResult());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+
+                generator.writeObjectFieldStart("_links");
+                for (Link link : links) {
+                    generator.writeObjectFieldStart(link.getRel().value());
+                    generator.writeStringField("href", link.getHref());
+                    generator.writeEndObject();
+                }
+                generator.writeEndObject();
 
-        return EntityModel.of(crapsRollDto,
-                linkTo(methodOn(PlayerController.class).newCrapsRollPlayer(crapsRoll.getIdPlayer())).withSelfRel(),
-                linkTo(methodOn(PlayerController.class).allCrapsRollsByPlayer(crapsRoll.getIdPlayer())).withRel("all"),
-                linkTo(methodOn(PlayerController.class).deleteCrapsRollsByPlayer(crapsRoll.getIdPlayer())).withRel("delete"));
+                generator.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Convierte el progreso de un borrado en segundo plano en un EntityModel con enlaces agregados
+     *
+     * @param purge borrado de las tiradas de un jugador
+     * @return EntityModel con el progreso y sus enlaces
+     */
+    public EntityModel<PurgeDto> toPurgeModel(Purge purge) {
+        return EntityModel.of(iDtoMapper.toPurgeDto(purge),
+                playerControllerLinks.crapsRollsPurge(purge.getIdPlayer(), IanaLinkRelations.SELF),
+                playerControllerLinks.allCrapsRolls(purge.getIdPlayer(), LinkRelation.of("all")),
+                playerControllerLinks.one(purge.getIdPlayer(), LinkRelation.of("player")));
     }
 
     public CrapsRollDto convertToDto(CrapsRoll crapsRoll) {
-        CrapsRollDto crapsRollDto = modelMapper.map(crapsRoll, CrapsRollDto.class);
-        return crapsRollDto;
+        return iDtoMapper.toCrapsRollDto(crapsRoll);
+    }
+
+    private Links toSummaryLinks(Long idPlayer, Integer count) {
+        return Links.of(playerControllerLinks.newCrapsRolls(idPlayer, count, IanaLinkRelations.SELF),
+                playerControllerLinks.allCrapsRolls(idPlayer, LinkRelation.of("all")),
+                playerControllerLinks.deleteCrapsRolls(idPlayer, LinkRelation.of("delete")));
     }
 }
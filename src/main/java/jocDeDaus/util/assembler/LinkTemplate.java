@@ -0,0 +1,162 @@
+package jocDeDaus.util.assembler;
+
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Plantilla de URI de un metodo de un controlador, resuelta una sola vez a partir de sus anotaciones
+ * @RequestMapping (o @GetMapping, @PostMapping...), @PathVariable y @RequestParam.
+ *
+ * Al expandirla solo se concatenan cadenas, con el mismo formato que WebMvcLinkBuilder: los parametros
+ * de consulta nulos quedan como variables de la plantilla, {?limit,after} o {&after}
+ *
+ */
+
+final class LinkTemplate {
+
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{([^}:]+)(:[^}]*)?}");
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    // literales de la ruta, uno mas que variables: literal, variable, literal, ...
+    private final String[] pathLiterals;
+    private final int[] pathArguments;
+    private final String[] queryNames;
+    private final int[] queryArguments;
+    private final int arguments;
+
+    private LinkTemplate(String[] pathLiterals, int[] pathArguments, String[] queryNames, int[] queryArguments,
+                         int arguments) {
+        this.pathLiterals = pathLiterals;
+        this.pathArguments = pathArguments;
+        this.queryNames = queryNames;
+        this.queryArguments = queryArguments;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Resuelve la plantilla de un metodo de un controlador
+     *
+     * @param controller clase del controlador
+     * @param method metodo anotado con @RequestMapping o una de sus variantes
+     * @return plantilla del metodo
+     */
+    static LinkTemplate of(Class<?> controller, Method method) {
+        String path = mappingPath(controller) + mappingPath(method);
+
+        List<String> pathLiterals = new ArrayList<>();
+        List<Integer> pathArguments = new ArrayList<>();
+        List<String> queryNames = new ArrayList<>();
+        List<Integer> queryArguments = new ArrayList<>();
+
+        Matcher matcher = PATH_VARIABLE.matcher(path);
+        int start = 0;
+        while (matcher.find()) {
+            pathLiterals.add(path.substring(start, matcher.start()));
+            pathArguments.add(pathVariableIndex(method, matcher.group(1)));
+            start = matcher.end();
+        }
+        pathLiterals.add(path.substring(start));
+
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            if (null != requestParam){
+                queryNames.add(parameterName(parameter, requestParam.name()));
+                queryArguments.add(i);
+            }
+        }
+
+        return new LinkTemplate(pathLiterals.toArray(new String[0]),
+                pathArguments.stream().mapToInt(Integer::intValue).toArray(),
+                queryNames.toArray(new String[0]),
+                queryArguments.stream().mapToInt(Integer::intValue).toArray(),
+                method.getParameterCount());
+    }
+
+    /**
+     * Expande la plantilla con los argumentos del metodo, en el mismo orden que en su declaracion
+     *
+     * @param baseUri URI base de la aplicacion, sin barra final
+     * @param arguments argumentos del metodo; los que no forman parte del enlace se ignoran
+     * @return href del enlace
+     */
+    String expand(String baseUri, Object... arguments) {
+        if (arguments.length != this.arguments){
+            throw new IllegalArgumentException("Expected " + this.arguments + " arguments, got " + arguments.length);
+        }
+        StringBuilder href = new StringBuilder(baseUri.length() + 64).append(baseUri);
+
+        for (int i = 0; i < pathArguments.length; i++) {
+            href.append(pathLiterals[i]);
+            href.append(encode(arguments[pathArguments[i]], true));
+        }
+        href.append(pathLiterals[pathLiterals.length - 1]);
+
+        boolean hasQuery = false;
+        StringBuilder missing = null;
+        for (int i = 0; i < queryNames.length; i++) {
+            Object value = arguments[queryArguments[i]];
+            if (null != value){
+                href.append(hasQuery ? '&' : '?').append(queryNames[i]).append('=').append(encode(value, false));
+                hasQuery = true;
+            } else {
+                missing = null == missing ? new StringBuilder() : missing.append(',');
+                missing.append(queryNames[i]);
+            }
+        }
+        if (null != missing){
+            href.append(hasQuery ? "{&" : "{?").append(missing).append('}');
+        }
+        return href.toString();
+    }
+
+    private static String encode(Object value, boolean pathSegment) {
+        String string = String.valueOf(value);
+        if (value instanceof Number){
+            return string;
+        }
+        return pathSegment ? UriUtils.encodePathSegment(string, StandardCharsets.UTF_8)
+                : UriUtils.encodeQueryParam(string, StandardCharsets.UTF_8);
+    }
+
+    private static String mappingPath(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        return null == mapping || mapping.path().length == 0 ? "" : mapping.path()[0];
+    }
+
+    private static int pathVariableIndex(Method method, String name) {
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            MethodParameter parameter = new MethodParameter(method, i);
+            PathVariable pathVariable = parameter.getParameterAnnotation(PathVariable.class);
+            if (null != pathVariable && name.equals(parameterName(parameter, pathVariable.name()))){
+                return i;
+            }
+        }
+        throw new IllegalStateException("No @PathVariable '" + name + "' in " + method);
+    }
+
+    private static String parameterName(MethodParameter parameter, String annotatedName) {
+        if (StringUtils.hasText(annotatedName)){
+            return annotatedName;
+        }
+        parameter.initParameterNameDiscovery(PARAMETER_NAMES);
+        return parameter.getParameterName();
+    }
+}
@@ -0,0 +1,131 @@
+package jocDeDaus.util.assembler;
+
+import jocDeDaus.controller.PlayerController;
+import jocDeDaus.entity.Player;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.lang.reflect.Method;
+
+/**
+ * Clase de la capa de Utilidades
+ *
+ * Enlaces HATEOAS a los metodos de PlayerController, construidos con plantillas de URI (LinkTemplate)
+ * que se resuelven una sola vez al crear el bean, a partir de las anotaciones de cada mapeo.
+ *
+ * Sustituye a linkTo(methodOn(PlayerController.class)...), que crea un proxy del controlador y
+ * resuelve la URI por reflexion en cada enlace de cada elemento de una coleccion. Los enlaces
+ * generados son identicos a los de WebMvcLinkBuilder.
+ *
+ * La URI base (esquema, host, puerto y contexto) se obtiene una vez por peticion y se guarda como
+ * atributo de la peticion; fuera de una peticion los enlaces son relativos a la raiz
+ *
+ */
+
+@Component
+public class PlayerControllerLinks {
+
+    private static final String BASE_URI_ATTRIBUTE = PlayerControllerLinks.class.getName() + ".BASE_URI";
+
+    private final LinkTemplate one = template("one", Long.class);
+    private final LinkTemplate newPlayer = template("newPlayer", Player.class);
+    private final LinkTemplate updatePlayer = template("updatePlayer", Player.class, Long.class);
+    private final LinkTemplate deletePlayer = template("deletePlayer", Long.class);
+    private final LinkTemplate allPlayers = template("allPlayers", Integer.class, Long.class);
+    private final LinkTemplate newCrapsRoll = template("newCrapsRollPlayer", Long.class);
+    private final LinkTemplate newCrapsRolls = template("newCrapsRollsPlayer", Long.class, Integer.class);
+    private final LinkTemplate allCrapsRolls = template("allCrapsRollsByPlayer", Long.class);
+    private final LinkTemplate deleteCrapsRolls = template("deleteCrapsRollsByPlayer", Long.class);
+    private final LinkTemplate crapsRollsPurge = template("crapsRollsPurge", Long.class);
+    private final LinkTemplate ranking = template("averageSuccessRankingAllPlayers", Integer.class, Long.class, Long.class);
+    private final LinkTemplate loser = template("playerLoser");
+    private final LinkTemplate winner = template("playerWinner");
+    private final LinkTemplate top = template("playersTop", Integer.class);
+    private final LinkTemplate bottom = template("playersBottom", Integer.class);
+
+    public Link one(Long idPlayer, LinkRelation rel) {
+        return Link.of(one.expand(baseUri(), idPlayer), rel);
+    }
+
+    public Link newPlayer(LinkRelation rel) {
+        return Link.of(newPlayer.expand(baseUri(), (Object) null), rel);
+    }
+
+    public Link updatePlayer(Long idPlayer, LinkRelation rel) {
+        return Link.of(updatePlayer.expand(baseUri(), null, idPlayer), rel);
+    }
+
+    public Link deletePlayer(Long idPlayer, LinkRelation rel) {
+        return Link.of(deletePlayer.expand(baseUri(), idPlayer), rel);
+    }
+
+    public Link allPlayers(Integer limit, Long after, LinkRelation rel) {
+        return Link.of(allPlayers.expand(baseUri(), limit, after), rel);
+    }
+
+    public Link newCrapsRoll(Long idPlayer, LinkRelation rel) {
+        return Link.of(newCrapsRoll.expand(baseUri(), idPlayer), rel);
+    }
+
+    public Link newCrapsRolls(Long idPlayer, Integer count, LinkRelation rel) {
+        return Link.of(newCrapsRolls.expand(baseUri(), idPlayer, count), rel);
+    }
+
+    public Link allCrapsRolls(Long idPlayer, LinkRelation rel) {
+        return Link.of(allCrapsRolls.expand(baseUri(), idPlayer), rel);
+    }
+
+    public Link deleteCrapsRolls(Long idPlayer, LinkRelation rel) {
+        return Link.of(deleteCrapsRolls.expand(baseUri(), idPlayer), rel);
+    }
+
+    public Link crapsRollsPurge(Long idPlayer, LinkRelation rel) {
+        return Link.of(crapsRollsPurge.expand(baseUri(), idPlayer), rel);
+    }
+
+    public Link ranking(Integer limit, Long afterPlayer, Long afterGame, LinkRelation rel) {
+        return Link.of(ranking.expand(baseUri(), limit, afterPlayer, afterGame), rel);
+    }
+
+    public Link loser(LinkRelation rel) {
+        return Link.of(loser.expand(baseUri()), rel);
+    }
+
+    public Link winner(LinkRelation rel) {
+        return Link.of(winner.expand(baseUri()), rel);
+    }
+
+    public Link top(Integer limit, LinkRelation rel) {
+        return Link.of(top.expand(baseUri(), limit), rel);
+    }
+
+    public Link bottom(Integer limit, LinkRelation rel) {
+        return Link.of(bottom.expand(baseUri(), limit), rel);
+    }
+
+    private static LinkTemplate template(String methodName, Class<?>... parameterTypes) {
+        Method method = ReflectionUtils.findMethod(PlayerController.class, methodName, parameterTypes);
+        if (null == method){
+            throw new IllegalStateException("No mapping " + methodName + " in " + PlayerController.class.getName());
+        }
+        return LinkTemplate.of(PlayerController.class, method);
+    }
+
+    private static String baseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (null == attributes){
+            return "";
+        }
+        String baseUri = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (null == baseUri){
+            baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+}
@@ -1,15 +1,17 @@
 package jocDeDaus.util.assembler;
 
 import jocDeDaus.dto.PlayerDto;
-import org.modelmapper.ModelMapper;
+import jocDeDaus.util.mapper.IDtoMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.LinkRelation;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
-import jocDeDaus.controller.PlayerController;
 import jocDeDaus.entity.Player;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Clase de la capa de Utilidades
@@ -21,28 +23,56 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
  * para que los DTO recopilen enlaces, un EntityModel simple que envuelve un objeto
  * de dominio y le agrega enlaces.
  *
+ * Los enlaces se construyen con las plantillas precompiladas de PlayerControllerLinks
+ *
  */
 
 @Component
 public class PlayerModelAssembler implements RepresentationModelAssembler<Player, EntityModel<PlayerDto>> {
 
     @Autowired
-    private ModelMapper modelMapper;
+    private IDtoMapper iDtoMapper;
+
+    @Autowired
+    private PlayerControllerLinks playerControllerLinks;
 
     @Override
     public EntityModel<PlayerDto> toModel(Player player) {
         PlayerDto playerDto = convertToDto(player);
 
         return EntityModel.of(playerDto,
-                linkTo(methodOn(PlayerController.class).one(player.getIdPlayer())).withSelfRel(),
-                linkTo(methodOn(PlayerController.class).newPlayer(player)).withRel("new"),
-                linkTo(methodOn(PlayerController.class).updatePlayer(player, player.getIdPlayer())).withRel("update"),
-                linkTo(methodOn(PlayerController.class).deletePlayer(player.getIdPlayer())).withRel("delete"),
-                linkTo(methodOn(PlayerController.class).allPlayers()).withRel("all"));
+                playerControllerLinks.one(player.getIdPlayer(), IanaLinkRelations.SELF),
+                playerControllerLinks.newPlayer(LinkRelation.of("new")),
+                playerControllerLinks.updatePlayer(player.getIdPlayer(), LinkRelation.of("update")),
+                playerControllerLinks.deletePlayer(player.getIdPlayer(), LinkRelation.of("delete")),
+                playerControllerLinks.allPlayers(null, null, LinkRelation.of("all")));
+    }
+
+    /**
+     * Convierte una pagina de jugadores en un CollectionModel con enlace self y, si la pagina
+     * esta completa, enlace next a la pagina siguiente (keyset, a partir del ultimo jugador)
+     *
+     * @param players jugadores de la pagina, ordenados por identificador
+     * @param limit numero maximo de jugadores por pagina
+     * @param after identificador a partir del cual se ha obtenido la pagina
+     * @return CollectionModel con los jugadores y los enlaces de paginacion
+     */
+    public CollectionModel<EntityModel<PlayerDto>> toCollectionModel(List<Player> players, Integer limit, Long after) {
+        List<EntityModel<PlayerDto>> playersDto = players.stream()
+                .map(this::toModel)
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<PlayerDto>> collectionModel = CollectionModel.of(playersDto,
+                playerControllerLinks.allPlayers(limit, after, IanaLinkRelations.SELF));
+
+        if (!players.isEmpty() && players.size() >= limit){
+            Long lastIdPlayer = players.get(players.size() - 1).getIdPlayer();
+            collectionModel.add(playerControllerLinks.allPlayers(limit, lastIdPlayer, IanaLinkRelations.NEXT));
+        }
+        return collectionModel;
     }
 
     public PlayerDto convertToDto(Player player){
-        PlayerDto playerDto = modelMapper.map(player, PlayerDto.class);
-        return playerDto;
+        return iDtoMapper.toPlayerDto(player);
     }
 }
@@ -1,15 +1,26 @@
 package jocDeDaus.util.assembler;
 
-import jocDeDaus.controller.PlayerController;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jocDeDaus.dto.RankingDto;
+import jocDeDaus.entity.Game;
 import jocDeDaus.entity.Ranking;
-import org.modelmapper.ModelMapper;
+import jocDeDaus.util.mapper.IDtoMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.Links;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
 
 /**
  * Clase de la capa de Utilidades
@@ -21,26 +32,130 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
  * para que los DTO recopilen enlaces, un EntityModel simple que envuelve un objeto
  * de dominio y le agrega enlaces.
  *
+ * Tambien permite escribir la misma representacion de forma incremental con un JsonGenerator,
+ * partida a partida, sin construir la lista completa de partidas en memoria.
+ *
  */
 
 @Component
 public class RankingModelAssembler implements RepresentationModelAssembler<Ranking, EntityModel<RankingDto>> {
 
     @Autowired
-    private ModelMapper modelMapper;
+    private IDtoMapper iDtoMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlayerControllerLinks playerControllerLinks;
 
     public EntityModel<RankingDto> toModel(Ranking ranking) {
 
         RankingDto rankingDto = convertToDto(ranking);
 
-        return EntityModel.of(rankingDto,
-                        linkTo(methodOn(PlayerController.class).averageSuccessRankingAllPlayers()).withSelfRel(),
-                        linkTo(methodOn(PlayerController.class).playerLoser()).withRel("loser"),
-                        linkTo(methodOn(PlayerController.class).playerWinner()).withRel("winner"));
+        return EntityModel.of(rankingDto, toLinks(playerControllerLinks.ranking(null, null, null, IanaLinkRelations.SELF)));
+    }
+
+    /**
+     * Convierte el ranking con una pagina de sus partidas en un EntityModel con enlace self y, si la pagina
+     * esta completa, enlace next a la pagina siguiente (keyset, a partir de la ultima partida)
+     *
+     * @param ranking ranking medio y partidas de la pagina, ordenadas por jugador y partida
+     * @param limit numero maximo de partidas por pagina
+     * @param afterPlayer jugador de la partida a partir de la cual se ha obtenido la pagina
+     * @param afterGame partida a partir de la cual se ha obtenido la pagina
+     * @return EntityModel con el ranking y los enlaces de paginacion
+     */
+    public EntityModel<RankingDto> toModel(Ranking ranking, Integer limit, Long afterPlayer, Long afterGame) {
+
+        RankingDto rankingDto = convertToDto(ranking);
+
+        EntityModel<RankingDto> entityModel = EntityModel.of(rankingDto,
+                toLinks(playerControllerLinks.ranking(limit, afterPlayer, afterGame, IanaLinkRelations.SELF)));
+
+        List<Game> games = ranking.getGames();
+        if (null != games && !games.isEmpty() && games.size() >= limit){
+            Game lastGame = games.get(games.size() - 1);
+            entityModel.add(playerControllerLinks.ranking(limit, lastGame.getIdPlayer(), lastGame.getIdGame(),
+                    IanaLinkRelations.NEXT));
+        }
+        return entityModel;
+    }
+
+    /**
+     * Crea el cuerpo de una respuesta que escribe la representacion del ranking en streaming.
+     *
+     * Los enlaces se resuelven al llamar a este metodo, en el hilo de la peticion, ya que el cuerpo
+     * se escribe despues en otro hilo, sin acceso a la peticion actual
+     *
+     * @param averageRankingAllPlayers ranking medio de todos los jugadores
+     * @param games recorrido de las partidas, que se escriben a medida que se reciben
+     * @return cuerpo de la respuesta, con el mismo formato que toModel
+     */
+    public StreamingResponseBody toStreamingModel(Double averageRankingAllPlayers, Consumer<Consumer<Game>> games) {
+        Links links = toLinks(playerControllerLinks.ranking(null, null, null, IanaLinkRelations.SELF));
+
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeNumberField("averageRankingAllPlayers", averageRankingAllPlayers);
+
+                generator.writeArrayFieldStart("games");
+                games.accept(game -> writeGame(generator, game));
+                generator.writeEndArray();
+
+                generator.writeObjectFieldStart("_links");
+                for (Link link : links) {
+                    generator.writeObjectFieldStart(link.getRel().value());
+                    generator.writeStringField("href", link.getHref());
+                    if (link.isTemplated()){
+                        generator.writeBooleanField("templated", true);
+                    }
+                    generator.writeEndObject();
+                }
+                generator.writeEndObject();
+
+                generator.writeEndObject();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
     }
 
     public RankingDto convertToDto(Ranking ranking) {
-        RankingDto rankingDto = modelMapper.map(ranking, RankingDto.class);
-        return rankingDto;
+        return iDtoMapper.toRankingDto(ranking);
+    }
+
+    private Links toLinks(Link selfLink) {
+        return Links.of(selfLink,
+                        playerControllerLinks.loser(LinkRelation.of("loser")),
+                        playerControllerLinks.winner(LinkRelation.of("winner")),
+                        playerControllerLinks.top(null, LinkRelation.of("top")),
+                        playerControllerLinks.bottom(null, LinkRelation.of("bottom")));
+    }
+
+    private void writeGame(JsonGenerator generator, Game game) {
+        try {
+            generator.writeStartObject();
+            writeNumberField(generator, "idGame", game.getIdGame());
+            writeNumberField(generator, "idPlayer", game.getIdPlayer());
+            if (null == game.getGameResult()){
+                generator.writeNullField("gameResult");
+            } else {
+                generator.writeBooleanField("gameResult", game.getGameResult());
+            }
+            writeNumberField(generator, "idCrapsRoll", game.getIdCrapsRoll());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeNumberField(JsonGenerator generator, String fieldName, Long value) throws IOException {
+        if (null == value){
+            generator.writeNullField(fieldName);
+        } else {
+            generator.writeNumberField(fieldName, value);
+        }
     }
 }
@@ -0,0 +1,49 @@
+package jocDeDaus.util.mapper;
+
+import jocDeDaus.dto.CrapsRollDto;
+import jocDeDaus.dto.GameDto;
+import jocDeDaus.dto.PlayerDto;
+import jocDeDaus.dto.PurgeDto;
+import jocDeDaus.dto.RankingDto;
+import jocDeDaus.entity.CrapsRoll;
+import jocDeDaus.entity.Game;
+import jocDeDaus.entity.Player;
+import jocDeDaus.entity.Purge;
+import jocDeDaus.entity.Ranking;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+/**
+ * Interface de la capa de Utilidades
+ *
+ * Mapeo de las entidades a sus DTO. MapStruct genera la implementacion (IDtoMapperImpl) en tiempo
+ * de compilacion, con copias directas de cada propiedad, sin reflexion.
+ *
+ * Las propiedades se emparejan por nombre exacto, como la estrategia STRICT del ModelMapper al que
+ * sustituye, y una propiedad del DTO sin origen es un error de compilacion (unmappedTargetPolicy)
+ *
+ * Anotaciones:
+ * @Mapper
+ * Marca la interface para que MapStruct genere su implementacion; con componentModel "spring"
+ * la implementacion es un bean de Spring (@Component)
+ *
+ */
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface IDtoMapper {
+
+    PlayerDto toPlayerDto(Player player); // map Player to PlayerDto
+
+    CrapsRollDto toCrapsRollDto(CrapsRoll crapsRoll); // map CrapsRoll to CrapsRollDto
+
+    GameDto toGameDto(Game game); // map Game to GameDto
+
+    List<GameDto> toGameDtos(List<Game> games); // map a list of Game to GameDto
+
+    RankingDto toRankingDto(Ranking ranking); // map Ranking to RankingDto, with its games
+
+    PurgeDto toPurgeDto(Purge purge); // map Purge to PurgeDto
+
+}
@@ -51,5 +51,15 @@ INSERT INTO GAME
 (ID_GAME, ID_PLAYER, ID_CRAPSROLL, GAME_RESULT)
 VALUES(2, 3, 7, true);
 
+INSERT INTO CRAPSROLL_SEQ (NEXT_VAL)
+SELECT COALESCE(MAX(ID_CRAPSROLL), 0) + 1 FROM CRAPSROLL;
 
+INSERT INTO GAME_COUNTER (ID_PLAYER, LAST_ID_GAME)
+SELECT p.ID_PLAYER, COALESCE(MAX(g.ID_GAME), 0) FROM PLAYER p
+LEFT JOIN GAME g ON g.ID_PLAYER = p.ID_PLAYER
+GROUP BY p.ID_PLAYER;
 
+-- Contadores de tiradas de cada jugador, recalculados a partir de CRAPSROLL (igual que --rebuild-statistics)
+UPDATE PLAYER p SET
+	TOTAL_ROLLS = (SELECT COUNT(*) FROM CRAPSROLL c WHERE c.ID_PLAYER = p.ID_PLAYER),
+	TOTAL_WINS = (SELECT COUNT(*) FROM CRAPSROLL c WHERE c.ID_PLAYER = p.ID_PLAYER AND c.ROLL_RESULT = 7);
@@ -1,3 +1,5 @@
+DROP TABLE IF EXISTS GAME_COUNTER;
+DROP TABLE IF EXISTS CRAPSROLL_SEQ;
 DROP TABLE IF EXISTS GAME;
 DROP TABLE IF EXISTS CRAPSROLL;
 DROP TABLE IF EXISTS PLAYER;
@@ -6,7 +8,13 @@ CREATE TABLE PLAYER (
 	ID_PLAYER INTEGER NOT NULL AUTO_INCREMENT,
 	ENTRY_DATE TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
 	NAME VARCHAR(250) NOT NULL,
-	CONSTRAINT PLAYER_PK PRIMARY KEY (ID_PLAYER)
+	-- nombre en mayusculas, nulo para ANONYMOUS, que puede repetirse
+	NAME_KEY VARCHAR(250) AS (CASE WHEN UPPER(NAME) = 'ANONYMOUS' THEN NULL ELSE UPPER(NAME) END),
+	-- tiradas y tiradas ganadas del jugador, actualizadas en la misma transaccion que inserta o borra sus tiradas
+	TOTAL_ROLLS BIGINT NOT NULL DEFAULT 0,
+	TOTAL_WINS BIGINT NOT NULL DEFAULT 0,
+	CONSTRAINT PLAYER_PK PRIMARY KEY (ID_PLAYER),
+	CONSTRAINT PLAYER_NAME_UK UNIQUE (NAME_KEY)
 );
 
 CREATE TABLE CRAPSROLL (
@@ -27,4 +35,25 @@ CREATE TABLE GAME (
 	CONSTRAINT GAME_PK PRIMARY KEY (ID_GAME,ID_PLAYER),
 	CONSTRAINT GAME_FK_PLAYER FOREIGN KEY (ID_PLAYER) REFERENCES PLAYER(ID_PLAYER) ON DELETE CASCADE ON UPDATE CASCADE,
 	CONSTRAINT GAME_FK_CRAPSROLL FOREIGN KEY (ID_CRAPSROLL) REFERENCES CRAPSROLL(ID_CRAPSROLL) ON DELETE SET NULL ON UPDATE CASCADE
-);
\ No newline at end of file
+);
+
+-- Siguiente ID_CRAPSROLL libre, reservado por bloques desde Hibernate (optimizador pooled-lo)
+CREATE TABLE CRAPSROLL_SEQ (
+	NEXT_VAL BIGINT NOT NULL
+);
+
+-- Ultimo ID_GAME asignado a cada jugador
+CREATE TABLE GAME_COUNTER (
+	ID_PLAYER INTEGER NOT NULL,
+	LAST_ID_GAME INTEGER NOT NULL DEFAULT 0,
+	CONSTRAINT GAME_COUNTER_PK PRIMARY KEY (ID_PLAYER),
+	CONSTRAINT GAME_COUNTER_FK_PLAYER FOREIGN KEY (ID_PLAYER) REFERENCES PLAYER(ID_PLAYER) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+-- Tokens JWT revocados (claim jti) hasta su expiracion
+-- No se borra al arrancar: la revocacion debe sobrevivir a los reinicios
+CREATE TABLE IF NOT EXISTS REVOKED_TOKEN (
+	ID_TOKEN VARCHAR(36) NOT NULL,
+	EXPIRES_AT TIMESTAMP NOT NULL,
+	CONSTRAINT REVOKED_TOKEN_PK PRIMARY KEY (ID_TOKEN)
+);
@@ -0,0 +1,59 @@
+package jocDeDaus.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jocDeDaus.entity.Player;
+import jocDeDaus.service.IPlayerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clase de pruebas de integracion de la capa de Configuracion
+ *
+ * Separacion de lecturas y escrituras con una replica inalcanzable (un servidor H2 en un puerto cerrado):
+ * las transacciones de solo lectura se sirven desde la base de datos principal y cada desvio incrementa
+ * la metrica jocdedaus.datasource.replica.fallback
+ *
+ * Anotaciones:
+ * @SpringBootTest
+ * Arranca el contexto completo de la aplicacion, con el perfil "test" y la replica apuntando a un puerto cerrado
+ *
+ * @DirtiesContext
+ * El contexto no se reutiliza en otras clases de prueba: su replica no esta disponible
+ *
+ */
+
+@SpringBootTest(properties = {
+        "jocdedaus.datasource.replica.url=jdbc:h2:tcp://localhost:1/mem:unreachable",
+        "jocdedaus.datasource.replica.hikari.connection-timeout=250",
+        "jocdedaus.datasource.replica.retry-interval=0"})
+@ActiveProfiles("test")
+@DirtiesContext
+class ReadReplicaFallbackTest {
+
+    @Autowired
+    IPlayerService iPlayerService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void readOnlyServiceTransactionsFallBackToThePrimary() {
+        double fallbacks = fallbacks();
+
+        List<Player> players = iPlayerService.listPlayers();
+
+        assertThat(players).isNotEmpty();
+        assertThat(fallbacks()).isGreaterThan(fallbacks);
+    }
+
+    private double fallbacks() {
+        return meterRegistry.get("jocdedaus.datasource.replica.fallback").counter().count();
+    }
+}
@@ -0,0 +1,87 @@
+package jocDeDaus.configuration;
+
+import jocDeDaus.entity.Player;
+import jocDeDaus.service.IPlayerService;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clase de pruebas de integracion de la capa de Configuracion
+ *
+ * Separacion de lecturas y escrituras con dos bases de datos H2 en memoria: la replica
+ * (jocdedaus.datasource.replica.url) se inicializa con los mismos scripts que la principal y despues se cambia
+ * el nombre de un jugador solo en la replica. listPlayers, @Transactional(readOnly = true), devuelve el nombre
+ * de la replica; findPlayerById, sin transaccion de solo lectura, el de la principal
+ *
+ * Anotaciones:
+ * @SpringBootTest
+ * Arranca el contexto completo de la aplicacion, con el perfil "test" y la replica en una segunda H2
+ *
+ * @DirtiesContext
+ * El contexto no se reutiliza en otras clases de prueba: la replica ya no coincide con la principal
+ *
+ */
+
+@SpringBootTest(properties = {
+        "jocdedaus.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "jocdedaus.datasource.replica.initialize=true"})
+@ActiveProfiles("test")
+@DirtiesContext
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=FALSE";
+
+    private static final String REPLICA_ONLY_NAME = "ReplicaOnly";
+
+    @Autowired
+    IPlayerService iPlayerService;
+
+    @Autowired
+    DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Value("${jocdedaus.datasource.replica.url}")
+    String replicaUrl;
+
+    @Test
+    void readOnlyServiceTransactionsReadTheReplica() throws Exception {
+        Player player = iPlayerService.listPlayers().get(0);
+        String primaryName = player.getName();
+
+        try (Connection connection = DriverManager.getConnection(replicaUrl,
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+             PreparedStatement statement = connection.prepareStatement(
+                     "UPDATE PLAYER SET NAME = ? WHERE ID_PLAYER = ?")) {
+            statement.setString(1, REPLICA_ONLY_NAME);
+            statement.setLong(2, player.getIdPlayer());
+            assertThat(statement.executeUpdate()).isEqualTo(1);
+        }
+        // la entidad no debe llegar desde la cache de segundo nivel
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        assertThat(iPlayerService.listPlayers())
+                .filteredOn(listed -> listed.getIdPlayer().equals(player.getIdPlayer()))
+                .extracting(Player::getName)
+                .containsExactly(REPLICA_ONLY_NAME);
+
+        assertThat(iPlayerService.findPlayerById(player.getIdPlayer()))
+                .get()
+                .extracting(Player::getName)
+                .isEqualTo(primaryName);
+    }
+}
@@ -0,0 +1,176 @@
+package jocDeDaus.controller;
+
+import jocDeDaus.entity.Player;
+import jocDeDaus.service.ICrapsRollService;
+import jocDeDaus.service.IPlayerService;
+import jocDeDaus.util.IUtilities;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Clase de pruebas de integracion de la capa Controller
+ *
+ * Cuenta las sentencias JDBC preparadas por Hibernate (Statistics.getPrepareStatementCount) en cada endpoint
+ * de PlayerController, con open-in-view desactivado y la cache de segundo nivel vacia, primero con un solo
+ * jugador y despues con PLAYERS jugadores mas: el numero de sentencias de cada endpoint es fijo y no depende
+ * del numero de jugadores ni de sus tiradas
+ *
+ * Anotaciones:
+ * @SpringBootTest
+ * Arranca el contexto completo de la aplicacion, con el perfil "test" sobre H2 en memoria
+ *
+ * @DirtiesContext
+ * El contexto no se reutiliza en otras clases de prueba: la prueba elimina los jugadores de data.sql
+ *
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DirtiesContext
+class PlayerControllerQueryCountTest {
+
+    private static final int PLAYERS = 50;
+    private static final int CRAPS_ROLLS = 5;
+
+    // sentencias de cada endpoint, con la cache de segundo nivel vacia
+    private static final Map<String, Long> EXPECTED_STATEMENTS = Map.ofEntries(
+            Map.entry("GET /players", 1L),
+            Map.entry("GET /players/{id}", 1L),
+            Map.entry("PUT /players/{id}", 3L),
+            Map.entry("GET /players/{id}/games", 2L),
+            Map.entry("POST /players/{id}/games", 5L),
+            Map.entry("POST /players/{id}/games?count", 5L),
+            Map.entry("GET /players/ranking", 1L),
+            Map.entry("GET /players/ranking/winner", 1L),
+            Map.entry("GET /players/ranking/loser", 1L),
+            Map.entry("GET /players/ranking/top", 1L),
+            Map.entry("GET /players/ranking/bottom", 1L),
+            Map.entry("DELETE /players/{id}/games", 4L),
+            Map.entry("DELETE /players/{id}", 7L));
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    IPlayerService iPlayerService;
+
+    @Autowired
+    ICrapsRollService iCrapsRollService;
+
+    @Autowired
+    IUtilities iUtilities;
+
+    private SessionFactory sessionFactory;
+    private String token;
+    private int names;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        token = mockMvc.perform(post("/login").content("{\"name\":\"root\",\"password\":\"r@@t\"}"))
+                .andReturn().getResponse().getHeader(HttpHeaders.AUTHORIZATION);
+    }
+
+    @Test
+    void statementsPerEndpointDoNotDependOnThePlayers() throws Exception {
+        iPlayerService.listPlayers().forEach(iPlayerService::deletePlayer);
+        Player player = newPlayerWithCrapsRolls();
+
+        Map<String, Long> onePlayer = statementsPerEndpoint(player);
+
+        for (int i = 0; i < PLAYERS; i++) {
+            newPlayerWithCrapsRolls();
+        }
+        Map<String, Long> manyPlayers = statementsPerEndpoint(player);
+
+        assertThat(manyPlayers).isEqualTo(onePlayer);
+        assertThat(onePlayer).isEqualTo(EXPECTED_STATEMENTS);
+    }
+
+    private Map<String, Long> statementsPerEndpoint(Player player) throws Exception {
+        Long idPlayer = player.getIdPlayer();
+        Map<String, Long> statements = new LinkedHashMap<>();
+
+        statements.put("GET /players", statements(get("/players")));
+        statements.put("GET /players/{id}", statements(get("/players/{id}", idPlayer)));
+        statements.put("PUT /players/{id}", statements(put("/players/{id}", idPlayer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"" + nextName() + "\"}")));
+        statements.put("GET /players/{id}/games", statements(get("/players/{id}/games", idPlayer)));
+        statements.put("POST /players/{id}/games", statements(post("/players/{id}/games", idPlayer)));
+        statements.put("POST /players/{id}/games?count",
+                statements(post("/players/{id}/games", idPlayer).param("count", "10")));
+        statements.put("GET /players/ranking", statements(get("/players/ranking")));
+        statements.put("GET /players/ranking/winner", statements(get("/players/ranking/winner")));
+        statements.put("GET /players/ranking/loser", statements(get("/players/ranking/loser")));
+        statements.put("GET /players/ranking/top", statements(get("/players/ranking/top")));
+        statements.put("GET /players/ranking/bottom", statements(get("/players/ranking/bottom")));
+
+        Long idPurgedPlayer = newPlayerWithCrapsRolls().getIdPlayer();
+        statements.put("DELETE /players/{id}/games", statements(delete("/players/{id}/games", idPurgedPlayer)));
+
+        Long idDeletedPlayer = newPlayerWithCrapsRolls().getIdPlayer();
+        statements.put("DELETE /players/{id}", statements(delete("/players/{id}", idDeletedPlayer)));
+
+        return statements;
+    }
+
+    // sentencias preparadas por Hibernate durante la peticion, incluida su parte asincrona
+    private long statements(RequestBuilder request) throws Exception {
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        MvcResult result = mockMvc.perform(authorized(request)).andReturn();
+        if (result.getRequest().isAsyncStarted()){
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        assertThat(result.getResponse().getStatus()).isLessThan(300);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private RequestBuilder authorized(RequestBuilder request) {
+        return servletContext -> {
+            MockHttpServletRequest mockRequest = request.buildRequest(servletContext);
+            mockRequest.addHeader(HttpHeaders.AUTHORIZATION, token);
+            return mockRequest;
+        };
+    }
+
+    private Player newPlayerWithCrapsRolls() {
+        Player player = new Player();
+        player.setName(nextName());
+        player = iPlayerService.savePlayer(player);
+        iCrapsRollService.saveCrapsRolls(iUtilities.generateNewCrapsRolls(player, CRAPS_ROLLS));
+        return player;
+    }
+
+    private String nextName() {
+        return "player" + (++names);
+    }
+}
@@ -0,0 +1,117 @@
+package jocDeDaus.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Clase de pruebas de integracion de la capa Security
+ *
+ * Un token de acceso expirado, mal formado o firmado con otra clave se rechaza como una peticion sin
+ * autenticar (403), no con un error del servidor. Un token de refresco solo se puede usar una vez, aunque
+ * llegue en varias peticiones concurrentes
+ *
+ * Anotaciones:
+ * @SpringBootTest
+ * Arranca el contexto completo de la aplicacion, con el perfil "test" sobre H2 en memoria
+ *
+ */
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationTest {
+
+    private static final int REFRESHES = 8;
+    private static final String FORGED_SECRET_KEY =
+            "c2lnbmVkIHdpdGggYW5vdGhlciBrZXksIG5vdCB0aGUgb25lIG9mIHRoZSBhcHBsaWNhdGlvbiB1bmRlciB0ZXN0IQ==";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Value("${jocdedaus.security.jwt.secret}")
+    String secretKey;
+
+    @Test
+    void rejectsAnExpiredAccessToken() throws Exception {
+        String expired = accessToken(secretKey, new Date(System.currentTimeMillis() - 60_000));
+
+        mockMvc.perform(get("/players").header(HttpHeaders.AUTHORIZATION, "Bearer " + expired))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void rejectsAnInvalidAccessToken() throws Exception {
+        mockMvc.perform(get("/players").header(HttpHeaders.AUTHORIZATION, "Bearer not.a.token"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void rejectsAnAccessTokenSignedWithAnotherKey() throws Exception {
+        String forged = accessToken(FORGED_SECRET_KEY, new Date(System.currentTimeMillis() + 60_000));
+
+        mockMvc.perform(get("/players").header(HttpHeaders.AUTHORIZATION, "Bearer " + forged))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void consumesARefreshTokenOnlyOnce() throws Exception {
+        String refreshToken = mockMvc.perform(post("/login").content("{\"name\":\"root\",\"password\":\"r@@t\"}"))
+                .andReturn().getResponse().getHeader(JwtUtil.HEADER_REFRESH_TOKEN_KEY);
+        assertThat(refreshToken).isNotNull();
+
+        Callable<Integer> refresh = () -> mockMvc.perform(post("/token/refresh")
+                        .header(JwtUtil.HEADER_REFRESH_TOKEN_KEY, refreshToken))
+                .andReturn().getResponse().getStatus();
+
+        ExecutorService executor = Executors.newFixedThreadPool(REFRESHES);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < REFRESHES; i++) {
+                statuses.add(executor.submit(refresh));
+            }
+            int refreshed = 0;
+            for (Future<Integer> status : statuses) {
+                if (status.get() == 200){
+                    refreshed++;
+                }
+            }
+            assertThat(refreshed).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(refresh.call()).isEqualTo(401);
+    }
+
+    private static String accessToken(String key, Date expiration) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("root")
+                .claim("typ", "access")
+                .setExpiration(expiration)
+                .signWith(SignatureAlgorithm.HS512, key)
+                .compact();
+    }
+}
@@ -0,0 +1,151 @@
+package jocDeDaus.util.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jocDeDaus.dto.CrapsRollDto;
+import jocDeDaus.dto.GameDto;
+import jocDeDaus.dto.PlayerDto;
+import jocDeDaus.dto.RankingDto;
+import jocDeDaus.entity.CrapsRoll;
+import jocDeDaus.entity.Game;
+import jocDeDaus.entity.Player;
+import jocDeDaus.entity.Ranking;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clase de pruebas de la capa de Utilidades
+ *
+ * Comprueba que IDtoMapperImpl, generado por MapStruct, produce el mismo JSON que el ModelMapper con la
+ * estrategia STRICT al que sustituye, para entidades aleatorias (semilla fija) con propiedades a null
+ *
+ */
+
+class IDtoMapperTest {
+
+    private static final int ENTITIES = 2000;
+
+    private final IDtoMapper iDtoMapper = new IDtoMapperImpl();
+    private final ModelMapper modelMapper = strictModelMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random = new Random(42);
+
+    @Test
+    void playerDtoMatchesModelMapper() {
+        for (int i = 0; i < ENTITIES; i++) {
+            Player player = randomPlayer();
+
+            assertSameJson(modelMapper.map(player, PlayerDto.class), iDtoMapper.toPlayerDto(player));
+        }
+    }
+
+    @Test
+    void crapsRollDtoMatchesModelMapper() {
+        for (int i = 0; i < ENTITIES; i++) {
+            CrapsRoll crapsRoll = randomCrapsRoll();
+
+            assertSameJson(modelMapper.map(crapsRoll, CrapsRollDto.class), iDtoMapper.toCrapsRollDto(crapsRoll));
+        }
+    }
+
+    @Test
+    void gameDtoMatchesModelMapper() {
+        for (int i = 0; i < ENTITIES; i++) {
+            Game game = randomGame();
+
+            assertSameJson(modelMapper.map(game, GameDto.class), iDtoMapper.toGameDto(game));
+        }
+    }
+
+    @Test
+    void gameDtoWithoutCrapsRollMatchesModelMapper() {
+        Game game = randomGame();
+        game.setCrapsRoll(null);
+        game.setIdCrapsRoll(null);
+
+        assertSameJson(modelMapper.map(game, GameDto.class), iDtoMapper.toGameDto(game));
+    }
+
+    @Test
+    void rankingDtoMatchesModelMapper() {
+        for (int i = 0; i < ENTITIES / 20; i++) {
+            Ranking ranking = new Ranking();
+            ranking.setAverageRankingAllPlayers(nullable(random.nextDouble() * 100));
+            List<Game> games = new ArrayList<>();
+            for (int g = random.nextInt(20); g > 0; g--) {
+                games.add(randomGame());
+            }
+            ranking.setGames(games);
+
+            assertSameJson(modelMapper.map(ranking, RankingDto.class), iDtoMapper.toRankingDto(ranking));
+        }
+    }
+
+    @Test
+    void rankingDtoWithoutGamesMatchesModelMapper() {
+        Ranking ranking = new Ranking();
+        ranking.setAverageRankingAllPlayers(0.0);
+
+        assertSameJson(modelMapper.map(ranking, RankingDto.class), iDtoMapper.toRankingDto(ranking));
+    }
+
+    private void assertSameJson(Object expected, Object actual) {
+        try {
+            assertThat(objectMapper.writeValueAsString(actual)).isEqualTo(objectMapper.writeValueAsString(expected));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Player randomPlayer() {
+        Player player = new Player();
+        player.setIdPlayer(nullable(random.nextLong()));
+        player.setEntryDate(nullable(new Date(random.nextInt(Integer.MAX_VALUE) * 1000L)));
+        player.setName(nullable("player" + random.nextInt(1000)));
+        player.setRanking(nullable(random.nextDouble() * 100));
+        player.setTotalRolls(nullable((long) random.nextInt(1000)));
+        player.setTotalWins(nullable((long) random.nextInt(1000)));
+        return player;
+    }
+
+    private CrapsRoll randomCrapsRoll() {
+        CrapsRoll crapsRoll = new CrapsRoll();
+        crapsRoll.setIdCrapsRoll(nullable(random.nextLong()));
+        crapsRoll.setIdPlayer(nullable(random.nextLong()));
+        crapsRoll.setCrapOne(nullable((short) (1 + random.nextInt(6))));
+        crapsRoll.setCrapTwo(nullable((short) (1 + random.nextInt(6))));
+        crapsRoll.setRollResult(nullable((short) (2 + random.nextInt(11))));
+        crapsRoll.setPlayer(random.nextBoolean() ? randomPlayer() : null);
+        return crapsRoll;
+    }
+
+    private Game randomGame() {
+        Game game = new Game();
+        game.setIdGame(nullable(random.nextLong()));
+        game.setIdPlayer(nullable(random.nextLong()));
+        game.setIdCrapsRoll(nullable(random.nextLong()));
+        game.setGameResult(nullable(random.nextBoolean()));
+        game.setPlayer(random.nextBoolean() ? randomPlayer() : null);
+        game.setCrapsRoll(random.nextBoolean() ? randomCrapsRoll() : null);
+        return game;
+    }
+
+    // una de cada diez propiedades queda a null
+    private <T> T nullable(T value) {
+        return random.nextInt(10) == 0 ? null : value;
+    }
+
+    private static ModelMapper strictModelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        return modelMapper;
+    }
+}